@@ -0,0 +1,65 @@
+package com.starwars.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${swapi.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${swapi.dataset.pool-size:4}")
+    private int datasetPoolSize;
+
+    @Value("${swapi.prefetch.pool-size:2}")
+    private int prefetchPoolSize;
+
+    @Value("${swapi.prefetch.queue-size:64}")
+    private int prefetchQueueSize;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService swapiExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swapi-");
+        threadFactory.setDaemon(true);
+
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+
+
+    /**
+     * Pool propio para orquestar las cargas de datasets completos: cada tarea
+     * queda esperando a los workers de swapiExecutor, asi que no puede ocupar
+     * hilos de ese mismo pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService datasetExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swapi-dataset-");
+        threadFactory.setDaemon(true);
+
+        return Executors.newFixedThreadPool(datasetPoolSize, threadFactory);
+    }
+
+
+    /**
+     * Pool chico de baja prioridad para las descargas especulativas; con la
+     * cola llena rechaza la tarea en lugar de competir con las de demanda.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService prefetchExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("swapi-prefetch-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+
+        return new ThreadPoolExecutor(prefetchPoolSize, prefetchPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(prefetchQueueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
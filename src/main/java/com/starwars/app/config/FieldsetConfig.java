@@ -0,0 +1,43 @@
+package com.starwars.app.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.starwars.app.dto.swapi.FilmDTO;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Marca las propiedades de entidades con el filtro "fieldset" mediante
+ * mixins, sin tocar las clases. Los stubs de los listados (PersonDTO,
+ * StarshipDTO, VehicleDTO) no se marcan: solo traen uid, name y url y
+ * recortarlos dejaria filas vacias. Por defecto el filtro serializa todo;
+ * solo se restringe cuando {@link FieldsetResponseAdvice} recibe ?fields=.
+ */
+@Configuration
+public class FieldsetConfig {
+
+    public static final String FIELDSET_FILTER = "fieldset";
+
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(PersonDetailResponse.PersonProperties.class, FieldsetMixin.class)
+                .mixIn(StarshipDetailResponse.StarshipProperties.class, FieldsetMixin.class)
+                .mixIn(VehicleDetailResponse.VehicleProperties.class, FieldsetMixin.class)
+                .mixIn(FilmDTO.FilmProperties.class, FieldsetMixin.class)
+                .mixIn(FilmDetailResponse.FilmProperties.class, FieldsetMixin.class)
+                .filters(new SimpleFilterProvider().addFilter(FIELDSET_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+
+    @JsonFilter(FIELDSET_FILTER)
+    interface FieldsetMixin {
+    }
+}
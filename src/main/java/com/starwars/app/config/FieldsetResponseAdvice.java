@@ -0,0 +1,143 @@
+package com.starwars.app.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.starwars.app.dto.FacetResponse;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Aplica ?fields=name,height,mass a las respuestas JSON: solo se escriben las
+ * propiedades pedidas de la entidad principal (el uid siempre se incluye).
+ * Las referencias embebidas bajo "expanded" se escriben completas. Las
+ * facetas usan ?fields= para elegir columnas, asi que sus respuestas no se
+ * filtran. El filtro se arma una vez por conjunto de campos y se reutiliza;
+ * Jackson omite las demas propiedades al serializar, sin pasar por mapas
+ * intermedios.
+ */
+@RestControllerAdvice
+public class FieldsetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldsetResponseAdvice.class);
+
+    static final String FIELDS_PARAM = "fields";
+    private static final String EMBEDDED_FIELD = "expanded";
+
+    @Value("${swapi.fields.cache-size:256}")
+    private int cacheSize;
+
+    private final Map<String, FilterProvider> filters = Collections.synchronizedMap(new LinkedHashMap<String, FilterProvider>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FilterProvider> eldest) {
+            return size() > cacheSize;
+        }
+    });
+
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue container, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !appliesTo(container.getValue())) {
+            return;
+        }
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAM);
+        if (fields == null || fields.trim().isEmpty()) {
+            return;
+        }
+        container.setFilters(filters(fields));
+    }
+
+
+    FilterProvider filters(String fields) {
+        Set<String> names = parse(fields);
+        String key = String.join(",", names);
+        FilterProvider cached = filters.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        FilterProvider provider = new SimpleFilterProvider()
+                .addFilter(FieldsetConfig.FIELDSET_FILTER, new FieldsetFilter(names));
+        filters.put(key, provider);
+        logger.debug("Built fieldset filter for [{}]", key);
+        return provider;
+    }
+
+
+    /** false para las respuestas donde ?fields= no es un fieldset de entidad. */
+    static boolean appliesTo(Object body) {
+        Object value = body instanceof MappingJacksonValue ? ((MappingJacksonValue) body).getValue() : body;
+        return !(value instanceof FacetResponse);
+    }
+
+
+    /** Campos pedidos mas uid; los nombres en camelCase se aceptan tambien en snake_case (eyeColor, eye_color). */
+    static Set<String> parse(String fields) {
+        Set<String> names = new TreeSet<>();
+        names.add("uid");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            names.add(name);
+            names.add(name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase());
+        }
+        return names;
+    }
+
+
+    /**
+     * filterOutAllExcept que solo recorta la entidad principal: dentro de
+     * "expanded" las referencias embebidas (de la misma clase) se escriben
+     * completas.
+     */
+    @AllArgsConstructor
+    private static class FieldsetFilter extends SimpleBeanPropertyFilter {
+
+        private final Set<String> names;
+
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (names.contains(writer.getName()) || embedded(generator.getOutputContext())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+
+
+        private static boolean embedded(JsonStreamContext context) {
+            for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+                if (EMBEDDED_FIELD.equals(parent.getCurrentName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.starwars.app.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores y Cache-Control para las respuestas de /api/people, /api/films,
+ * /api/starships y /api/vehicles. El ETag fuerte sale del timestamp edited de
+ * la entidad o, para listados, batch y expand, del digest del cuerpo
+ * serializado, y se combina con el tipo de contenido y ?fields= porque cada
+ * representacion es distinta. Si coincide con If-None-Match se responde 304;
+ * si PrecompressedResponseFilter ya tiene la variante gzip de ese ETag se
+ * escribe esa y el cuerpo no se serializa.
+ * <p>
+ * Cache-Control es siempre private: todas estas rutas requieren JWT y una
+ * cache compartida (CDN o proxy) no distingue usuarios ni revalida el token,
+ * asi que entregaria a cualquiera una respuesta autenticada. Solo el cliente
+ * que la pidio puede guardarla.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class HttpCacheResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+    private static final Logger logger = LoggerFactory.getLogger(HttpCacheResponseAdvice.class);
+
+    @Value("${swapi.http.max-age.people:${swapi.cache.ttl-seconds:3600}}")
+    private long peopleMaxAge;
+
+    @Value("${swapi.http.max-age.films:${swapi.cache.ttl-seconds:3600}}")
+    private long filmsMaxAge;
+
+    @Value("${swapi.http.max-age.starships:${swapi.cache.ttl-seconds:3600}}")
+    private long starshipsMaxAge;
+
+    @Value("${swapi.http.max-age.vehicles:${swapi.cache.ttl-seconds:3600}}")
+    private long vehiclesMaxAge;
+
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        ServletServerHttpResponse servletResponse = (ServletServerHttpResponse) response;
+        if (servletResponse.getServletResponse().getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+        Long maxAge = maxAge(request.getURI().getPath());
+        if (maxAge == null) {
+            return body;
+        }
+
+        response.getHeaders().set(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate().getHeaderValue());
+
+        ServletServerHttpRequest servletRequest = (ServletServerHttpRequest) request;
+        String fields = FieldsetResponseAdvice.appliesTo(body)
+                ? servletRequest.getServletRequest().getParameter(FieldsetResponseAdvice.FIELDS_PARAM)
+                : null;
+        String etag = etag(body, contentType, fields);
+        if (etag == null) {
+            return body;
+        }
+        if (new ServletWebRequest(servletRequest.getServletRequest(), servletResponse.getServletResponse())
+                .checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            if (PrecompressedResponseFilter.serveCached(
+                    servletRequest.getServletRequest(), servletResponse.getServletResponse(), etag)) {
+                return null;
+            }
+        } catch (IOException e) {
+            logger.debug("Could not write cached gzip variant for {}: {}", etag, e.getMessage());
+            return null;
+        }
+        return body;
+    }
+
+
+    /** ETag fuerte de la representacion; null si el cuerpo no se puede serializar. */
+    String etag(Object body, MediaType contentType, String fields) {
+        Object value = body instanceof MappingJacksonValue ? ((MappingJacksonValue) body).getValue() : body;
+        String version = edited(value);
+        String content;
+        if (version != null) {
+            content = version;
+        } else {
+            try {
+                content = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value));
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+        String key = contentType + "|" + (fields != null ? fields : "") + "|" + content;
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+
+    /** url@edited de una entidad de detalle; null si no es una o no trae edited. */
+    private static String edited(Object value) {
+        String url = null;
+        String edited = null;
+        if (value instanceof PersonDetailResponse.PersonProperties) {
+            url = ((PersonDetailResponse.PersonProperties) value).getUrl();
+            edited = ((PersonDetailResponse.PersonProperties) value).getEdited();
+        } else if (value instanceof StarshipDetailResponse.StarshipProperties) {
+            url = ((StarshipDetailResponse.StarshipProperties) value).getUrl();
+            edited = ((StarshipDetailResponse.StarshipProperties) value).getEdited();
+        } else if (value instanceof VehicleDetailResponse.VehicleProperties) {
+            url = ((VehicleDetailResponse.VehicleProperties) value).getUrl();
+            edited = ((VehicleDetailResponse.VehicleProperties) value).getEdited();
+        } else if (value instanceof FilmDetailResponse && ((FilmDetailResponse) value).getResult() != null
+                && ((FilmDetailResponse) value).getResult().getProperties() != null) {
+            url = ((FilmDetailResponse) value).getResult().getProperties().getUrl();
+            edited = ((FilmDetailResponse) value).getResult().getProperties().getEdited();
+        }
+        return url != null && edited != null ? url + "@" + edited : null;
+    }
+
+
+    private Long maxAge(String path) {
+        if (path.startsWith("/api/people")) {
+            return peopleMaxAge;
+        }
+        if (path.startsWith("/api/films")) {
+            return filmsMaxAge;
+        }
+        if (path.startsWith("/api/starships")) {
+            return starshipsMaxAge;
+        }
+        if (path.startsWith("/api/vehicles")) {
+            return vehiclesMaxAge;
+        }
+        return null;
+    }
+}
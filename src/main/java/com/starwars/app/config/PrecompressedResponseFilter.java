@@ -0,0 +1,237 @@
+package com.starwars.app.config;
+
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sirve variantes gzip precomprimidas de las respuestas de recursos. La
+ * variante se guarda por el ETag fuerte que calcula HttpCacheResponseAdvice
+ * (version de la entidad o digest del cuerpo, tipo de contenido y ?fields=),
+ * asi que cada representacion se comprime una sola vez. Con la variante ya
+ * guardada el advice la escribe apenas conoce el ETag, sin serializar ni
+ * bufferear el cuerpo; las respuestas por debajo del umbral salen sin
+ * comprimir.
+ * <p>
+ * La variante gzip lleva su propio ETag (el original con sufijo -gzip) para
+ * que una cache no la confunda con la representacion sin comprimir. El
+ * sufijo se quita de If-None-Match antes de revalidar contra el ETag
+ * original, y se repone en el 304.
+ */
+@Component
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrecompressedResponseFilter.class);
+
+    static final String GZIP_SUFFIX = "-gzip";
+
+    private static final String FILTER_ATTRIBUTE = PrecompressedResponseFilter.class.getName();
+    private static final String SERVED_ATTRIBUTE = FILTER_ATTRIBUTE + ".SERVED";
+
+    @Value("${swapi.compression.min-size:1024}")
+    private int minSize;
+
+    @Value("${swapi.compression.cache-size:512}")
+    private int cacheSize;
+
+    private final Map<String, Variant> variants = Collections.synchronizedMap(new LinkedHashMap<String, Variant>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Variant> eldest) {
+            return size() > cacheSize;
+        }
+    });
+    private final AtomicLong compressions = new AtomicLong();
+
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod())
+                || !(path.startsWith("/api/people") || path.startsWith("/api/films")
+                || path.startsWith("/api/starships") || path.startsWith("/api/vehicles"))
+                || path.endsWith("/export") || path.endsWith("/stream");
+    }
+
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        request.setAttribute(FILTER_ATTRIBUTE, this);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(identityValidators(request), wrapper);
+        if (request.getAttribute(SERVED_ATTRIBUTE) != null) {
+            return;
+        }
+
+        String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (wrapper.getStatus() == HttpServletResponse.SC_NOT_MODIFIED && etag != null
+                && ifNoneMatch != null && ifNoneMatch.contains(gzipEtag(etag))) {
+            response.setHeader(HttpHeaders.ETAG, gzipEtag(etag));
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || etag == null || body.length < minSize
+                || wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        Variant variant = variants.get(etag);
+        if (variant == null) {
+            variant = new Variant(gzip(body), wrapper.getContentType());
+            variants.put(etag, variant);
+            compressions.incrementAndGet();
+            logger.debug("Stored gzip variant for {} ({} -> {} bytes)", etag, body.length, variant.body.length);
+        }
+        write(variant, etag, response);
+    }
+
+
+    /**
+     * Escribe la variante gzip guardada para el ETag si el request paso por
+     * el filtro aceptando gzip; devuelve false si no hay variante y el cuerpo
+     * se tiene que serializar normalmente.
+     */
+    static boolean serveCached(HttpServletRequest request, HttpServletResponse response, String etag) throws IOException {
+        Object filter = request.getAttribute(FILTER_ATTRIBUTE);
+        if (!(filter instanceof PrecompressedResponseFilter)) {
+            return false;
+        }
+        Variant variant = ((PrecompressedResponseFilter) filter).variants.get(etag);
+        if (variant == null) {
+            return false;
+        }
+        HttpServletResponse target = response instanceof ContentCachingResponseWrapper
+                ? (HttpServletResponse) ((ContentCachingResponseWrapper) response).getResponse()
+                : response;
+        write(variant, etag, target);
+        request.setAttribute(SERVED_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+
+    long getCompressionCount() {
+        return compressions.get();
+    }
+
+
+    private static void write(Variant variant, String etag, HttpServletResponse response) throws IOException {
+        if (variant.contentType != null) {
+            response.setContentType(variant.contentType);
+        }
+        response.setHeader(HttpHeaders.ETAG, gzipEtag(etag));
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(variant.body.length);
+        response.getOutputStream().write(variant.body);
+    }
+
+
+    /** ETag de la variante gzip: el original con -gzip antes de la comilla final. */
+    static String gzipEtag(String etag) {
+        return etag.endsWith("\"")
+                ? etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\""
+                : etag + GZIP_SUFFIX;
+    }
+
+
+    /** Request cuyo If-None-Match lleva los ETags gzip reducidos al ETag original. */
+    private static HttpServletRequest identityValidators(HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return request;
+        }
+        return new HttpServletRequestWrapper(request) {
+            @Override
+            public String getHeader(String name) {
+                String value = super.getHeader(name);
+                return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) && value != null
+                        ? value.replace(GZIP_SUFFIX + "\"", "\"")
+                        : value;
+            }
+
+            @Override
+            public Enumeration<String> getHeaders(String name) {
+                if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) {
+                    return super.getHeaders(name);
+                }
+                List<String> values = new ArrayList<>();
+                for (String value : Collections.list(super.getHeaders(name))) {
+                    values.add(value.replace(GZIP_SUFFIX + "\"", "\""));
+                }
+                return Collections.enumeration(values);
+            }
+        };
+    }
+
+
+    /** true si Accept-Encoding admite gzip (o *) con q distinto de 0. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+
+    @AllArgsConstructor
+    private static class Variant {
+        private final byte[] body;
+        private final String contentType;
+    }
+}
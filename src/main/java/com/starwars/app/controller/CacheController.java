@@ -0,0 +1,34 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.PageCacheStats;
+import com.starwars.app.service.external.SwapiPageStore;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final SwapiPageStore pageStore;
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+
+    /**
+     * Obtiene las metricas de la cache de listados, incluido el ratio de aciertos de la precarga
+     * GET /api/cache/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<PageCacheStats> getStats() {
+        logger.info("GET /api/cache/stats");
+
+        PageCacheStats stats = pageStore.stats();
+
+        logger.info("Page cache: {} chunks, hit ratio {}, prefetch hit ratio {}",
+                stats.getChunks(), stats.getHitRatio(), stats.getPrefetchHitRatio());
+        return ResponseEntity.ok(stats);
+    }
+}
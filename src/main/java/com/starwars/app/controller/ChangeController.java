@@ -0,0 +1,34 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.ChangeFeed;
+import com.starwars.app.service.external.ChangeFeedService;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+    private static final Logger logger = LoggerFactory.getLogger(ChangeController.class);
+
+
+    /**
+     * Obtiene las entidades que cambiaron despues del token; con wait espera hasta ese tiempo por nuevos cambios
+     * GET /api/changes?since=token&limit=100&wait=30
+     */
+    @GetMapping
+    public DeferredResult<ChangeFeed> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long wait) {
+
+        logger.info("GET /api/changes - since: {}, limit: {}, wait: {}s", since, limit, wait);
+
+        return changeFeedService.poll(since, limit, wait);
+    }
+}
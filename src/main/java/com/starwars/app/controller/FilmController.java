@@ -1,21 +1,28 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.swapi.FilmDTO;
 import com.starwars.app.dto.swapi.FilmDetailResponse;
 import com.starwars.app.dto.swapi.FilmsListResponse;
+import com.starwars.app.service.external.ExpansionService;
 import com.starwars.app.service.external.FilmService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/films")
 @RequiredArgsConstructor
+@Validated
 public class FilmController {
 
     private final FilmService filmService;
@@ -36,6 +43,48 @@ public class FilmController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Obtiene peliculas paginadas por cursor, estables aunque cambie la version del dataset
+     * GET /api/films?cursor=&limit=10
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<FilmDTO>> getFilmsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit) {
+
+        logger.info("GET /api/films - cursor: {}, limit: {}", cursor, limit);
+
+        CursorPage<FilmDTO> response = filmService.getFilmsAfter(cursor, limit);
+
+        if (response.getResults().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Successfully returned {} films (next cursor: {})", response.getResults().size(), response.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Obtiene lista paginada de peliculas resolviendo sus relaciones
+     * GET /api/films?expand=characters
+     */
+    @GetMapping(params = "expand")
+    public ResponseEntity<List<ExpandedResponse<FilmDTO>>> getFilmsExpanded(
+            @RequestParam(defaultValue = "1") @Min(1) Integer page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer limit,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/films - page: {}, limit: {}, expand: {}", page, limit, expand);
+
+        List<ExpandedResponse<FilmDTO>> response = filmService.getFilmsExpanded(page, limit, ExpansionService.parseExpand(expand));
+
+        if (response.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FilmDetailResponse> getFilmById(@PathVariable @NotBlank String id) {
         return filmService.getFilmById(id)
@@ -44,6 +93,29 @@ public class FilmController {
     }
 
 
+    /**
+     * Obtiene detalles de una pelicula por ID resolviendo sus relaciones
+     * GET /api/films/{id}?expand=characters,starships
+     */
+    @GetMapping(value = "/{id}", params = "expand")
+    public ResponseEntity<ExpandedResponse<FilmDetailResponse.FilmProperties>> getFilmByIdExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/films/{} - expand: {}", id, expand);
+
+        return filmService.getFilmExpanded(id, ExpansionService.parseExpand(expand))
+                .map(response -> {
+                    logger.info("Successfully expanded film: {} (partial: {})", id, response.isPartial());
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    logger.warn("Film not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         logger.debug("Health check for films endpoint");
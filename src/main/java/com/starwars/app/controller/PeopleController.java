@@ -1,39 +1,69 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.dto.PathResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.StatsResponse;
 import com.starwars.app.dto.swapi.PersonDTO;
 import com.starwars.app.dto.swapi.PersonDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.external.ExpansionService;
+import com.starwars.app.service.external.ExportService;
 import com.starwars.app.service.external.PeopleService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.StatsService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/people")
 @RequiredArgsConstructor
+@Validated
 public class PeopleController {
 
     private final PeopleService peopleService;
+    private final RelationshipService relationshipService;
+    private final FacetService facetService;
+    private final StatsService statsService;
+    private final ExportService exportService;
     private static final Logger logger = LoggerFactory.getLogger(PeopleController.class);
 
 
     /**
      * Obtiene lista paginada de personas
      * GET /api/people?page=1&size=10
+     * GET /api/people?sort=height:desc&minMass=80&page=1&limit=10
      */
     @GetMapping
     public ResponseEntity<SwapiResponse<PersonDTO>> getPeople(
             @RequestParam(defaultValue = "1") @Min(1) Integer page,
-            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer limit) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit,
+            @RequestParam Map<String, String> params) {
 
         logger.info("GET /api/people - page: {}, size: {}", page, limit);
 
-        SwapiResponse<PersonDTO> response = peopleService.getPeople(page, limit);
+        ListQuery query = ListQuery.parse(params);
+        SwapiResponse<PersonDTO> response = query.isEmpty()
+                ? peopleService.getPeople(page, limit)
+                : peopleService.queryPeople(query, page, limit);
 
         if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
             logger.warn("No people found for page: {}", page);
@@ -44,6 +74,27 @@ public class PeopleController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Obtiene personas paginadas por cursor, estables aunque cambie la version del dataset
+     * GET /api/people?cursor=&limit=10
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<PersonDTO>> getPeopleByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit) {
+
+        logger.info("GET /api/people - cursor: {}, limit: {}", cursor, limit);
+
+        CursorPage<PersonDTO> response = peopleService.getPeopleAfter(cursor, limit);
+
+        if (response.getResults().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Successfully returned {} people (next cursor: {})", response.getResults().size(), response.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
 
     /**
      * Obtiene detalles de un persona por ID
@@ -64,6 +115,180 @@ public class PeopleController {
     }
 
 
+    /**
+     * Obtiene detalles de un persona por ID resolviendo sus relaciones
+     * GET /api/people/{id}?expand=films,starships
+     */
+    @GetMapping(value = "/{id}", params = "expand")
+    public ResponseEntity<ExpandedResponse<PersonDetailResponse.PersonProperties>> getPersonByIdExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/people/{} - expand: {}", id, expand);
+
+        return peopleService.getPersonExpanded(id, ExpansionService.parseExpand(expand))
+                .map(response -> {
+                    logger.info("Successfully expanded person: {} (partial: {})", id, response.isPartial());
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    logger.warn("Person not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene varios personas por ID en una sola llamada
+     * GET /api/people/batch?ids=1,2,3
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<PersonDetailResponse.PersonProperties>> getPeopleBatch(@RequestParam String ids) {
+        logger.info("GET /api/people/batch - ids: {}", ids);
+
+        BatchResponse<PersonDetailResponse.PersonProperties> response = peopleService.getPeopleBatch(ExpansionService.parseIds(ids));
+
+        logger.info("Successfully returned {} people ({} missing)", response.getResults().size(), response.getMissing().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene varios personas por ID emitiendo cada uno por SSE apenas se resuelve
+     * GET /api/people/batch/stream?ids=1,2,3
+     */
+    @GetMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPeopleBatch(@RequestParam String ids) {
+        logger.info("GET /api/people/batch/stream - ids: {}", ids);
+        return peopleService.streamPeopleBatch(ExpansionService.parseIds(ids));
+    }
+
+
+    /**
+     * Obtiene un persona y emite por SSE cada relacion apenas se resuelve
+     * GET /api/people/{id}/stream?expand=films
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPersonExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/people/{}/stream - expand: {}", id, expand);
+
+        return peopleService.streamPersonExpanded(id, ExpansionService.parseExpand(expand))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("Person not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las peliculas en las que aparece una persona
+     * GET /api/people/{id}/films
+     */
+    @GetMapping("/{id}/films")
+    public ResponseEntity<List<RelatedEntity>> getPersonFilms(@PathVariable String id) {
+        logger.info("GET /api/people/{}/films", id);
+
+        return relationshipService.related(SwapiResource.PEOPLE, id, SwapiResource.FILMS)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No person found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las personas que comparten pelicula con una persona
+     * GET /api/people/{id}/co-stars
+     */
+    @GetMapping("/{id}/co-stars")
+    public ResponseEntity<List<RelatedEntity>> getPersonCoStars(@PathVariable String id) {
+        logger.info("GET /api/people/{}/co-stars", id);
+
+        return relationshipService.coStars(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No person found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene el camino mas corto entre dos personas a traves de peliculas, naves o vehiculos compartidos
+     * GET /api/people/{id}/path/{targetId}?maxDepth=6
+     */
+    @GetMapping("/{id}/path/{targetId}")
+    public ResponseEntity<PathResponse> getPathBetweenPeople(
+            @PathVariable String id,
+            @PathVariable String targetId,
+            @RequestParam(defaultValue = "6") Integer maxDepth) {
+
+        logger.info("GET /api/people/{}/path/{} - maxDepth: {}", id, targetId, maxDepth);
+
+        return relationshipService.path(id, targetId, maxDepth)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No person found for IDs: {}, {}", id, targetId);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene los conteos por valor de los campos categoricos de personas
+     * GET /api/people/facets?gender=male&fields=eyeColor,hairColor
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResponse> getPeopleFacets(@RequestParam Map<String, String> params) {
+        logger.info("GET /api/people/facets - params: {}", params);
+
+        FacetResponse response = facetService.facets(SwapiResource.PEOPLE, params);
+
+        logger.info("Successfully returned {} facets over {} people", response.getFacets().size(), response.getTotal());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene estadisticas (min, max, media, percentiles) de un campo numerico de personas
+     * GET /api/people/stats?field=height&groupBy=homeworld
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StatsResponse> getPeopleStats(
+            @RequestParam String field,
+            @RequestParam(required = false) String groupBy) {
+
+        logger.info("GET /api/people/stats - field: {}, groupBy: {}", field, groupBy);
+
+        StatsResponse response = statsService.stats(SwapiResource.PEOPLE, field, groupBy);
+
+        logger.info("Successfully returned {} stats in {} groups", response.getField(), response.getGroups().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Exporta la coleccion completa de personas registro a registro (NDJSON o CSV)
+     * GET /api/people/export?format=ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPeople(@RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("GET /api/people/export - format: {}", format);
+
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        StreamingResponseBody body = output -> exportService.export(SwapiResource.PEOPLE, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+
     /**
      * Health check para el endpoint de personas
      * GET /api/people/health
@@ -0,0 +1,94 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.FuzzyMatch;
+import com.starwars.app.dto.SearchHit;
+import com.starwars.app.dto.SearchSuggestion;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.search.FullTextSearchService;
+import com.starwars.app.service.search.SuggestService;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SuggestService suggestService;
+    private final FullTextSearchService fullTextSearchService;
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+
+    /**
+     * Busca texto libre en titulos, textos de apertura y atributos, con frases entre comillas
+     * GET /api/search?q="rebel spaceships"&type=films&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") Integer limit) {
+
+        logger.info("GET /api/search - q: {}, type: {}, limit: {}", q, type, limit);
+
+        List<SearchHit> hits = fullTextSearchService.search(q, resolveType(type), limit);
+
+        logger.info("Returned {} search hits for '{}'", hits.size(), q);
+        return ResponseEntity.ok(hits);
+    }
+
+
+    /**
+     * Sugiere nombres que empiezan por el texto ingresado, ordenados por popularidad
+     * GET /api/search/suggest?q=lu&type=people&limit=10
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SearchSuggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") Integer limit) {
+
+        logger.info("GET /api/search/suggest - q: {}, type: {}, limit: {}", q, type, limit);
+
+        List<SearchSuggestion> suggestions = suggestService.suggest(q, resolveType(type), limit);
+
+        logger.info("Returned {} suggestions for '{}'", suggestions.size(), q);
+        return ResponseEntity.ok(suggestions);
+    }
+
+
+    /**
+     * Busca nombres tolerando errores de tipeo (distancia de edicion acotada)
+     * GET /api/search/fuzzy?q=chewbaca&type=people&maxEdits=2&limit=10
+     */
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<FuzzyMatch>> fuzzy(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer maxEdits,
+            @RequestParam(defaultValue = "10") Integer limit) {
+
+        logger.info("GET /api/search/fuzzy - q: {}, type: {}, maxEdits: {}, limit: {}", q, type, maxEdits, limit);
+
+        List<FuzzyMatch> matches = suggestService.fuzzy(q, resolveType(type), maxEdits, limit);
+
+        logger.info("Returned {} fuzzy matches for '{}'", matches.size(), q);
+        return ResponseEntity.ok(matches);
+    }
+
+
+    private static SwapiResource resolveType(String type) {
+        if (type == null || type.trim().isEmpty()) {
+            return null;
+        }
+        return SwapiResource.fromEndpoint(type.trim())
+                .orElseThrow(() -> new BadRequestException("Unsupported type: " + type
+                        + ". Supported types: people, films, starships, vehicles"));
+    }
+}
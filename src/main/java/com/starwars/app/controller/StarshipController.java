@@ -1,39 +1,68 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.StatsResponse;
 import com.starwars.app.dto.swapi.StarshipDTO;
 import com.starwars.app.dto.swapi.StarshipDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.external.ExpansionService;
+import com.starwars.app.service.external.ExportService;
 import com.starwars.app.service.external.StarshipService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.StatsService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/starships")
 @RequiredArgsConstructor
+@Validated
 public class StarshipController {
 
     private final StarshipService starshipService;
+    private final RelationshipService relationshipService;
+    private final FacetService facetService;
+    private final StatsService statsService;
+    private final ExportService exportService;
     private static final Logger logger = LoggerFactory.getLogger(StarshipController.class);
 
     /**
      * Obtiene lista paginada de starships
      * GET /api/starships?page=1&limit=10
+     * GET /api/starships?sort=costInCredits:desc&minCrew=10&maxLength=150
      */
     @GetMapping
     public ResponseEntity<SwapiResponse<StarshipDTO>> getStarships(
             @RequestParam(defaultValue = "1") @Min(1) Integer page,
-            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer limit) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit,
+            @RequestParam Map<String, String> params) {
 
         logger.info("GET /api/starships - page: {}, limit: {}", page, limit);
 
-        SwapiResponse<StarshipDTO> response = starshipService.getStarships(page, limit);
+        ListQuery query = ListQuery.parse(params);
+        SwapiResponse<StarshipDTO> response = query.isEmpty()
+                ? starshipService.getStarships(page, limit)
+                : starshipService.queryStarships(query, page, limit);
 
         if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
             logger.warn("No starships found for page: {}", page);
@@ -44,6 +73,27 @@ public class StarshipController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Obtiene starships paginadas por cursor, estables aunque cambie la version del dataset
+     * GET /api/starships?cursor=&limit=10
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<StarshipDTO>> getStarshipsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit) {
+
+        logger.info("GET /api/starships - cursor: {}, limit: {}", cursor, limit);
+
+        CursorPage<StarshipDTO> response = starshipService.getStarshipsAfter(cursor, limit);
+
+        if (response.getResults().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Successfully returned {} starships (next cursor: {})", response.getResults().size(), response.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Obtiene detalles de una starship por ID
      * GET /api/starships/{id}
@@ -64,6 +114,159 @@ public class StarshipController {
                 });
     }
 
+    /**
+     * Obtiene detalles de una starship por ID resolviendo sus relaciones
+     * GET /api/starships/{id}?expand=pilots,films
+     */
+    @GetMapping(value = "/{id}", params = "expand")
+    public ResponseEntity<ExpandedResponse<StarshipDetailResponse.StarshipProperties>> getStarshipByIdExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/starships/{} - expand: {}", id, expand);
+
+        return starshipService.getStarshipExpanded(id, ExpansionService.parseExpand(expand))
+                .map(response -> {
+                    logger.info("Successfully expanded starship: {} (partial: {})", id, response.isPartial());
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    logger.warn("Starship not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene varios starships por ID en una sola llamada
+     * GET /api/starships/batch?ids=1,2,3
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<StarshipDetailResponse.StarshipProperties>> getStarshipsBatch(@RequestParam String ids) {
+        logger.info("GET /api/starships/batch - ids: {}", ids);
+
+        BatchResponse<StarshipDetailResponse.StarshipProperties> response = starshipService.getStarshipsBatch(ExpansionService.parseIds(ids));
+
+        logger.info("Successfully returned {} starships ({} missing)", response.getResults().size(), response.getMissing().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene varios starships por ID emitiendo cada uno por SSE apenas se resuelve
+     * GET /api/starships/batch/stream?ids=1,2,3
+     */
+    @GetMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStarshipsBatch(@RequestParam String ids) {
+        logger.info("GET /api/starships/batch/stream - ids: {}", ids);
+        return starshipService.streamStarshipsBatch(ExpansionService.parseIds(ids));
+    }
+
+
+    /**
+     * Obtiene una starship y emite por SSE cada relacion apenas se resuelve
+     * GET /api/starships/{id}/stream?expand=films
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStarshipExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/starships/{}/stream - expand: {}", id, expand);
+
+        return starshipService.streamStarshipExpanded(id, ExpansionService.parseExpand(expand))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("Starship not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las peliculas en las que aparece una starship
+     * GET /api/starships/{id}/films
+     */
+    @GetMapping("/{id}/films")
+    public ResponseEntity<List<RelatedEntity>> getStarshipFilms(@PathVariable String id) {
+        logger.info("GET /api/starships/{}/films", id);
+
+        return relationshipService.related(SwapiResource.STARSHIPS, id, SwapiResource.FILMS)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No starship found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las personas que pilotaron una starship
+     * GET /api/starships/{id}/pilots
+     */
+    @GetMapping("/{id}/pilots")
+    public ResponseEntity<List<RelatedEntity>> getStarshipPilots(@PathVariable String id) {
+        logger.info("GET /api/starships/{}/pilots", id);
+
+        return relationshipService.related(SwapiResource.STARSHIPS, id, SwapiResource.PEOPLE)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No starship found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene los conteos por valor de los campos categoricos de starships
+     * GET /api/starships/facets?minCrew=10&fields=starshipClass
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResponse> getStarshipFacets(@RequestParam Map<String, String> params) {
+        logger.info("GET /api/starships/facets - params: {}", params);
+
+        FacetResponse response = facetService.facets(SwapiResource.STARSHIPS, params);
+
+        logger.info("Successfully returned {} facets over {} starships", response.getFacets().size(), response.getTotal());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene estadisticas (min, max, media, percentiles) de un campo numerico de starships
+     * GET /api/starships/stats?field=costInCredits&groupBy=starshipClass
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StatsResponse> getStarshipStats(
+            @RequestParam String field,
+            @RequestParam(required = false) String groupBy) {
+
+        logger.info("GET /api/starships/stats - field: {}, groupBy: {}", field, groupBy);
+
+        StatsResponse response = statsService.stats(SwapiResource.STARSHIPS, field, groupBy);
+
+        logger.info("Successfully returned {} stats in {} groups", response.getField(), response.getGroups().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Exporta la coleccion completa de starships registro a registro (NDJSON o CSV)
+     * GET /api/starships/export?format=ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStarship(@RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("GET /api/starships/export - format: {}", format);
+
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        StreamingResponseBody body = output -> exportService.export(SwapiResource.STARSHIPS, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+
     /**
      * Health check para el endpoint de starships
      * GET /api/starships/health
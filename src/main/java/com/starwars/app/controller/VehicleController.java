@@ -1,37 +1,66 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.StatsResponse;
 import com.starwars.app.dto.swapi.*;
+import com.starwars.app.service.external.ExpansionService;
+import com.starwars.app.service.external.ExportService;
 import com.starwars.app.service.external.VehicleService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.StatsService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/vehicles")
 @RequiredArgsConstructor
+@Validated
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final RelationshipService relationshipService;
+    private final FacetService facetService;
+    private final StatsService statsService;
+    private final ExportService exportService;
     private static final Logger logger = LoggerFactory.getLogger(VehicleController.class);
 
     /**
      * Obtiene lista paginada de vehiculos
      * GET /api/vehicles?page=1&limit=10
+     * GET /api/vehicles?sort=maxAtmospheringSpeed:desc&maxCostInCredits=50000
      */
     @GetMapping
     public ResponseEntity<SwapiResponse<VehicleDTO>> getVehicles(
             @RequestParam(defaultValue = "1") @Min(1) Integer page,
-            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer limit) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit,
+            @RequestParam Map<String, String> params) {
 
         logger.info("GET /api/vehicles - page: {}, limit: {}", page, limit);
 
-        SwapiResponse<VehicleDTO> response = vehicleService.getVehicles(page, limit);
+        ListQuery query = ListQuery.parse(params);
+        SwapiResponse<VehicleDTO> response = query.isEmpty()
+                ? vehicleService.getVehicles(page, limit)
+                : vehicleService.queryVehicles(query, page, limit);
 
         if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
             logger.warn("No vehicles found for page: {}", page);
@@ -42,6 +71,27 @@ public class VehicleController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Obtiene vehiculos paginados por cursor, estables aunque cambie la version del dataset
+     * GET /api/vehicles?cursor=&limit=10
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<VehicleDTO>> getVehiclesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) Integer limit) {
+
+        logger.info("GET /api/vehicles - cursor: {}, limit: {}", cursor, limit);
+
+        CursorPage<VehicleDTO> response = vehicleService.getVehiclesAfter(cursor, limit);
+
+        if (response.getResults().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        logger.info("Successfully returned {} vehicles (next cursor: {})", response.getResults().size(), response.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Obtiene detalles de un vehiculo por ID
      * GET /api/vehicles/{id}
@@ -62,6 +112,159 @@ public class VehicleController {
                 });
     }
 
+    /**
+     * Obtiene detalles de un vehiculo por ID resolviendo sus relaciones
+     * GET /api/vehicles/{id}?expand=pilots,films
+     */
+    @GetMapping(value = "/{id}", params = "expand")
+    public ResponseEntity<ExpandedResponse<VehicleDetailResponse.VehicleProperties>> getVehicleByIdExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/vehicles/{} - expand: {}", id, expand);
+
+        return vehicleService.getVehicleExpanded(id, ExpansionService.parseExpand(expand))
+                .map(response -> {
+                    logger.info("Successfully expanded vehicle: {} (partial: {})", id, response.isPartial());
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    logger.warn("Vehicle not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene varios vehiculos por ID en una sola llamada
+     * GET /api/vehicles/batch?ids=1,2,3
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<VehicleDetailResponse.VehicleProperties>> getVehiclesBatch(@RequestParam String ids) {
+        logger.info("GET /api/vehicles/batch - ids: {}", ids);
+
+        BatchResponse<VehicleDetailResponse.VehicleProperties> response = vehicleService.getVehiclesBatch(ExpansionService.parseIds(ids));
+
+        logger.info("Successfully returned {} vehicles ({} missing)", response.getResults().size(), response.getMissing().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene varios vehiculos por ID emitiendo cada uno por SSE apenas se resuelve
+     * GET /api/vehicles/batch/stream?ids=1,2,3
+     */
+    @GetMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamVehiclesBatch(@RequestParam String ids) {
+        logger.info("GET /api/vehicles/batch/stream - ids: {}", ids);
+        return vehicleService.streamVehiclesBatch(ExpansionService.parseIds(ids));
+    }
+
+
+    /**
+     * Obtiene un vehiculo y emite por SSE cada relacion apenas se resuelve
+     * GET /api/vehicles/{id}/stream?expand=films
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamVehicleExpanded(
+            @PathVariable String id,
+            @RequestParam String expand) {
+
+        logger.info("GET /api/vehicles/{}/stream - expand: {}", id, expand);
+
+        return vehicleService.streamVehicleExpanded(id, ExpansionService.parseExpand(expand))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("Vehicle not found with ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las peliculas en las que aparece un vehiculo
+     * GET /api/vehicles/{id}/films
+     */
+    @GetMapping("/{id}/films")
+    public ResponseEntity<List<RelatedEntity>> getVehicleFilms(@PathVariable String id) {
+        logger.info("GET /api/vehicles/{}/films", id);
+
+        return relationshipService.related(SwapiResource.VEHICLES, id, SwapiResource.FILMS)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No vehicle found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene las personas que pilotaron un vehiculo
+     * GET /api/vehicles/{id}/pilots
+     */
+    @GetMapping("/{id}/pilots")
+    public ResponseEntity<List<RelatedEntity>> getVehiclePilots(@PathVariable String id) {
+        logger.info("GET /api/vehicles/{}/pilots", id);
+
+        return relationshipService.related(SwapiResource.VEHICLES, id, SwapiResource.PEOPLE)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("No vehicle found for ID: {}", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+
+    /**
+     * Obtiene los conteos por valor de los campos categoricos de vehiculos
+     * GET /api/vehicles/facets?vehicleClass=wheeled
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResponse> getVehicleFacets(@RequestParam Map<String, String> params) {
+        logger.info("GET /api/vehicles/facets - params: {}", params);
+
+        FacetResponse response = facetService.facets(SwapiResource.VEHICLES, params);
+
+        logger.info("Successfully returned {} facets over {} vehicles", response.getFacets().size(), response.getTotal());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Obtiene estadisticas (min, max, media, percentiles) de un campo numerico de vehiculos
+     * GET /api/vehicles/stats?field=maxAtmospheringSpeed&groupBy=vehicleClass
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StatsResponse> getVehicleStats(
+            @RequestParam String field,
+            @RequestParam(required = false) String groupBy) {
+
+        logger.info("GET /api/vehicles/stats - field: {}, groupBy: {}", field, groupBy);
+
+        StatsResponse response = statsService.stats(SwapiResource.VEHICLES, field, groupBy);
+
+        logger.info("Successfully returned {} stats in {} groups", response.getField(), response.getGroups().size());
+        return ResponseEntity.ok(response);
+    }
+
+
+    /**
+     * Exporta la coleccion completa de vehiculos registro a registro (NDJSON o CSV)
+     * GET /api/vehicles/export?format=ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVehicle(@RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("GET /api/vehicles/export - format: {}", format);
+
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        StreamingResponseBody body = output -> exportService.export(SwapiResource.VEHICLES, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+
     /**
      * Health check para el endpoint de vehiculos
      * GET /api/vehicles/health
@@ -0,0 +1,15 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse<T> {
+
+    private List<T> results;
+    private List<String> missing;
+    private boolean partial;
+}
@@ -0,0 +1,16 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeed {
+
+    private String token;
+    private boolean reset;
+    private boolean more;
+    private List<EntityChange> changes;
+}
@@ -0,0 +1,16 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private long version;
+    private int limit;
+    private String nextCursor;
+    private List<T> results;
+}
@@ -0,0 +1,15 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChange {
+
+    private String resource;
+    private String uid;
+    private String url;
+    private String edited;
+    private Object properties;
+}
@@ -0,0 +1,14 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpandedReference {
+
+    private String url;
+    private String uid;
+    private boolean resolved;
+    private Object properties;
+}
@@ -0,0 +1,16 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpandedResponse<T> {
+
+    private T properties;
+    private Map<String, List<ExpandedReference>> expanded;
+    private boolean partial;
+}
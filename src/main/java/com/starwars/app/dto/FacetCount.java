@@ -0,0 +1,12 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+    private String value;
+    private int count;
+}
@@ -0,0 +1,16 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResponse {
+
+    private String type;
+    private int total;
+    private Map<String, List<FacetCount>> facets;
+}
@@ -0,0 +1,16 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuzzyMatch {
+
+    private String uid;
+    private String name;
+    private String type;
+    private String url;
+    private int distance;
+    private int score;
+}
@@ -0,0 +1,18 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCacheStats {
+
+    private int chunks;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long prefetchIssued;
+    private long prefetchHits;
+    private long prefetchSkipped;
+    private double prefetchHitRatio;
+}
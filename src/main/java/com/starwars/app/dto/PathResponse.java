@@ -0,0 +1,15 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PathResponse {
+
+    private boolean connected;
+    private int degrees;
+    private List<RelatedEntity> path;
+}
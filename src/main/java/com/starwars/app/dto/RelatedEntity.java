@@ -0,0 +1,13 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedEntity {
+
+    private String uid;
+    private String name;
+    private String url;
+}
@@ -0,0 +1,15 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    private String uid;
+    private String name;
+    private String type;
+    private String url;
+    private double score;
+}
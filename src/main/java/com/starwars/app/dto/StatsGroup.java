@@ -0,0 +1,21 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsGroup {
+
+    private String group;
+    private long count;
+    private long missing;
+    private Double min;
+    private Double max;
+    private Double sum;
+    private Double mean;
+    private Double median;
+    private Map<String, Double> percentiles;
+}
@@ -0,0 +1,17 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsResponse {
+
+    private String type;
+    private String field;
+    private String groupBy;
+    private long version;
+    private List<StatsGroup> groups;
+}
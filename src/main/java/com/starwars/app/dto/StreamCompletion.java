@@ -0,0 +1,15 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamCompletion {
+
+    private int resolved;
+    private List<String> missing;
+    private boolean partial;
+}
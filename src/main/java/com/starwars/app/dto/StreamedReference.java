@@ -0,0 +1,14 @@
+package com.starwars.app.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamedReference {
+
+    private String field;
+    private String url;
+    private String uid;
+    private Object properties;
+}
@@ -0,0 +1,204 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.ChangeFeed;
+import com.starwars.app.dto.EntityChange;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.query.Cursor;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log compactado de cambios de entidades: cada SwapiEntityRefreshedEvent con
+ * un edited distinto del ultimo registrado para esa URL recibe un numero de
+ * secuencia y reemplaza la entrada anterior, asi que el log nunca crece mas
+ * que la cantidad de entidades. El filtrado se hace aca y no solo en
+ * SwapiEntityStore: el store es un LRU acotado y vuelve a publicar las
+ * entidades que desaloja y recarga sin cambios.
+ * <p>
+ * La primera vez que se ve una entidad no es un cambio upstream: entra en el
+ * estado que devuelve una llamada sin token, pero no se informa a quien ya
+ * leyo ese estado ni despierta long polls. El token es opaco y lleva la epoca del proceso; un token de otra epoca
+ * obliga al cliente a resincronizar desde cero (reset).
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, Recorded> log = new ConcurrentSkipListMap<>();
+    private final Map<String, Recorded> latest = new ConcurrentHashMap<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    @Value("${swapi.changes.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${swapi.changes.max-wait-seconds:30}")
+    private long maxWaitSeconds;
+
+
+    @EventListener
+    public void onEntityRefreshed(SwapiEntityRefreshedEvent event) {
+        EntityChange change = new EntityChange(event.getResource().getEndpoint(), SwapiResource.idFromUrl(event.getUrl()),
+                event.getUrl(), event.getEdited(), event.getProperties());
+        Recorded recorded;
+        synchronized (log) {
+            Recorded previous = latest.get(event.getUrl());
+            if (previous != null && Objects.equals(previous.change.getEdited(), event.getEdited())) {
+                return;
+            }
+            recorded = new Recorded(sequence.incrementAndGet(), previous == null, change);
+            latest.put(event.getUrl(), recorded);
+            if (previous != null) {
+                log.remove(previous.position);
+            }
+            log.put(recorded.position, recorded);
+        }
+        if (recorded.first) {
+            logger.debug("Recorded first sighting of {} (edited: {})", event.getUrl(), event.getEdited());
+            return;
+        }
+        logger.debug("Recorded change of {} (edited: {})", event.getUrl(), event.getEdited());
+
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.result.setResult(changes(waiter.since, waiter.limit));
+        }
+    }
+
+
+    /**
+     * Devuelve hasta limit entidades cambiadas despues del token, en orden de
+     * cambio, sin las que se vieron por primera vez despues del estado
+     * inicial que el cliente pidio. Sin token se
+     * devuelven las entidades cargadas o refrescadas por este proceso desde
+     * que arranco, no el dataset completo de SWAPI.
+     */
+    public ChangeFeed changes(String since, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+        long[] position = position(since);
+        boolean reset = since != null && !since.trim().isEmpty() && position == null;
+        if (position == null) {
+            position = new long[] {0, sequence.get()};
+        }
+        long after = position[0];
+        long horizon = position[1];
+
+        List<EntityChange> changes = new ArrayList<>();
+        long next = after;
+        boolean more = false;
+        for (Map.Entry<Long, Recorded> entry : log.tailMap(after, false).entrySet()) {
+            if (entry.getKey() > horizon && entry.getValue().first) {
+                next = entry.getKey();
+                continue;
+            }
+            if (changes.size() == limit) {
+                more = true;
+                break;
+            }
+            changes.add(entry.getValue().change);
+            next = entry.getKey();
+        }
+        return new ChangeFeed(token(next, horizon), reset, more, changes);
+    }
+
+
+    /**
+     * Long polling: si no hay cambios despues del token, la respuesta queda
+     * abierta hasta el proximo cambio o hasta que venzan waitSeconds, en cuyo
+     * caso se responde vacia con el mismo token.
+     */
+    public DeferredResult<ChangeFeed> poll(String since, int limit, long waitSeconds) {
+        if (waitSeconds < 0 || waitSeconds > maxWaitSeconds) {
+            throw new BadRequestException("wait must be between 0 and " + maxWaitSeconds + " seconds");
+        }
+        ChangeFeed feed = changes(since, limit);
+        DeferredResult<ChangeFeed> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(waitSeconds), feed);
+        if (!feed.getChanges().isEmpty() || feed.isReset() || waitSeconds == 0) {
+            result.setResult(feed);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+
+        ChangeFeed recheck = changes(since, limit);
+        if (!recheck.getChanges().isEmpty() && waiters.remove(waiter)) {
+            result.setResult(recheck);
+        }
+        return result;
+    }
+
+
+    public int size() {
+        return log.size();
+    }
+
+
+    /**
+     * Posicion y horizonte codificados en el token; null sin token o si es de
+     * otra epoca. El horizonte es la ultima posicion del estado inicial que
+     * el cliente pidio sin token: hasta ahi las primeras apariciones forman
+     * parte de ese estado, despues de ahi no son cambios.
+     */
+    private long[] position(String token) {
+        Cursor cursor = Cursor.decode(token);
+        if (cursor == null) {
+            return null;
+        }
+        if (cursor.getVersion() != epoch) {
+            logger.info("Change token from a previous epoch, client must resync");
+            return null;
+        }
+        try {
+            String[] parts = cursor.getUid().split("-", 2);
+            long position = Long.parseLong(parts[0]);
+            return new long[] {position, parts.length > 1 ? Long.parseLong(parts[1]) : position};
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid token: " + token);
+        }
+    }
+
+
+    private String token(long position, long horizon) {
+        String value = horizon > position ? position + "-" + horizon : Long.toString(position);
+        return new Cursor(epoch, value).encode();
+    }
+
+
+    @AllArgsConstructor
+    private static class Recorded {
+        private final long position;
+        private final boolean first;
+        private final EntityChange change;
+    }
+
+
+    @AllArgsConstructor
+    private static class Waiter {
+        private final String since;
+        private final int limit;
+        private final DeferredResult<ChangeFeed> result;
+    }
+}
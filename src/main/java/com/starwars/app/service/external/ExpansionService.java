@@ -0,0 +1,228 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.ExpandedReference;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.StreamCompletion;
+import com.starwars.app.dto.StreamedReference;
+import com.starwars.app.exception.BadRequestException;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ExpansionService {
+
+    private final SwapiDataLoader dataLoader;
+    private final SwapiClientService swapiClient;
+    private final ReferenceResolver referenceResolver;
+    private static final Logger logger = LoggerFactory.getLogger(ExpansionService.class);
+
+    @Value("${swapi.batch.max-ids:50}")
+    private int maxBatchIds;
+
+    @Value("${swapi.stream.timeout-ms:10000}")
+    private long streamTimeoutMs;
+
+
+    public static Set<String> parseExpand(String expand) {
+        return parseList(expand);
+    }
+
+
+    public static Set<String> parseIds(String ids) {
+        return parseList(ids);
+    }
+
+
+    public <P> ExpandedResponse<P> expand(P properties, Map<String, List<String>> relations, Set<String> requested) {
+        return expandAll(Collections.singletonList(properties), item -> relations, requested).get(0);
+    }
+
+
+    public <P> List<ExpandedResponse<P>> expandAll(List<P> items,
+                                                   Function<P, Map<String, List<String>>> relationsOf,
+                                                   Set<String> requested) {
+        List<Map<String, List<String>>> relationsPerItem = new ArrayList<>();
+        for (P item : items) {
+            Map<String, List<String>> relations = relationsOf.apply(item);
+            validate(relations, requested);
+            relationsPerItem.add(relations);
+            for (String field : requested) {
+                dataLoader.load(references(relations, field));
+            }
+        }
+
+        dataLoader.dispatch();
+
+        List<ExpandedResponse<P>> responses = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            responses.add(buildResponse(items.get(i), relationsPerItem.get(i), requested));
+        }
+        return responses;
+    }
+
+
+    public <P> BatchResponse<P> batch(SwapiResource resource, Set<String> ids, Class<P> propertiesType) {
+        List<String> urls = batchUrls(resource, ids);
+
+        dataLoader.load(urls);
+        dataLoader.dispatch();
+
+        List<P> results = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String url : urls) {
+            Optional<Object> properties = dataLoader.get(url);
+            if (properties.isPresent()) {
+                results.add(propertiesType.cast(properties.get()));
+            } else {
+                missing.add(SwapiResource.idFromUrl(url));
+            }
+        }
+
+        return new BatchResponse<>(results, missing, !missing.isEmpty());
+    }
+
+
+    /**
+     * Variante SSE del batch: emite un evento "result" por cada entidad apenas
+     * la devuelve SWAPI y al final un evento "complete" con los ids faltantes.
+     * Se resuelve directo con el ReferenceResolver porque el data loader es de
+     * scope request y no se puede usar desde los hilos del pool.
+     */
+    public SseEmitter streamBatch(SwapiResource resource, Set<String> ids) {
+        List<String> urls = batchUrls(resource, ids);
+        SseEmitter emitter = emitter();
+
+        referenceResolver.resolveEach(urls, referenceResolver.deadlineFromNow(),
+                        (url, properties) -> send(emitter, "result", properties))
+                .thenAccept(result -> {
+                    List<String> missing = result.getUnresolved().stream()
+                            .map(SwapiResource::idFromUrl)
+                            .collect(Collectors.toList());
+                    complete(emitter, new StreamCompletion(result.getResolved().size(), missing, result.isPartial()));
+                });
+        return emitter;
+    }
+
+
+    /**
+     * Variante SSE del expand: emite la entidad ("entity"), luego un evento
+     * "reference" por cada relacion resuelta en el orden en que llegan y al
+     * final "complete" con las URLs que no se pudieron resolver.
+     */
+    public <P> SseEmitter streamExpand(P properties, Map<String, List<String>> relations, Set<String> requested) {
+        validate(relations, requested);
+        Map<String, String> fieldByUrl = new LinkedHashMap<>();
+        for (String field : requested) {
+            for (String url : references(relations, field)) {
+                fieldByUrl.putIfAbsent(url, field);
+            }
+        }
+
+        SseEmitter emitter = emitter();
+        send(emitter, "entity", properties);
+
+        referenceResolver.resolveEach(fieldByUrl.keySet(), referenceResolver.deadlineFromNow(),
+                        (url, resolved) -> send(emitter, "reference",
+                                new StreamedReference(fieldByUrl.get(url), url, SwapiResource.idFromUrl(url), resolved)))
+                .thenAccept(result -> complete(emitter, new StreamCompletion(result.getResolved().size(),
+                        new ArrayList<>(result.getUnresolved()), result.isPartial())));
+        return emitter;
+    }
+
+
+    private List<String> batchUrls(SwapiResource resource, Set<String> ids) {
+        if (ids.isEmpty() || ids.size() > maxBatchIds) {
+            throw new BadRequestException("ids must contain between 1 and " + maxBatchIds + " values");
+        }
+
+        return ids.stream()
+                .map(id -> swapiClient.resourceUrl(resource.getEndpoint(), id))
+                .collect(Collectors.toList());
+    }
+
+
+    private SseEmitter emitter() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onTimeout(emitter::complete);
+        return emitter;
+    }
+
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping {} event, stream already closed: {}", name, e.getMessage());
+        }
+    }
+
+
+    private static void complete(SseEmitter emitter, StreamCompletion completion) {
+        send(emitter, "complete", completion);
+        emitter.complete();
+    }
+
+
+    private <P> ExpandedResponse<P> buildResponse(P item, Map<String, List<String>> relations, Set<String> requested) {
+        Map<String, List<ExpandedReference>> expanded = new LinkedHashMap<>();
+        boolean partial = false;
+
+        for (String field : requested) {
+            List<ExpandedReference> references = new ArrayList<>();
+            for (String url : references(relations, field)) {
+                Object resolved = dataLoader.get(url).orElse(null);
+                partial |= resolved == null;
+                references.add(new ExpandedReference(url, SwapiResource.idFromUrl(url), resolved != null, resolved));
+            }
+            expanded.put(field, references);
+        }
+
+        return new ExpandedResponse<>(item, expanded, partial);
+    }
+
+
+    private void validate(Map<String, List<String>> relations, Set<String> requested) {
+        for (String field : requested) {
+            if (!relations.containsKey(field)) {
+                throw new BadRequestException("Unsupported expand field: " + field
+                        + ". Supported fields: " + String.join(",", relations.keySet()));
+            }
+        }
+    }
+
+
+    private static List<String> references(Map<String, List<String>> relations, String field) {
+        List<String> references = relations.get(field);
+        return references != null ? references : Collections.emptyList();
+    }
+
+
+    private static Set<String> parseList(String value) {
+        if (value == null) {
+            return new LinkedHashSet<>();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
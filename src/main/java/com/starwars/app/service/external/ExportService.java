@@ -0,0 +1,163 @@
+package com.starwars.app.service.external;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.starwars.app.exception.BadRequestException;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exporta colecciones completas registro a registro sobre el stream de la
+ * respuesta. Nunca se arma la lista serializada en memoria: cada entidad se
+ * convierte y se escribe por separado, y como la escritura es bloqueante un
+ * cliente lento frena la exportacion en lugar de acumular buffers.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private final SwapiDatasetService datasetService;
+    private final ObjectMapper objectMapper;
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    @Value("${swapi.export.flush-every:100}")
+    private int flushEvery;
+
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value + ". Supported formats: ndjson, csv");
+            }
+        }
+    }
+
+
+    public void export(SwapiResource resource, Format format, OutputStream output) throws IOException {
+        ResourceSnapshot snapshot = datasetService.snapshot(resource);
+        if (format == Format.CSV) {
+            writeCsv(snapshot, output);
+        } else {
+            writeNdjson(snapshot, output);
+        }
+        logger.info("Exported {} {} records as {}", snapshot.size(), resource.getEndpoint(), format);
+    }
+
+
+    private void writeNdjson(ResourceSnapshot snapshot, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (int i = 0; i < snapshot.size(); i++) {
+            objectMapper.writeTree(generator, record(snapshot, i));
+            generator.writeRaw('\n');
+            if ((i + 1) % flushEvery == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+    }
+
+
+    /**
+     * CSV con las columnas del primer registro; las listas (urls de relaciones)
+     * se unen con espacios y los valores con comas, comillas o saltos de linea
+     * se escapan segun RFC 4180.
+     */
+    private void writeCsv(ResourceSnapshot snapshot, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            ObjectNode record = record(snapshot, i);
+            if (columns.isEmpty()) {
+                record.fieldNames().forEachRemaining(columns::add);
+                writeCsvRow(writer, columns);
+            }
+
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                values.add(text(record.get(column)));
+            }
+            writeCsvRow(writer, values);
+            if ((i + 1) % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+
+    private ObjectNode record(ResourceSnapshot snapshot, int index) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("uid", snapshot.getUids().get(index));
+        record.setAll((ObjectNode) objectMapper.valueToTree(snapshot.getEntities().get(index)));
+        return record;
+    }
+
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return "";
+        }
+        if (node.isArray()) {
+            StringBuilder joined = new StringBuilder();
+            Iterator<JsonNode> elements = node.elements();
+            while (elements.hasNext()) {
+                joined.append(text(elements.next()));
+                if (elements.hasNext()) {
+                    joined.append(' ');
+                }
+            }
+            return joined.toString();
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+
+    static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -1,29 +1,173 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.swapi.FilmDTO;
 import com.starwars.app.dto.swapi.FilmDetailResponse;
 import com.starwars.app.dto.swapi.FilmsListResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.query.Cursor;
+import com.starwars.app.service.query.KeysetIndex;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FilmService {
 
     private final SwapiClientService swapiClient;
+    private final ExpansionService expansionService;
+    private final SwapiEntityStore entityStore;
     private static final Logger logger = LoggerFactory.getLogger(FilmService.class);
     private static final String ENDPOINT = "films";
 
+    private static final Comparator<FilmDTO> BY_EPISODE = Comparator
+            .comparing((FilmDTO film) -> film.getProperties() != null ? film.getProperties().getEpisodeId() : null,
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(film -> film.getProperties() != null ? film.getProperties().getReleaseDate() : null,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private volatile FilmCollection collection;
+
+    @Value("${swapi.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+
+    /**
+     * Pagina la coleccion de peliculas en memoria, ordenada por episodio.
+     * La coleccion se descarga una sola vez y se refresca al vencer el TTL.
+     */
     public FilmsListResponse getFilms(int page, int limit) {
-        String url = "films?page=" + page + "&limit=" + limit;
-        return swapiClient.getById("", url, FilmsListResponse.class)
-                .orElse(new FilmsListResponse());
+        if (page < 1 || limit < 1) {
+            throw new BadRequestException("page and limit must be greater than 0");
+        }
+        FilmCollection current = films();
+        if (current == null) {
+            return new FilmsListResponse();
+        }
+
+        FilmsListResponse films = current.response;
+        List<FilmDTO> all = films.getResult();
+        int from = (int) Math.min((long) (page - 1) * limit, all.size());
+        int to = (int) Math.min((long) from + limit, all.size());
+        return new FilmsListResponse(films.getMessage(), new ArrayList<>(all.subList(from, to)),
+                films.getApiVersion(), films.getTimestamp());
+    }
+
+    /**
+     * Pagina por cursor en orden de uid con una busqueda binaria sobre el
+     * indice de la coleccion; la version es el instante de carga, y un cambio
+     * de version a mitad del recorrido no repite ni saltea peliculas.
+     */
+    public CursorPage<FilmDTO> getFilmsAfter(String cursor, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        Cursor after = Cursor.decode(cursor);
+        FilmCollection current = films();
+        if (current == null) {
+            return new CursorPage<>(0, limit, null, new ArrayList<>());
+        }
+
+        List<FilmDTO> all = current.response.getResult();
+        KeysetIndex index = current.keyset;
+        int from = index.after(after != null ? after.getUid() : null);
+        int to = (int) Math.min(index.size(), (long) from + limit);
+
+        List<FilmDTO> results = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            results.add(all.get(index.row(position)));
+        }
+
+        String next = to < index.size() ? new Cursor(current.loadedAt, index.uid(to - 1)).encode() : null;
+        return new CursorPage<>(current.loadedAt, limit, next, results);
+    }
+
+    public List<ExpandedResponse<FilmDTO>> getFilmsExpanded(int page, int limit, Set<String> expand) {
+        List<FilmDTO> films = getFilms(page, limit).getResult();
+        if (films == null) {
+            return Collections.emptyList();
+        }
+        return expansionService.expandAll(films, film -> relations(film.getProperties()), expand);
     }
 
     public Optional<FilmDetailResponse> getFilmById(String id) {
-        return swapiClient.getById(ENDPOINT, id, FilmDetailResponse.class);
+        return entityStore.find(SwapiResource.FILMS, id, FilmDetailResponse.class);
+    }
+
+
+    public Optional<ExpandedResponse<FilmDetailResponse.FilmProperties>> getFilmExpanded(String id, Set<String> expand) {
+        return getFilmById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.expand(properties, SwapiResource.relationsOf(properties), expand));
+    }
+
+
+    private FilmCollection films() {
+        FilmCollection current = collection;
+        if (current != null && !current.isExpired(TimeUnit.SECONDS.toMillis(ttlSeconds))) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = collection;
+            if (current != null && !current.isExpired(TimeUnit.SECONDS.toMillis(ttlSeconds))) {
+                return current;
+            }
+
+            Optional<FilmsListResponse> fetched = swapiClient.getCollection(ENDPOINT, FilmsListResponse.class)
+                    .filter(response -> response.getResult() != null);
+            if (fetched.isPresent()) {
+                FilmsListResponse response = fetched.get();
+                List<FilmDTO> sorted = new ArrayList<>(response.getResult());
+                sorted.sort(BY_EPISODE);
+                response.setResult(Collections.unmodifiableList(sorted));
+                KeysetIndex keyset = KeysetIndex.of(sorted.stream().map(FilmDTO::getUid).collect(Collectors.toList()));
+                collection = new FilmCollection(response, keyset, System.currentTimeMillis());
+                logger.info("Loaded {} films into the local collection", sorted.size());
+                return collection;
+            }
+
+            if (current != null) {
+                logger.warn("Serving stale films collection after failed refresh");
+                return current;
+            }
+            return null;
+        }
+    }
+
+
+    static Map<String, List<String>> relations(FilmDTO.FilmProperties properties) {
+        Map<String, List<String>> relations = new LinkedHashMap<>();
+        relations.put("characters", properties != null ? properties.getCharacters() : null);
+        relations.put("starships", properties != null ? properties.getStarships() : null);
+        relations.put("vehicles", properties != null ? properties.getVehicles() : null);
+        return relations;
+    }
+
+
+    @AllArgsConstructor
+    private static class FilmCollection {
+        private final FilmsListResponse response;
+        private final KeysetIndex keyset;
+        private final long loadedAt;
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,39 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
 import com.starwars.app.dto.swapi.PersonDTO;
 import com.starwars.app.dto.swapi.PersonDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.ListQueryService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class PeopleService {
 
     private final SwapiClientService swapiClient;
+    private final ExpansionService expansionService;
+    private final SwapiEntityStore entityStore;
+    private final SwapiPageStore pageStore;
+    private final ListQueryService listQueryService;
     private static final Logger logger = LoggerFactory.getLogger(PeopleService.class);
 
     private static final String ENDPOINT = "people";
 
 
     public SwapiResponse<PersonDTO> getPeople(int page, int limit) {
-        return swapiClient.getPage(
+        return pageStore.getPage(
                 ENDPOINT,
                 page,
                 limit,
@@ -30,7 +41,43 @@ public class PeopleService {
         );
     }
 
+
+    public SwapiResponse<PersonDTO> queryPeople(ListQuery query, int page, int limit) {
+        return listQueryService.query(SwapiResource.PEOPLE, query, page, limit,
+                (uid, name) -> new PersonDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
+
+    public CursorPage<PersonDTO> getPeopleAfter(String cursor, int limit) {
+        return listQueryService.seek(SwapiResource.PEOPLE, cursor, limit,
+                (uid, name) -> new PersonDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
     public Optional<PersonDetailResponse> getPersonById(String id) {
-        return swapiClient.getById(ENDPOINT, id, PersonDetailResponse.class);
+        return entityStore.find(SwapiResource.PEOPLE, id, PersonDetailResponse.class);
+    }
+
+
+    public Optional<ExpandedResponse<PersonDetailResponse.PersonProperties>> getPersonExpanded(String id, Set<String> expand) {
+        return getPersonById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.expand(properties, SwapiResource.relationsOf(properties), expand));
+    }
+
+
+    public BatchResponse<PersonDetailResponse.PersonProperties> getPeopleBatch(Set<String> ids) {
+        return expansionService.batch(SwapiResource.PEOPLE, ids, PersonDetailResponse.PersonProperties.class);
+    }
+
+
+    public Optional<SseEmitter> streamPersonExpanded(String id, Set<String> expand) {
+        return getPersonById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.streamExpand(properties, SwapiResource.relationsOf(properties), expand));
+    }
+
+
+    public SseEmitter streamPeopleBatch(Set<String> ids) {
+        return expansionService.streamBatch(SwapiResource.PEOPLE, ids);
     }
 }
\ No newline at end of file
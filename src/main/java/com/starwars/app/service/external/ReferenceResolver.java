@@ -0,0 +1,145 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+@Service
+@RequiredArgsConstructor
+public class ReferenceResolver {
+
+    private final SwapiEntityStore entityStore;
+    private final ExecutorService swapiExecutor;
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceResolver.class);
+
+    @Value("${swapi.expand.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${swapi.expand.deadline-ms:3000}")
+    private long deadlineMs;
+
+
+    public ResolutionResult resolveAll(Collection<String> urls) {
+        return resolveAll(urls, deadlineFromNow());
+    }
+
+
+    public long deadlineFromNow() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+
+    public ResolutionResult resolveAll(Collection<String> urls, long deadlineNanos) {
+        Set<String> unique = new LinkedHashSet<>(urls);
+        Map<String, Object> resolved = new ConcurrentHashMap<>();
+
+        awaitUntil(start(unique, resolved, deadlineNanos, (url, properties) -> { }), deadlineNanos);
+        return result(unique, resolved);
+    }
+
+
+    /**
+     * Variante sin bloqueo: entrega cada referencia al callback apenas se
+     * resuelve (primero las cacheadas) y completa el futuro cuando los workers
+     * terminan. Los workers dejan de tomar URLs al vencer el plazo.
+     */
+    public CompletableFuture<ResolutionResult> resolveEach(Collection<String> urls, long deadlineNanos,
+                                                           BiConsumer<String, Object> onResolved) {
+        Set<String> unique = new LinkedHashSet<>(urls);
+        Map<String, Object> resolved = new ConcurrentHashMap<>();
+
+        return start(unique, resolved, deadlineNanos, onResolved)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        logger.error("Error resolving references", error);
+                    }
+                    return result(unique, resolved);
+                });
+    }
+
+
+    public Optional<Object> fetch(String url) {
+        return entityStore.findByUrl(url).map(SwapiResource::propertiesOf);
+    }
+
+
+    private CompletableFuture<Void> start(Set<String> unique, Map<String, Object> resolved, long deadlineNanos,
+                                          BiConsumer<String, Object> onResolved) {
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        for (String url : unique) {
+            Optional<Object> cached = entityStore.cached(url).map(SwapiResource::propertiesOf);
+            if (cached.isPresent()) {
+                resolved.put(url, cached.get());
+                onResolved.accept(url, cached.get());
+            } else {
+                pending.add(url);
+            }
+        }
+
+        int workers = Math.min(maxConcurrency, pending.size());
+        logger.info("Resolving {} references ({} cached) with {} workers", unique.size(), unique.size() - pending.size(), workers);
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> drain(pending, resolved, deadlineNanos, onResolved), swapiExecutor);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+
+    private ResolutionResult result(Set<String> unique, Map<String, Object> resolved) {
+        Map<String, Object> snapshot = new HashMap<>(resolved);
+        Set<String> unresolved = new LinkedHashSet<>(unique);
+        unresolved.removeAll(snapshot.keySet());
+
+        if (!unresolved.isEmpty()) {
+            logger.warn("{} references could not be resolved before the deadline", unresolved.size());
+        }
+
+        return new ResolutionResult(snapshot, unresolved);
+    }
+
+
+    private void drain(Queue<String> pending, Map<String, Object> resolved, long deadlineNanos,
+                       BiConsumer<String, Object> onResolved) {
+        String url;
+        while (System.nanoTime() < deadlineNanos && (url = pending.poll()) != null) {
+            String current = url;
+            fetch(current).ifPresent(properties -> {
+                resolved.put(current, properties);
+                onResolved.accept(current, properties);
+            });
+        }
+    }
+
+
+    private void awaitUntil(CompletableFuture<?> future, long deadlineNanos) {
+        try {
+            future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Reference resolution deadline reached");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error resolving references", e.getCause());
+        }
+    }
+}
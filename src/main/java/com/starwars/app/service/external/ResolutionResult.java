@@ -0,0 +1,18 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class ResolutionResult {
+
+    private final Map<String, Object> resolved;
+    private final Set<String> unresolved;
+
+    public boolean isPartial() {
+        return !unresolved.isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ResourceSnapshot {
+
+    private final SwapiResource resource;
+    private final long version;
+    private final List<String> uids;
+    private final List<Object> entities;
+    private final long loadedAt;
+
+
+    public static ResourceSnapshot empty(SwapiResource resource) {
+        return new ResourceSnapshot(resource, 0, Collections.emptyList(), Collections.emptyList(), 0);
+    }
+
+
+    public int size() {
+        return entities.size();
+    }
+
+
+    public <P> P get(int index, Class<P> propertiesType) {
+        return propertiesType.cast(entities.get(index));
+    }
+
+
+    public boolean isStale(long ttlMillis) {
+        return System.currentTimeMillis() - loadedAt > ttlMillis;
+    }
+}
@@ -1,28 +1,39 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
 import com.starwars.app.dto.swapi.StarshipDTO;
 import com.starwars.app.dto.swapi.StarshipDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.ListQueryService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class StarshipService {
 
     private final SwapiClientService swapiClient;
+    private final ExpansionService expansionService;
+    private final SwapiEntityStore entityStore;
+    private final SwapiPageStore pageStore;
+    private final ListQueryService listQueryService;
     private static final Logger logger = LoggerFactory.getLogger(StarshipService.class);
 
     private static final String ENDPOINT = "starships";
 
 
     public SwapiResponse<StarshipDTO> getStarships(int page, int limit) {
-        return swapiClient.getPage(
+        return pageStore.getPage(
                 ENDPOINT,
                 page,
                 limit,
@@ -31,8 +42,43 @@ public class StarshipService {
     }
 
 
+    public SwapiResponse<StarshipDTO> queryStarships(ListQuery query, int page, int limit) {
+        return listQueryService.query(SwapiResource.STARSHIPS, query, page, limit,
+                (uid, name) -> new StarshipDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
+
+    public CursorPage<StarshipDTO> getStarshipsAfter(String cursor, int limit) {
+        return listQueryService.seek(SwapiResource.STARSHIPS, cursor, limit,
+                (uid, name) -> new StarshipDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
+
     public Optional<StarshipDetailResponse> getStarshipById(String id) {
-        return swapiClient.getById(ENDPOINT, id, StarshipDetailResponse.class);
+        return entityStore.find(SwapiResource.STARSHIPS, id, StarshipDetailResponse.class);
+    }
+
+
+    public Optional<ExpandedResponse<StarshipDetailResponse.StarshipProperties>> getStarshipExpanded(String id, Set<String> expand) {
+        return getStarshipById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.expand(properties, SwapiResource.relationsOf(properties), expand));
     }
 
+
+    public BatchResponse<StarshipDetailResponse.StarshipProperties> getStarshipsBatch(Set<String> ids) {
+        return expansionService.batch(SwapiResource.STARSHIPS, ids, StarshipDetailResponse.StarshipProperties.class);
+    }
+
+
+    public Optional<SseEmitter> streamStarshipExpanded(String id, Set<String> expand) {
+        return getStarshipById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.streamExpand(properties, SwapiResource.relationsOf(properties), expand));
+    }
+
+
+    public SseEmitter streamStarshipsBatch(Set<String> ids) {
+        return expansionService.streamBatch(SwapiResource.STARSHIPS, ids);
+    }
 }
\ No newline at end of file
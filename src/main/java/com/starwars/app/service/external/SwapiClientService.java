@@ -30,7 +30,7 @@ public class SwapiClientService {
     public <T> Optional<T> getById(String endpoint, String id, Class<T> responseType) {
         logger.info("Fetching {} with ID: {}", endpoint, id);
 
-        String url = baseUrl + "/" + endpoint + "/" + id;
+        String url = resourceUrl(endpoint, id);
 
         try {
             ResponseEntity<T> response = restTemplate.getForEntity(url, responseType);
@@ -48,13 +48,40 @@ public class SwapiClientService {
     }
 
 
-    public <T> SwapiResponse<T> getPage(String endpoint, int page, int limit, ParameterizedTypeReference<SwapiResponse<T>> typeRef) {
-        logger.info("Fetching {} - page: {}, limit: {}", endpoint, page, limit);
+    public <T> Optional<T> getCollection(String endpoint, Class<T> responseType) {
+        logger.info("Fetching {} collection", endpoint);
+
+        String url = baseUrl + "/" + endpoint;
+
+        try {
+            ResponseEntity<T> response = restTemplate.getForEntity(url, responseType);
+            logger.info("Successfully fetched {} collection", endpoint);
+            return Optional.ofNullable(response.getBody());
+
+        } catch (RestClientException e) {
+            logger.error("Error fetching {} collection from SWAPI", endpoint, e);
+            return Optional.empty();
+        }
+    }
+
+
+    public String resourceUrl(String endpoint, String id) {
+        return baseUrl + "/" + endpoint + "/" + id;
+    }
+
 
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/" + endpoint)
+    public String pageUrl(String endpoint, int page, int limit) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/" + endpoint)
                 .queryParam("page", page)
                 .queryParam("limit", limit)
                 .toUriString();
+    }
+
+
+    public <T> SwapiResponse<T> getPage(String endpoint, int page, int limit, ParameterizedTypeReference<SwapiResponse<T>> typeRef) {
+        logger.info("Fetching {} - page: {}, limit: {}", endpoint, page, limit);
+
+        String url = pageUrl(endpoint, page, limit);
 
         try {
             ResponseEntity<SwapiResponse<T>> response = restTemplate.exchange(
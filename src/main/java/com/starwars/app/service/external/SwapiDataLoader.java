@@ -0,0 +1,81 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class SwapiDataLoader {
+
+    private final ReferenceResolver referenceResolver;
+    private static final Logger logger = LoggerFactory.getLogger(SwapiDataLoader.class);
+
+    private final Map<String, Object> memo = new ConcurrentHashMap<>();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private final Set<String> queued = new LinkedHashSet<>();
+
+
+    public synchronized void load(Collection<String> urls) {
+        for (String url : urls) {
+            if (url != null && !memo.containsKey(url) && !failed.contains(url)) {
+                queued.add(url);
+            }
+        }
+    }
+
+
+    public void dispatch() {
+        Map<SwapiResource, List<String>> batches = drainQueue();
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        long deadlineNanos = referenceResolver.deadlineFromNow();
+        for (Map.Entry<SwapiResource, List<String>> batch : batches.entrySet()) {
+            logger.debug("Dispatching batch of {} {}", batch.getValue().size(), batch.getKey().getEndpoint());
+
+            ResolutionResult result = referenceResolver.resolveAll(batch.getValue(), deadlineNanos);
+            memo.putAll(result.getResolved());
+            failed.addAll(result.getUnresolved());
+        }
+    }
+
+
+    public Optional<Object> get(String url) {
+        return Optional.ofNullable(memo.get(url));
+    }
+
+
+    private synchronized Map<SwapiResource, List<String>> drainQueue() {
+        Map<SwapiResource, List<String>> batches = new EnumMap<>(SwapiResource.class);
+        Set<String> unsupported = new HashSet<>();
+
+        for (String url : queued) {
+            Optional<SwapiResource> resource = SwapiResource.fromUrl(url);
+            if (resource.isPresent()) {
+                batches.computeIfAbsent(resource.get(), key -> new ArrayList<>()).add(url);
+            } else {
+                unsupported.add(url);
+            }
+        }
+
+        failed.addAll(unsupported);
+        queued.clear();
+        return batches;
+    }
+}
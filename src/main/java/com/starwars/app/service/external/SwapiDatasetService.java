@@ -0,0 +1,274 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.FilmDTO;
+import com.starwars.app.dto.swapi.FilmsListResponse;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class SwapiDatasetService {
+
+    private final SwapiClientService swapiClient;
+    private final ReferenceResolver referenceResolver;
+    private final ExecutorService datasetExecutor;
+    private static final Logger logger = LoggerFactory.getLogger(SwapiDatasetService.class);
+
+    private static final int UPSTREAM_PAGE_SIZE = 100;
+
+    private final Map<SwapiResource, ResourceSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<SwapiResource, Object> locks = new EnumMap<>(SwapiResource.class);
+    private final Map<SwapiResource, CompletableFuture<ResourceSnapshot>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Set<SwapiResource> partial = ConcurrentHashMap.newKeySet();
+    private final Map<SwapiResource, Long> failedAt = new ConcurrentHashMap<>();
+
+    @Value("${swapi.dataset.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${swapi.dataset.deadline-ms:60000}")
+    private long deadlineMs;
+
+    @Value("${swapi.dataset.retry-seconds:30}")
+    private long retrySeconds;
+
+    @Value("${swapi.dataset.cold-wait-ms:2000}")
+    private long coldWaitMs;
+
+    @Value("${swapi.dataset.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    {
+        for (SwapiResource resource : SwapiResource.values()) {
+            locks.put(resource, new Object());
+        }
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) {
+            return;
+        }
+        for (SwapiResource resource : SwapiResource.values()) {
+            refreshAsync(resource);
+        }
+    }
+
+
+    /**
+     * Devuelve el snapshot vigente. Un snapshot parcial (cortado por el plazo)
+     * solo se considera fresco durante retry-seconds; si la primera carga no
+     * resolvio nada no se publica y se devuelve vacio hasta el proximo intento.
+     * Sin snapshot la carga arranca en segundo plano y se espera a lo sumo
+     * cold-wait-ms: el hilo del request nunca queda bloqueado el plazo
+     * completo de la carga, y si no termina a tiempo se devuelve vacio.
+     */
+    public ResourceSnapshot snapshot(SwapiResource resource) {
+        return snapshot(resource, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coldWaitMs));
+    }
+
+
+    /**
+     * Lanza en segundo plano las cargas que faltan y despues espera cada una
+     * con un plazo comun, para que los recursos se descarguen en paralelo y
+     * no uno tras otro.
+     */
+    public void prepare(SwapiResource... resources) {
+        for (SwapiResource resource : resources) {
+            if (!snapshots.containsKey(resource) && !backingOff(resource)) {
+                refreshAsync(resource);
+            }
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coldWaitMs);
+        for (SwapiResource resource : resources) {
+            snapshot(resource, deadlineNanos);
+        }
+    }
+
+
+    private ResourceSnapshot snapshot(SwapiResource resource, long deadlineNanos) {
+        ResourceSnapshot current = snapshots.get(resource);
+        if (current == null) {
+            return backingOff(resource)
+                    ? ResourceSnapshot.empty(resource)
+                    : await(resource, refreshAsync(resource), deadlineNanos);
+        }
+        if (!isFresh(resource, current) && !backingOff(resource)) {
+            refreshAsync(resource);
+        }
+        return current;
+    }
+
+
+    public ResourceSnapshot refresh(SwapiResource resource) {
+        synchronized (locks.get(resource)) {
+            ResourceSnapshot current = snapshots.get(resource);
+            if (current != null && isFresh(resource, current)) {
+                return current;
+            }
+            if (current == null && backingOff(resource)) {
+                return ResourceSnapshot.empty(resource);
+            }
+
+            logger.info("Refreshing {} dataset", resource.getEndpoint());
+            List<String> urls = listUrls(resource);
+            ResolutionResult result = referenceResolver.resolveAll(
+                    urls, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs));
+
+            if (result.getResolved().isEmpty()) {
+                failedAt.put(resource, System.currentTimeMillis());
+                if (current != null) {
+                    logger.warn("Keeping previous {} dataset after failed refresh", resource.getEndpoint());
+                    return current;
+                }
+                logger.warn("No {} could be loaded, retrying in {}s", resource.getEndpoint(), retrySeconds);
+                return ResourceSnapshot.empty(resource);
+            }
+
+            List<String> resolvedUrls = new ArrayList<>(result.getResolved().keySet());
+            resolvedUrls.sort(Comparator.comparingLong(url -> numericUid(SwapiResource.idFromUrl(url))));
+
+            List<String> uids = new ArrayList<>(resolvedUrls.size());
+            List<Object> entities = new ArrayList<>(resolvedUrls.size());
+            for (String url : resolvedUrls) {
+                uids.add(SwapiResource.idFromUrl(url));
+                entities.add(result.getResolved().get(url));
+            }
+
+            ResourceSnapshot snapshot = new ResourceSnapshot(
+                    resource, versions.incrementAndGet(), uids, entities, System.currentTimeMillis());
+            snapshots.put(resource, snapshot);
+            failedAt.remove(resource);
+            if (result.isPartial()) {
+                partial.add(resource);
+            } else {
+                partial.remove(resource);
+            }
+
+            logger.info("Loaded {} {} (version {}, {} unresolved)",
+                    snapshot.size(), resource.getEndpoint(), snapshot.getVersion(), result.getUnresolved().size());
+            return snapshot;
+        }
+    }
+
+
+    /**
+     * Refresca el recurso en datasetExecutor, separado de swapiExecutor: la
+     * orquestacion espera a los workers de ReferenceResolver y, si corriera
+     * en el mismo pool, dejaria sin hilos a las descargas que espera. Si ya
+     * hay una carga en curso devuelve esa misma.
+     */
+    public CompletableFuture<ResourceSnapshot> refreshAsync(SwapiResource resource) {
+        CompletableFuture<ResourceSnapshot> load = new CompletableFuture<>();
+        CompletableFuture<ResourceSnapshot> running = loading.putIfAbsent(resource, load);
+        if (running != null) {
+            return running;
+        }
+        try {
+            datasetExecutor.execute(() -> {
+                try {
+                    load.complete(refresh(resource));
+                } catch (RuntimeException e) {
+                    logger.error("Error refreshing {} dataset", resource.getEndpoint(), e);
+                    load.complete(ResourceSnapshot.empty(resource));
+                } finally {
+                    loading.remove(resource, load);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Refresh of {} dataset rejected", resource.getEndpoint());
+            loading.remove(resource, load);
+            load.complete(ResourceSnapshot.empty(resource));
+        }
+        return load;
+    }
+
+
+    private ResourceSnapshot await(SwapiResource resource, CompletableFuture<ResourceSnapshot> load, long deadlineNanos) {
+        try {
+            return load.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.info("{} dataset still loading, serving empty snapshot", resource.getEndpoint());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error loading {} dataset", resource.getEndpoint(), e.getCause());
+        }
+        return ResourceSnapshot.empty(resource);
+    }
+
+
+    private boolean isFresh(SwapiResource resource, ResourceSnapshot snapshot) {
+        long ttl = partial.contains(resource) ? retrySeconds : ttlSeconds;
+        return !snapshot.isStale(TimeUnit.SECONDS.toMillis(ttl));
+    }
+
+
+    private boolean backingOff(SwapiResource resource) {
+        Long failed = failedAt.get(resource);
+        return failed != null && System.currentTimeMillis() - failed < TimeUnit.SECONDS.toMillis(retrySeconds);
+    }
+
+
+    static long numericUid(String uid) {
+        try {
+            return Long.parseLong(uid);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+
+    private List<String> listUrls(SwapiResource resource) {
+        List<String> urls = new ArrayList<>();
+
+        if (resource == SwapiResource.FILMS) {
+            swapiClient.getCollection(resource.getEndpoint(), FilmsListResponse.class)
+                    .map(FilmsListResponse::getResult)
+                    .ifPresent(films -> {
+                        for (FilmDTO film : films) {
+                            urls.add(swapiClient.resourceUrl(resource.getEndpoint(), film.getUid()));
+                        }
+                    });
+            return urls;
+        }
+
+        int page = 1;
+        SwapiResponse<Map<String, Object>> response;
+        do {
+            response = swapiClient.getPage(resource.getEndpoint(), page++, UPSTREAM_PAGE_SIZE,
+                    new ParameterizedTypeReference<SwapiResponse<Map<String, Object>>>() {});
+            if (response == null || response.getResults() == null) {
+                break;
+            }
+            for (Map<String, Object> item : response.getResults()) {
+                urls.add(swapiClient.resourceUrl(resource.getEndpoint(), String.valueOf(item.get("uid"))));
+            }
+        } while (response.getNext() != null);
+
+        return urls;
+    }
+}
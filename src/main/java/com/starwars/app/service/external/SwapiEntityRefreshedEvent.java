@@ -0,0 +1,13 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class SwapiEntityRefreshedEvent {
+
+    private final SwapiResource resource;
+    private final String url;
+    private final Object properties;
+    private final String edited;
+}
@@ -0,0 +1,138 @@
+package com.starwars.app.service.external;
+
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class SwapiEntityStore {
+
+    private final SwapiClientService swapiClient;
+    private final UrlCanonicalizer urlCanonicalizer;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final Logger logger = LoggerFactory.getLogger(SwapiEntityStore.class);
+
+    @Value("${swapi.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${swapi.entity.max-entries:10000}")
+    private int maxEntries;
+
+    // Clave "endpoint/id": las busquedas por ids arbitrarios no internan nada;
+    // solo se canonicalizan las URLs de entidades que efectivamente se guardan.
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    });
+
+
+    public <T> Optional<T> find(SwapiResource resource, String id, Class<T> detailType) {
+        return load(resource, id, null).map(detailType::cast);
+    }
+
+
+    public Optional<Object> findByUrl(String url) {
+        return SwapiResource.fromUrl(url)
+                .flatMap(resource -> load(resource, SwapiResource.idFromUrl(url), url));
+    }
+
+
+    public Optional<Object> cached(String url) {
+        Entry entry = entry(url);
+        return entry != null && !entry.isExpired(ttlMillis()) ? Optional.of(entry.detail) : Optional.empty();
+    }
+
+
+    public Optional<Object> peek(String url) {
+        Entry entry = entry(url);
+        return entry != null ? Optional.of(entry.detail) : Optional.empty();
+    }
+
+
+    /**
+     * Guarda la entidad y publica SwapiEntityRefreshedEvent solo si es nueva
+     * o si su edited cambio; un refresh con el mismo edited no genera evento.
+     */
+    public Object put(SwapiResource resource, String url, Object detail) {
+        String canonical = urlCanonicalizer.canonicalize(url);
+        Object properties = SwapiResource.propertiesOf(detail);
+        urlCanonicalizer.canonicalizeProperties(properties);
+
+        String edited = SwapiResource.editedOf(properties);
+        Entry previous = entries.put(key(resource, SwapiResource.idFromUrl(canonical)),
+                new Entry(detail, edited, System.currentTimeMillis()));
+
+        if (previous == null || !Objects.equals(previous.edited, edited)) {
+            logger.debug("Entity {} stored (edited: {})", canonical, edited);
+            eventPublisher.publishEvent(new SwapiEntityRefreshedEvent(resource, canonical, properties, edited));
+        }
+        return detail;
+    }
+
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    private Optional<Object> load(SwapiResource resource, String id, String url) {
+        Entry entry = entries.get(key(resource, id));
+        if (entry != null && !entry.isExpired(ttlMillis())) {
+            return Optional.of(entry.detail);
+        }
+
+        Optional<?> fetched = swapiClient.getById(resource.getEndpoint(), id, resource.getDetailType());
+        if (fetched.isPresent()) {
+            String resourceUrl = url != null ? url : swapiClient.resourceUrl(resource.getEndpoint(), id);
+            return Optional.of(put(resource, resourceUrl, fetched.get()));
+        }
+
+        if (entry != null) {
+            logger.warn("Serving stale {}/{} after failed refresh", resource.getEndpoint(), id);
+            return Optional.of(entry.detail);
+        }
+        return Optional.empty();
+    }
+
+
+    private Entry entry(String url) {
+        return SwapiResource.fromUrl(url)
+                .map(resource -> entries.get(key(resource, SwapiResource.idFromUrl(url))))
+                .orElse(null);
+    }
+
+
+    private static String key(SwapiResource resource, String id) {
+        return resource.getEndpoint() + "/" + id;
+    }
+
+
+    private long ttlMillis() {
+        return TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Object detail;
+        private final String edited;
+        private final long storedAt;
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - storedAt > ttlMillis;
+        }
+    }
+}
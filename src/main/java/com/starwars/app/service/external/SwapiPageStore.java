@@ -0,0 +1,299 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.PageCacheStats;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de listados normalizada en chunks de tamano fijo por recurso: cualquier
+ * combinacion de page/limit se arma con los chunks que la cubren y solo se
+ * piden a SWAPI (en paralelo) los que faltan o vencieron. Despues de servir
+ * una pagina con next se precargan en segundo plano los chunks de la pagina
+ * siguiente, con un presupuesto de descargas simultaneas por recurso.
+ */
+@Component
+@RequiredArgsConstructor
+public class SwapiPageStore {
+
+    private final SwapiClientService swapiClient;
+    private final ExecutorService swapiExecutor;
+    private final ExecutorService prefetchExecutor;
+    private static final Logger logger = LoggerFactory.getLogger(SwapiPageStore.class);
+
+    private final Map<String, Chunk> chunks = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Chunk>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<String, Semaphore> prefetchBudgets = new ConcurrentHashMap<>();
+    private final AtomicLong prefetchIssued = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchSkipped = new AtomicLong();
+
+    @Value("${swapi.page.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${swapi.page.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${swapi.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${swapi.prefetch.enabled:true}")
+    private boolean prefetchEnabled;
+
+    @Value("${swapi.prefetch.budget-per-resource:2}")
+    private int prefetchBudget;
+
+
+    public <T> SwapiResponse<T> getPage(String endpoint, int page, int limit,
+                                        ParameterizedTypeReference<SwapiResponse<T>> typeRef) {
+        if (page < 1) {
+            throw new BadRequestException("page must be greater than 0");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+
+        long start = (long) (page - 1) * limit;
+        int firstChunk = (int) (start / chunkSize);
+        int lastChunk = (int) ((start + limit - 1) / chunkSize);
+
+        List<CompletableFuture<Chunk>> pending = new ArrayList<>();
+        for (int index = firstChunk; index <= lastChunk; index++) {
+            pending.add(chunk(endpoint, index, typeRef));
+        }
+
+        Chunk first = join(pending.get(0));
+        Integer totalRecords = first.totalRecords;
+        List<T> items = new ArrayList<>();
+        boolean more = false;
+        for (int i = 0; i < pending.size(); i++) {
+            long chunkStart = (long) (firstChunk + i) * chunkSize;
+            if (totalRecords != null && chunkStart >= totalRecords) {
+                break;
+            }
+            Chunk chunk = i == 0 ? first : join(pending.get(i));
+            if (chunk.prefetched.compareAndSet(true, false)) {
+                prefetchHits.incrementAndGet();
+            }
+            items.addAll(chunk.<T>results());
+            more = chunk.hasNext;
+            if (chunk.results.size() < chunkSize) {
+                break;
+            }
+        }
+
+        int offset = (int) (start - (long) firstChunk * chunkSize);
+        List<T> results = offset < items.size()
+                ? new ArrayList<>(items.subList(offset, Math.min(items.size(), offset + limit)))
+                : new ArrayList<>();
+
+        SwapiResponse<T> response = new SwapiResponse<>();
+        response.setMessage("ok");
+        response.setResults(results);
+        if (totalRecords != null) {
+            int totalPages = (totalRecords + limit - 1) / limit;
+            response.setTotal_records(totalRecords);
+            response.setTotal_pages(totalPages);
+            more = page < totalPages;
+        }
+        response.setPrevious(page > 1 ? swapiClient.pageUrl(endpoint, page - 1, limit) : null);
+        response.setNext(more ? swapiClient.pageUrl(endpoint, page + 1, limit) : null);
+
+        if (more && prefetchEnabled) {
+            prefetch(endpoint, page + 1, limit, typeRef);
+        }
+        return response;
+    }
+
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    public PageCacheStats stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long issued = prefetchIssued.get();
+        long prefetchHitCount = prefetchHits.get();
+        return new PageCacheStats(chunks.size(), hitCount, missCount, ratio(hitCount, hitCount + missCount),
+                issued, prefetchHitCount, prefetchSkipped.get(), ratio(prefetchHitCount, issued));
+    }
+
+
+    /**
+     * Descarga a baja prioridad los chunks de la pagina indicada que no estan
+     * en cache ni en vuelo. Si el recurso ya agoto su presupuesto o la cola
+     * del pool esta llena, la precarga se descarta.
+     */
+    private <T> void prefetch(String endpoint, int page, int limit,
+                              ParameterizedTypeReference<SwapiResponse<T>> typeRef) {
+        long start = (long) (page - 1) * limit;
+        List<Integer> missing = new ArrayList<>();
+        for (int index = (int) (start / chunkSize); index <= (int) ((start + limit - 1) / chunkSize); index++) {
+            String key = endpoint + ":" + index;
+            if (!isFresh(chunks.get(key)) && !inFlight.containsKey(key)) {
+                missing.add(index);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Semaphore budget = prefetchBudgets.computeIfAbsent(endpoint, e -> new Semaphore(prefetchBudget));
+        if (!budget.tryAcquire()) {
+            prefetchSkipped.incrementAndGet();
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    for (int index : missing) {
+                        prefetchIssued.incrementAndGet();
+                        load(endpoint, index, typeRef, chunks.get(endpoint + ":" + index), true, Runnable::run).join();
+                    }
+                } catch (RuntimeException e) {
+                    logger.debug("Prefetch of {} page {} failed: {}", endpoint, page, e.getMessage());
+                } finally {
+                    budget.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            budget.release();
+            prefetchSkipped.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Devuelve el chunk desde la cache o lanza su descarga; las descargas
+     * concurrentes del mismo chunk se comparten.
+     */
+    private <T> CompletableFuture<Chunk> chunk(String endpoint, int index,
+                                               ParameterizedTypeReference<SwapiResponse<T>> typeRef) {
+        Chunk cached = chunks.get(endpoint + ":" + index);
+        if (isFresh(cached)) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        misses.incrementAndGet();
+        return load(endpoint, index, typeRef, cached, false, swapiExecutor);
+    }
+
+
+    private <T> CompletableFuture<Chunk> load(String endpoint, int index,
+                                              ParameterizedTypeReference<SwapiResponse<T>> typeRef,
+                                              Chunk stale, boolean prefetch, Executor executor) {
+        String key = endpoint + ":" + index;
+        CompletableFuture<Chunk> created = new CompletableFuture<>();
+        CompletableFuture<Chunk> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture.supplyAsync(() -> fetch(endpoint, index, typeRef, stale, prefetch), executor)
+                .whenComplete((chunk, error) -> {
+                    inFlight.remove(key, created);
+                    if (error != null) {
+                        created.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    } else {
+                        created.complete(chunk);
+                    }
+                });
+        return created;
+    }
+
+
+    private <T> Chunk fetch(String endpoint, int index, ParameterizedTypeReference<SwapiResponse<T>> typeRef,
+                            Chunk stale, boolean prefetch) {
+        try {
+            SwapiResponse<T> response = swapiClient.getPage(endpoint, index + 1, chunkSize, typeRef);
+            if (response == null || response.getResults() == null) {
+                // Un cuerpo vacio es una falla: cachearlo serviria paginas vacias durante todo el TTL
+                throw new RuntimeException("Failed to fetch " + endpoint + " from Star Wars API: empty page " + (index + 1));
+            }
+            List<?> results = response.getResults();
+            Chunk chunk = new Chunk(new ArrayList<>(results), response.getTotal_records(),
+                    response.getNext() != null, System.currentTimeMillis(), new AtomicBoolean(prefetch));
+            chunks.put(endpoint + ":" + index, chunk);
+            logger.debug("Stored {} chunk {} ({} items)", endpoint, index, results.size());
+            return chunk;
+        } catch (RuntimeException e) {
+            if (stale != null) {
+                logger.warn("Serving stale {} chunk {} after failed refresh", endpoint, index);
+                return stale;
+            }
+            throw e;
+        }
+    }
+
+
+    private boolean isFresh(Chunk chunk) {
+        return chunk != null && !chunk.isExpired(TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+
+    private static double ratio(long part, long total) {
+        return total > 0 ? (double) part / total : 0.0;
+    }
+
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    @AllArgsConstructor
+    private static class Chunk {
+        private final List<?> results;
+        private final Integer totalRecords;
+        private final boolean hasNext;
+        private final long storedAt;
+        private final AtomicBoolean prefetched;
+
+        @SuppressWarnings("unchecked")
+        <T> List<T> results() {
+            return (List<T>) results;
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - storedAt > ttlMillis;
+        }
+    }
+}
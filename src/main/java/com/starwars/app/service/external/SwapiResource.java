@@ -0,0 +1,168 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum SwapiResource {
+
+    PEOPLE("people", PersonDetailResponse.class),
+    FILMS("films", FilmDetailResponse.class),
+    STARSHIPS("starships", StarshipDetailResponse.class),
+    VEHICLES("vehicles", VehicleDetailResponse.class);
+
+    private final String endpoint;
+    private final Class<?> detailType;
+
+
+    public static Optional<SwapiResource> fromEndpoint(String endpoint) {
+        for (SwapiResource resource : values()) {
+            if (resource.endpoint.equalsIgnoreCase(endpoint)) {
+                return Optional.of(resource);
+            }
+        }
+        return Optional.empty();
+    }
+
+
+    public static Optional<SwapiResource> fromUrl(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        for (SwapiResource resource : values()) {
+            if (url.contains("/" + resource.endpoint + "/")) {
+                return Optional.of(resource);
+            }
+        }
+        return Optional.empty();
+    }
+
+
+    public static String idFromUrl(String url) {
+        String trimmed = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+
+    public static Object propertiesOf(Object detail) {
+        if (detail instanceof PersonDetailResponse) {
+            PersonDetailResponse.PersonResult result = ((PersonDetailResponse) detail).getResult();
+            return result != null ? result.getProperties() : null;
+        }
+        if (detail instanceof FilmDetailResponse) {
+            FilmDetailResponse.FilmResult result = ((FilmDetailResponse) detail).getResult();
+            return result != null ? result.getProperties() : null;
+        }
+        if (detail instanceof StarshipDetailResponse) {
+            StarshipDetailResponse.StarshipResult result = ((StarshipDetailResponse) detail).getResult();
+            return result != null ? result.getProperties() : null;
+        }
+        if (detail instanceof VehicleDetailResponse) {
+            VehicleDetailResponse.VehicleResult result = ((VehicleDetailResponse) detail).getResult();
+            return result != null ? result.getProperties() : null;
+        }
+        return null;
+    }
+
+
+    public static String editedOf(Object properties) {
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            return ((PersonDetailResponse.PersonProperties) properties).getEdited();
+        }
+        if (properties instanceof FilmDetailResponse.FilmProperties) {
+            return ((FilmDetailResponse.FilmProperties) properties).getEdited();
+        }
+        if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            return ((StarshipDetailResponse.StarshipProperties) properties).getEdited();
+        }
+        if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            return ((VehicleDetailResponse.VehicleProperties) properties).getEdited();
+        }
+        return null;
+    }
+
+
+    public static String nameOf(Object properties) {
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            return ((PersonDetailResponse.PersonProperties) properties).getName();
+        }
+        if (properties instanceof FilmDetailResponse.FilmProperties) {
+            return ((FilmDetailResponse.FilmProperties) properties).getTitle();
+        }
+        if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            return ((StarshipDetailResponse.StarshipProperties) properties).getName();
+        }
+        if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            return ((VehicleDetailResponse.VehicleProperties) properties).getName();
+        }
+        return null;
+    }
+
+
+    public static List<String> searchableFieldsOf(Object properties) {
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            PersonDetailResponse.PersonProperties person = (PersonDetailResponse.PersonProperties) properties;
+            return fields(person.getName(), person.getGender(), person.getBirthYear(),
+                    person.getHairColor(), person.getSkinColor(), person.getEyeColor());
+        }
+        if (properties instanceof FilmDetailResponse.FilmProperties) {
+            FilmDetailResponse.FilmProperties film = (FilmDetailResponse.FilmProperties) properties;
+            return fields(film.getTitle(), film.getDirector(), film.getProducer(), film.getOpeningCrawl());
+        }
+        if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            StarshipDetailResponse.StarshipProperties starship = (StarshipDetailResponse.StarshipProperties) properties;
+            return fields(starship.getName(), starship.getModel(), starship.getManufacturer(),
+                    starship.getStarshipClass(), starship.getConsumables());
+        }
+        if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            VehicleDetailResponse.VehicleProperties vehicle = (VehicleDetailResponse.VehicleProperties) properties;
+            return fields(vehicle.getName(), vehicle.getModel(), vehicle.getManufacturer(),
+                    vehicle.getVehicleClass(), vehicle.getConsumables());
+        }
+        return new ArrayList<>();
+    }
+
+
+    public static Map<String, List<String>> relationsOf(Object properties) {
+        Map<String, List<String>> relations = new LinkedHashMap<>();
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            PersonDetailResponse.PersonProperties person = (PersonDetailResponse.PersonProperties) properties;
+            relations.put("films", person.getFilms());
+            relations.put("starships", person.getStarships());
+            relations.put("vehicles", person.getVehicles());
+        } else if (properties instanceof FilmDetailResponse.FilmProperties) {
+            FilmDetailResponse.FilmProperties film = (FilmDetailResponse.FilmProperties) properties;
+            relations.put("characters", film.getCharacters());
+            relations.put("starships", film.getStarships());
+            relations.put("vehicles", film.getVehicles());
+        } else if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            StarshipDetailResponse.StarshipProperties starship = (StarshipDetailResponse.StarshipProperties) properties;
+            relations.put("pilots", starship.getPilots());
+            relations.put("films", starship.getFilms());
+        } else if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            VehicleDetailResponse.VehicleProperties vehicle = (VehicleDetailResponse.VehicleProperties) properties;
+            relations.put("pilots", vehicle.getPilots());
+            relations.put("films", vehicle.getFilms());
+        }
+        return relations;
+    }
+
+
+    private static List<String> fields(String... values) {
+        List<String> fields = new ArrayList<>(values.length);
+        for (String value : values) {
+            fields.add(value != null ? value : "");
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,74 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class UrlCanonicalizer {
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+
+    public String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String key = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        String existing = pool.putIfAbsent(key, key);
+        return existing != null ? existing : key;
+    }
+
+
+    public List<String> canonicalizeAll(List<String> urls) {
+        if (urls == null) {
+            return null;
+        }
+        List<String> canonical = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            canonical.add(canonicalize(url));
+        }
+        return canonical;
+    }
+
+
+    public void canonicalizeProperties(Object properties) {
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            PersonDetailResponse.PersonProperties person = (PersonDetailResponse.PersonProperties) properties;
+            person.setUrl(canonicalize(person.getUrl()));
+            person.setHomeworld(canonicalize(person.getHomeworld()));
+            person.setFilms(canonicalizeAll(person.getFilms()));
+            person.setStarships(canonicalizeAll(person.getStarships()));
+            person.setVehicles(canonicalizeAll(person.getVehicles()));
+        } else if (properties instanceof FilmDetailResponse.FilmProperties) {
+            FilmDetailResponse.FilmProperties film = (FilmDetailResponse.FilmProperties) properties;
+            film.setUrl(canonicalize(film.getUrl()));
+            film.setCharacters(canonicalizeAll(film.getCharacters()));
+            film.setPlanets(canonicalizeAll(film.getPlanets()));
+            film.setStarships(canonicalizeAll(film.getStarships()));
+            film.setVehicles(canonicalizeAll(film.getVehicles()));
+            film.setSpecies(canonicalizeAll(film.getSpecies()));
+        } else if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            StarshipDetailResponse.StarshipProperties starship = (StarshipDetailResponse.StarshipProperties) properties;
+            starship.setUrl(canonicalize(starship.getUrl()));
+            starship.setPilots(canonicalizeAll(starship.getPilots()));
+            starship.setFilms(canonicalizeAll(starship.getFilms()));
+        } else if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            VehicleDetailResponse.VehicleProperties vehicle = (VehicleDetailResponse.VehicleProperties) properties;
+            vehicle.setUrl(canonicalize(vehicle.getUrl()));
+            vehicle.setPilots(canonicalizeAll(vehicle.getPilots()));
+            vehicle.setFilms(canonicalizeAll(vehicle.getFilms()));
+        }
+    }
+
+
+    public int size() {
+        return pool.size();
+    }
+}
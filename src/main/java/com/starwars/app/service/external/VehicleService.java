@@ -1,26 +1,37 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
 import com.starwars.app.dto.swapi.*;
+import com.starwars.app.service.query.ListQuery;
+import com.starwars.app.service.query.ListQueryService;
 import lombok.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class VehicleService {
 
     private final SwapiClientService swapiClient;
+    private final ExpansionService expansionService;
+    private final SwapiEntityStore entityStore;
+    private final SwapiPageStore pageStore;
+    private final ListQueryService listQueryService;
     private static final Logger logger = LoggerFactory.getLogger(VehicleService.class);
 
     private static final String ENDPOINT = "vehicles";
 
 
     public SwapiResponse<VehicleDTO> getVehicles(int page, int limit) {
-        return swapiClient.getPage(
+        return pageStore.getPage(
                 ENDPOINT,
                 page,
                 limit,
@@ -29,8 +40,43 @@ public class VehicleService {
     }
 
 
+    public SwapiResponse<VehicleDTO> queryVehicles(ListQuery query, int page, int limit) {
+        return listQueryService.query(SwapiResource.VEHICLES, query, page, limit,
+                (uid, name) -> new VehicleDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
+
+    public CursorPage<VehicleDTO> getVehiclesAfter(String cursor, int limit) {
+        return listQueryService.seek(SwapiResource.VEHICLES, cursor, limit,
+                (uid, name) -> new VehicleDTO(uid, name, swapiClient.resourceUrl(ENDPOINT, uid)));
+    }
+
+
     public Optional<VehicleDetailResponse> getVehicleById(String id) {
-        return swapiClient.getById(ENDPOINT, id, VehicleDetailResponse.class);
+        return entityStore.find(SwapiResource.VEHICLES, id, VehicleDetailResponse.class);
+    }
+
+
+    public Optional<ExpandedResponse<VehicleDetailResponse.VehicleProperties>> getVehicleExpanded(String id, Set<String> expand) {
+        return getVehicleById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.expand(properties, SwapiResource.relationsOf(properties), expand));
     }
 
+
+    public BatchResponse<VehicleDetailResponse.VehicleProperties> getVehiclesBatch(Set<String> ids) {
+        return expansionService.batch(SwapiResource.VEHICLES, ids, VehicleDetailResponse.VehicleProperties.class);
+    }
+
+
+    public Optional<SseEmitter> streamVehicleExpanded(String id, Set<String> expand) {
+        return getVehicleById(id)
+                .map(response -> response.getResult().getProperties())
+                .map(properties -> expansionService.streamExpand(properties, SwapiResource.relationsOf(properties), expand));
+    }
+
+
+    public SseEmitter streamVehiclesBatch(Set<String> ids) {
+        return expansionService.streamBatch(SwapiResource.VEHICLES, ids);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.service.external.SwapiResource;
+
+import java.util.Arrays;
+
+/**
+ * Busqueda bidireccional (BFS) de caminos entre personas sobre el grafo CSR.
+ * Solo recorre aristas persona - (film | starship | vehicle), de modo que cada
+ * salto entre dos personas cuenta como un grado de separacion.
+ * Los conjuntos de visitados se marcan por generacion y se reutilizan por hilo.
+ */
+public final class PathFinder {
+
+    private static final byte PERSON = (byte) SwapiResource.PEOPLE.ordinal();
+
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    private PathFinder() {
+    }
+
+
+    /**
+     * Devuelve los nodos del camino mas corto (incluidos origen y destino)
+     * o null si no existe con como maximo maxDegrees saltos entre personas.
+     */
+    public static int[] shortestPath(RelationshipGraph.Csr graph, int source, int target, int maxDegrees) {
+        if (source < 0 || target < 0 || source >= graph.size() || target >= graph.size()) {
+            return null;
+        }
+        if (source == target) {
+            return new int[]{source};
+        }
+
+        Workspace ws = WORKSPACES.get();
+        int gen = ws.begin(graph.size());
+        int maxEdges = 2 * maxDegrees;
+
+        Side forward = ws.forward;
+        Side backward = ws.backward;
+        forward.start(source, gen);
+        backward.start(target, gen);
+
+        while (forward.depth + backward.depth < maxEdges && !forward.exhausted() && !backward.exhausted()) {
+            Side expand = forward.frontier() <= backward.frontier() ? forward : backward;
+            Side other = expand == forward ? backward : forward;
+
+            int meet = expand.expandLevel(graph, other, gen);
+            if (meet >= 0) {
+                return join(forward, backward, meet, source, target);
+            }
+        }
+        return null;
+    }
+
+
+    private static int[] join(Side forward, Side backward, int meet, int source, int target) {
+        int before = 0;
+        for (int node = meet; node != source; node = forward.parent[node]) {
+            before++;
+        }
+        int after = 0;
+        for (int node = meet; node != target; node = backward.parent[node]) {
+            after++;
+        }
+
+        int[] path = new int[before + after + 1];
+        int node = meet;
+        for (int i = before; i >= 0; i--) {
+            path[i] = node;
+            node = forward.parent[node];
+        }
+        node = meet;
+        for (int i = before + 1; i < path.length; i++) {
+            node = backward.parent[node];
+            path[i] = node;
+        }
+        return path;
+    }
+
+
+    private static boolean traversable(RelationshipGraph.Csr graph, int from, int to) {
+        return (graph.types[from] == PERSON) != (graph.types[to] == PERSON);
+    }
+
+
+    private static final class Side {
+
+        int[] mark = new int[0];
+        int[] parent = new int[0];
+        int[] queue = new int[0];
+        int head;
+        int tail;
+        int depth;
+
+        void ensure(int size) {
+            if (mark.length < size) {
+                int capacity = Math.max(size, mark.length * 2);
+                mark = new int[capacity];
+                parent = new int[capacity];
+                queue = new int[capacity];
+            }
+        }
+
+        void start(int node, int gen) {
+            mark[node] = gen;
+            parent[node] = -1;
+            queue[0] = node;
+            head = 0;
+            tail = 1;
+            depth = 0;
+        }
+
+        boolean exhausted() {
+            return head == tail;
+        }
+
+        int frontier() {
+            return tail - head;
+        }
+
+        int expandLevel(RelationshipGraph.Csr graph, Side other, int gen) {
+            int levelEnd = tail;
+            depth++;
+            while (head < levelEnd) {
+                int node = queue[head++];
+                for (int i = graph.offsets[node]; i < graph.offsets[node + 1]; i++) {
+                    int next = graph.targets[i];
+                    if (mark[next] == gen || !traversable(graph, node, next)) {
+                        continue;
+                    }
+                    mark[next] = gen;
+                    parent[next] = node;
+                    if (other.mark[next] == gen) {
+                        return next;
+                    }
+                    queue[tail++] = next;
+                }
+            }
+            return -1;
+        }
+    }
+
+
+    private static final class Workspace {
+
+        final Side forward = new Side();
+        final Side backward = new Side();
+        int generation;
+
+        int begin(int size) {
+            forward.ensure(size);
+            backward.ensure(size);
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(forward.mark, 0);
+                Arrays.fill(backward.mark, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.service.external.SwapiResource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grafo no dirigido entre films, people, starships y vehicles.
+ * Las aristas declaradas por cada entidad se guardan por nodo y se compactan
+ * en formato CSR (offsets + targets sobre arrays primitivos) al consultar.
+ */
+public class RelationshipGraph {
+
+    private final Map<String, Integer> nodeIds = new ConcurrentHashMap<>();
+    private final List<String> urls = new ArrayList<>();
+    private final List<SwapiResource> types = new ArrayList<>();
+    private final Map<Integer, int[]> declared = new HashMap<>();
+
+    private volatile Csr csr = Csr.EMPTY;
+    private volatile boolean dirty;
+
+
+    public synchronized void update(SwapiResource resource, String url, Collection<String> references) {
+        int source = nodeId(resource, url);
+        int[] targets = new int[references.size()];
+        int count = 0;
+
+        for (String reference : references) {
+            Optional<SwapiResource> type = SwapiResource.fromUrl(reference);
+            if (type.isPresent()) {
+                targets[count++] = nodeId(type.get(), reference);
+            }
+        }
+
+        declared.put(source, Arrays.copyOf(targets, count));
+        dirty = true;
+    }
+
+
+    public int nodeOf(String url) {
+        Integer id = nodeIds.get(url);
+        return id != null ? id : -1;
+    }
+
+
+    public Csr snapshot() {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty) {
+                    csr = rebuild();
+                    dirty = false;
+                }
+            }
+        }
+        return csr;
+    }
+
+
+    public List<String> related(String url, SwapiResource type) {
+        Csr graph = snapshot();
+        int node = nodeOf(url);
+        if (node < 0 || node >= graph.size()) {
+            return null;
+        }
+
+        List<String> related = new ArrayList<>();
+        for (int i = graph.offsets[node]; i < graph.offsets[node + 1]; i++) {
+            int target = graph.targets[i];
+            if (graph.types[target] == type.ordinal()) {
+                related.add(graph.urls[target]);
+            }
+        }
+        return related;
+    }
+
+
+    public List<String> twoHop(String url, SwapiResource via, SwapiResource type) {
+        Csr graph = snapshot();
+        int node = nodeOf(url);
+        if (node < 0 || node >= graph.size()) {
+            return null;
+        }
+
+        boolean[] seen = new boolean[graph.size()];
+        seen[node] = true;
+        List<String> related = new ArrayList<>();
+
+        for (int i = graph.offsets[node]; i < graph.offsets[node + 1]; i++) {
+            int middle = graph.targets[i];
+            if (graph.types[middle] != via.ordinal()) {
+                continue;
+            }
+            for (int j = graph.offsets[middle]; j < graph.offsets[middle + 1]; j++) {
+                int target = graph.targets[j];
+                if (!seen[target] && graph.types[target] == type.ordinal()) {
+                    seen[target] = true;
+                    related.add(graph.urls[target]);
+                }
+            }
+        }
+        return related;
+    }
+
+
+    private int nodeId(SwapiResource resource, String url) {
+        Integer id = nodeIds.get(url);
+        if (id != null) {
+            return id;
+        }
+        int next = urls.size();
+        urls.add(url);
+        types.add(resource);
+        nodeIds.put(url, next);
+        return next;
+    }
+
+
+    private Csr rebuild() {
+        int size = urls.size();
+        int[] degree = new int[size + 1];
+
+        for (Map.Entry<Integer, int[]> entry : declared.entrySet()) {
+            degree[entry.getKey()] += entry.getValue().length;
+            for (int target : entry.getValue()) {
+                degree[target]++;
+            }
+        }
+
+        int[] rawOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            rawOffsets[i + 1] = rawOffsets[i] + degree[i];
+        }
+
+        int[] cursor = Arrays.copyOf(rawOffsets, size);
+        int[] raw = new int[rawOffsets[size]];
+        for (Map.Entry<Integer, int[]> entry : declared.entrySet()) {
+            int source = entry.getKey();
+            for (int target : entry.getValue()) {
+                raw[cursor[source]++] = target;
+                raw[cursor[target]++] = source;
+            }
+        }
+
+        int[] offsets = new int[size + 1];
+        int[] targets = new int[raw.length];
+        int written = 0;
+        for (int node = 0; node < size; node++) {
+            offsets[node] = written;
+            Arrays.sort(raw, rawOffsets[node], rawOffsets[node + 1]);
+            for (int i = rawOffsets[node]; i < rawOffsets[node + 1]; i++) {
+                if (raw[i] != node && (written == offsets[node] || targets[written - 1] != raw[i])) {
+                    targets[written++] = raw[i];
+                }
+            }
+        }
+        offsets[size] = written;
+
+        byte[] nodeTypes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            nodeTypes[i] = (byte) types.get(i).ordinal();
+        }
+
+        return new Csr(offsets, Arrays.copyOf(targets, written), nodeTypes, urls.toArray(new String[0]));
+    }
+
+
+    public static final class Csr {
+
+        static final Csr EMPTY = new Csr(new int[1], new int[0], new byte[0], new String[0]);
+
+        final int[] offsets;
+        final int[] targets;
+        final byte[] types;
+        final String[] urls;
+
+        Csr(int[] offsets, int[] targets, byte[] types, String[] urls) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.types = types;
+            this.urls = urls;
+        }
+
+        public int size() {
+            return types.length;
+        }
+
+        public int edges() {
+            return targets.length;
+        }
+    }
+}
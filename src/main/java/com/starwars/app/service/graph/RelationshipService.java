@@ -0,0 +1,115 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.dto.PathResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiEntityRefreshedEvent;
+import com.starwars.app.service.external.SwapiEntityStore;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class RelationshipService {
+
+    private final SwapiDatasetService datasetService;
+    private final SwapiEntityStore entityStore;
+    private final SwapiClientService swapiClient;
+    private static final Logger logger = LoggerFactory.getLogger(RelationshipService.class);
+
+    private final RelationshipGraph graph = new RelationshipGraph();
+
+    @Value("${swapi.path.max-depth:6}")
+    private int maxPathDepth;
+
+
+    @EventListener
+    public void onEntityRefreshed(SwapiEntityRefreshedEvent event) {
+        List<String> references = new ArrayList<>();
+        for (List<String> urls : SwapiResource.relationsOf(event.getProperties()).values()) {
+            if (urls != null) {
+                references.addAll(urls);
+            }
+        }
+        graph.update(event.getResource(), event.getUrl(), references);
+        logger.debug("Relationship graph updated for {}", event.getUrl());
+    }
+
+
+    public Optional<List<RelatedEntity>> related(SwapiResource source, String id, SwapiResource target) {
+        datasetService.prepare(source, target);
+
+        return Optional.ofNullable(graph.related(urlOf(source, id), target))
+                .map(this::toEntities);
+    }
+
+
+    public Optional<List<RelatedEntity>> coStars(String personId) {
+        datasetService.prepare(SwapiResource.FILMS, SwapiResource.PEOPLE);
+
+        return Optional.ofNullable(graph.twoHop(urlOf(SwapiResource.PEOPLE, personId), SwapiResource.FILMS, SwapiResource.PEOPLE))
+                .map(this::toEntities);
+    }
+
+
+    public Optional<PathResponse> path(String fromId, String toId, int maxDegrees) {
+        if (maxDegrees < 1 || maxDegrees > maxPathDepth) {
+            throw new BadRequestException("maxDepth must be between 1 and " + maxPathDepth);
+        }
+        datasetService.prepare(SwapiResource.values());
+
+        RelationshipGraph.Csr csr = graph.snapshot();
+        int source = graph.nodeOf(urlOf(SwapiResource.PEOPLE, fromId));
+        int target = graph.nodeOf(urlOf(SwapiResource.PEOPLE, toId));
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+
+        int[] nodes = PathFinder.shortestPath(csr, source, target, maxDegrees);
+        if (nodes == null) {
+            logger.info("No path within {} degrees between people {} and {}", maxDegrees, fromId, toId);
+            return Optional.of(new PathResponse(false, -1, Collections.emptyList()));
+        }
+
+        List<String> urls = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            urls.add(csr.urls[node]);
+        }
+        return Optional.of(new PathResponse(true, nodes.length / 2, toEntities(urls)));
+    }
+
+
+    RelationshipGraph getGraph() {
+        return graph;
+    }
+
+
+    private String urlOf(SwapiResource resource, String id) {
+        return swapiClient.resourceUrl(resource.getEndpoint(), id);
+    }
+
+
+    private List<RelatedEntity> toEntities(List<String> urls) {
+        List<RelatedEntity> entities = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            String name = entityStore.peek(url)
+                    .map(SwapiResource::propertiesOf)
+                    .map(SwapiResource::nameOf)
+                    .orElse(null);
+            entities.add(new RelatedEntity(SwapiResource.idFromUrl(url), name, url));
+        }
+        return entities;
+    }
+}
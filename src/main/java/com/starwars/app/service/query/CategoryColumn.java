@@ -0,0 +1,113 @@
+package com.starwars.app.service.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Columna categorica: valores distintos ordenados y un bitmap long[] de filas
+ * por valor. Los valores con comas ("blond, grey") se separan, de modo que una
+ * fila puede estar en varios bitmaps; las filas sin valor no estan en ninguno.
+ */
+public final class CategoryColumn {
+
+    private final String name;
+    private final int size;
+    private final List<String> values;
+    private final long[][] bitmaps;
+    private final int[] counts;
+
+    private CategoryColumn(String name, int size, List<String> values, long[][] bitmaps) {
+        this.name = name;
+        this.size = size;
+        this.values = values;
+        this.bitmaps = bitmaps;
+        this.counts = new int[bitmaps.length];
+        for (int i = 0; i < bitmaps.length; i++) {
+            counts[i] = cardinality(bitmaps[i]);
+        }
+    }
+
+
+    public static <T> CategoryColumn of(String name, List<T> rows, Function<T, String> extractor) {
+        int words = (rows.size() + 63) >>> 6;
+        Map<String, long[]> byValue = new TreeMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            T item = rows.get(row);
+            for (String value : split(item != null ? extractor.apply(item) : null)) {
+                byValue.computeIfAbsent(value, v -> new long[words])[row >>> 6] |= 1L << row;
+            }
+        }
+        return new CategoryColumn(name, rows.size(),
+                Collections.unmodifiableList(new ArrayList<>(byValue.keySet())),
+                byValue.values().toArray(new long[0][]));
+    }
+
+
+    /** Separa por comas y normaliza a minusculas; "blond, Grey" -> [blond, grey]. */
+    static List<String> split(String raw) {
+        List<String> values = new ArrayList<>(1);
+        if (raw == null) {
+            return values;
+        }
+        for (String part : raw.split(",")) {
+            String value = part.trim().toLowerCase(Locale.ROOT);
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Valores distintos, ordenados alfabeticamente. */
+    public List<String> values() {
+        return values;
+    }
+
+    /** Cantidad de filas con el valor de la posicion indicada. */
+    public int count(int valueIndex) {
+        return counts[valueIndex];
+    }
+
+    /** Posicion del valor (sin distinguir mayusculas) o -1 si no existe. */
+    public int indexOf(String value) {
+        int index = Collections.binarySearch(values, value.trim().toLowerCase(Locale.ROOT));
+        return index >= 0 ? index : -1;
+    }
+
+    long[] bitmap(int valueIndex) {
+        return bitmaps[valueIndex];
+    }
+
+
+    static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+
+    /** Cardinalidad de la interseccion sin materializarla. */
+    static int intersectionCount(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,45 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class ColumnStore {
+
+    private final SwapiDatasetService datasetService;
+    private static final Logger logger = LoggerFactory.getLogger(ColumnStore.class);
+
+    private final Map<SwapiResource, ColumnTable> tables = new ConcurrentHashMap<>();
+
+
+    /**
+     * Devuelve la tabla columnar del recurso; se reconstruye una sola vez
+     * por cada nueva version del snapshot.
+     */
+    public ColumnTable table(SwapiResource resource) {
+        ResourceSnapshot snapshot = datasetService.snapshot(resource);
+        ColumnTable current = tables.get(resource);
+        if (current != null && current.getVersion() == snapshot.getVersion()) {
+            return current;
+        }
+
+        return tables.compute(resource, (key, existing) -> {
+            if (existing != null && existing.getVersion() >= snapshot.getVersion()) {
+                return existing;
+            }
+            ColumnTable table = ColumnTable.of(snapshot);
+            logger.info("Built {} column table (version {}, {} rows)",
+                    resource.getEndpoint(), table.getVersion(), table.size());
+            return table;
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Copia tipada y columnar de un snapshot: uids y nombres por fila, una
+ * columna numerica parseada por cada atributo numerico, una columna
+ * categorica con bitmaps por cada atributo categorico del recurso y un
+ * indice ordenado por uid para la paginacion por cursor.
+ */
+public final class ColumnTable {
+
+    private static final Map<SwapiResource, Map<String, Function<Object, String>>> NUMERIC_FIELDS =
+            new EnumMap<>(SwapiResource.class);
+
+    static {
+        Map<String, Function<Object, String>> people = new LinkedHashMap<>();
+        people.put("height", p -> ((PersonDetailResponse.PersonProperties) p).getHeight());
+        people.put("mass", p -> ((PersonDetailResponse.PersonProperties) p).getMass());
+        NUMERIC_FIELDS.put(SwapiResource.PEOPLE, people);
+
+        Map<String, Function<Object, String>> films = new LinkedHashMap<>();
+        films.put("episodeId", f -> {
+            Integer episode = ((FilmDetailResponse.FilmProperties) f).getEpisodeId();
+            return episode != null ? episode.toString() : null;
+        });
+        NUMERIC_FIELDS.put(SwapiResource.FILMS, films);
+
+        Map<String, Function<Object, String>> starships = new LinkedHashMap<>();
+        starships.put("costInCredits", s -> ((StarshipDetailResponse.StarshipProperties) s).getCostInCredits());
+        starships.put("length", s -> ((StarshipDetailResponse.StarshipProperties) s).getLength());
+        starships.put("crew", s -> ((StarshipDetailResponse.StarshipProperties) s).getCrew());
+        starships.put("passengers", s -> ((StarshipDetailResponse.StarshipProperties) s).getPassengers());
+        starships.put("cargoCapacity", s -> ((StarshipDetailResponse.StarshipProperties) s).getCargoCapacity());
+        starships.put("maxAtmospheringSpeed", s -> ((StarshipDetailResponse.StarshipProperties) s).getMaxAtmospheringSpeed());
+        starships.put("hyperdriveRating", s -> ((StarshipDetailResponse.StarshipProperties) s).getHyperdriveRating());
+        starships.put("MGLT", s -> ((StarshipDetailResponse.StarshipProperties) s).getMglt());
+        NUMERIC_FIELDS.put(SwapiResource.STARSHIPS, starships);
+
+        Map<String, Function<Object, String>> vehicles = new LinkedHashMap<>();
+        vehicles.put("costInCredits", v -> ((VehicleDetailResponse.VehicleProperties) v).getCostInCredits());
+        vehicles.put("length", v -> ((VehicleDetailResponse.VehicleProperties) v).getLength());
+        vehicles.put("crew", v -> ((VehicleDetailResponse.VehicleProperties) v).getCrew());
+        vehicles.put("passengers", v -> ((VehicleDetailResponse.VehicleProperties) v).getPassengers());
+        vehicles.put("cargoCapacity", v -> ((VehicleDetailResponse.VehicleProperties) v).getCargoCapacity());
+        vehicles.put("maxAtmospheringSpeed", v -> ((VehicleDetailResponse.VehicleProperties) v).getMaxAtmospheringSpeed());
+        NUMERIC_FIELDS.put(SwapiResource.VEHICLES, vehicles);
+    }
+
+    private static final Map<SwapiResource, Map<String, Function<Object, String>>> CATEGORY_FIELDS =
+            new EnumMap<>(SwapiResource.class);
+
+    static {
+        Map<String, Function<Object, String>> people = new LinkedHashMap<>();
+        people.put("gender", p -> ((PersonDetailResponse.PersonProperties) p).getGender());
+        people.put("eyeColor", p -> ((PersonDetailResponse.PersonProperties) p).getEyeColor());
+        people.put("hairColor", p -> ((PersonDetailResponse.PersonProperties) p).getHairColor());
+        people.put("skinColor", p -> ((PersonDetailResponse.PersonProperties) p).getSkinColor());
+        people.put("homeworld", p -> ((PersonDetailResponse.PersonProperties) p).getHomeworld());
+        CATEGORY_FIELDS.put(SwapiResource.PEOPLE, people);
+
+        Map<String, Function<Object, String>> films = new LinkedHashMap<>();
+        films.put("director", f -> ((FilmDetailResponse.FilmProperties) f).getDirector());
+        films.put("producer", f -> ((FilmDetailResponse.FilmProperties) f).getProducer());
+        CATEGORY_FIELDS.put(SwapiResource.FILMS, films);
+
+        Map<String, Function<Object, String>> starships = new LinkedHashMap<>();
+        starships.put("starshipClass", s -> ((StarshipDetailResponse.StarshipProperties) s).getStarshipClass());
+        starships.put("manufacturer", s -> ((StarshipDetailResponse.StarshipProperties) s).getManufacturer());
+        CATEGORY_FIELDS.put(SwapiResource.STARSHIPS, starships);
+
+        Map<String, Function<Object, String>> vehicles = new LinkedHashMap<>();
+        vehicles.put("vehicleClass", v -> ((VehicleDetailResponse.VehicleProperties) v).getVehicleClass());
+        vehicles.put("manufacturer", v -> ((VehicleDetailResponse.VehicleProperties) v).getManufacturer());
+        CATEGORY_FIELDS.put(SwapiResource.VEHICLES, vehicles);
+    }
+
+    private final SwapiResource resource;
+    private final long version;
+    private final List<String> uids;
+    private final List<String> names;
+    private final Map<String, NumericColumn> numeric;
+    private final Map<String, CategoryColumn> categories;
+    private final KeysetIndex keyset;
+
+    private ColumnTable(SwapiResource resource, long version, List<String> uids, List<String> names,
+                        Map<String, NumericColumn> numeric, Map<String, CategoryColumn> categories) {
+        this.resource = resource;
+        this.version = version;
+        this.uids = uids;
+        this.names = names;
+        this.numeric = numeric;
+        this.categories = categories;
+        this.keyset = KeysetIndex.of(uids);
+    }
+
+
+    public static ColumnTable of(ResourceSnapshot snapshot) {
+        List<Object> rows = snapshot.getEntities();
+        List<String> names = new ArrayList<>(rows.size());
+        for (Object properties : rows) {
+            names.add(SwapiResource.nameOf(properties));
+        }
+
+        Map<String, NumericColumn> numeric = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<Object, String>> field : NUMERIC_FIELDS.get(snapshot.getResource()).entrySet()) {
+            numeric.put(field.getKey(), NumericColumn.of(field.getKey(), rows, field.getValue()));
+        }
+
+        Map<String, CategoryColumn> categories = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<Object, String>> field : CATEGORY_FIELDS.get(snapshot.getResource()).entrySet()) {
+            categories.put(field.getKey(), CategoryColumn.of(field.getKey(), rows, field.getValue()));
+        }
+
+        return new ColumnTable(snapshot.getResource(), snapshot.getVersion(), snapshot.getUids(),
+                Collections.unmodifiableList(names), Collections.unmodifiableMap(numeric),
+                Collections.unmodifiableMap(categories));
+    }
+
+
+    public static List<String> numericFields(SwapiResource resource) {
+        return new ArrayList<>(NUMERIC_FIELDS.get(resource).keySet());
+    }
+
+
+    public static List<String> categoryFields(SwapiResource resource) {
+        return new ArrayList<>(CATEGORY_FIELDS.get(resource).keySet());
+    }
+
+
+    /** Busca una columna numerica ignorando mayusculas y guiones bajos ("mglt", "MGLT"). */
+    public Optional<NumericColumn> numeric(String field) {
+        return lookup(numeric, field);
+    }
+
+
+    /** Busca una columna categorica ignorando mayusculas y guiones bajos ("eye_color", "eyeColor"). */
+    public Optional<CategoryColumn> category(String field) {
+        return lookup(categories, field);
+    }
+
+
+    private static <C> Optional<C> lookup(Map<String, C> columns, String field) {
+        if (field == null) {
+            return Optional.empty();
+        }
+        String wanted = field.replace("_", "");
+        for (Map.Entry<String, C> column : columns.entrySet()) {
+            if (column.getKey().equalsIgnoreCase(wanted)) {
+                return Optional.of(column.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+
+    public SwapiResource getResource() {
+        return resource;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return uids.size();
+    }
+
+    public KeysetIndex keyset() {
+        return keyset;
+    }
+
+    public String uid(int row) {
+        return uids.get(row);
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+}
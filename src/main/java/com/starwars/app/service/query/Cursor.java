@@ -0,0 +1,54 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de paginacion por clave: guarda el ultimo uid entregado y la
+ * version del dataset con la que se genero, codificados en Base64 URL-safe.
+ */
+public final class Cursor {
+
+    private final long version;
+    private final String uid;
+
+    public Cursor(long version, String uid) {
+        this.version = version;
+        this.uid = uid;
+    }
+
+
+    /** Decodifica el cursor; null o vacio significa empezar desde el principio. */
+    public static Cursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            return new Cursor(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((version + ":" + uid).getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+}
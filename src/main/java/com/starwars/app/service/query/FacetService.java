@@ -0,0 +1,120 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.FacetCount;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class FacetService {
+
+    private static final String FIELDS_PARAM = "fields";
+
+    private final ColumnStore columnStore;
+    private static final Logger logger = LoggerFactory.getLogger(FacetService.class);
+
+
+    /**
+     * Cuenta las filas por valor de cada campo categorico pedido.
+     * Los filtros categoricos (gender=male, eyeColor=blue,brown) y de rango
+     * (minHeight=170) se combinan intersectando bitmaps. Cada faceta se cuenta
+     * sin su propio filtro, asi sus otros valores siguen mostrando cuantas
+     * filas sumaria seleccionarlos.
+     */
+    public FacetResponse facets(SwapiResource resource, Map<String, String> params) {
+        ColumnTable table = columnStore.table(resource);
+        List<CategoryColumn> requested = requestedColumns(table, params.get(FIELDS_PARAM));
+
+        long[] ranges = toBitmap(ListQueryService.filter(table, ListQuery.parse(params).getRanges()), table.size());
+        Map<String, long[]> selections = new LinkedHashMap<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!param.getKey().equals(FIELDS_PARAM)) {
+                table.category(param.getKey()).ifPresent(column ->
+                        selections.put(column.getName(), selection(column, param.getValue())));
+            }
+        }
+
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        for (CategoryColumn column : requested) {
+            long[] filter = combine(ranges, selections, column.getName());
+            List<FacetCount> counts = new ArrayList<>();
+            for (int i = 0; i < column.values().size(); i++) {
+                int count = CategoryColumn.intersectionCount(column.bitmap(i), filter);
+                if (count > 0) {
+                    counts.add(new FacetCount(column.values().get(i), count));
+                }
+            }
+            counts.sort(Comparator.comparingInt(FacetCount::getCount).reversed().thenComparing(FacetCount::getValue));
+            facets.put(column.getName(), counts);
+        }
+
+        int total = CategoryColumn.cardinality(combine(ranges, selections, null));
+        logger.info("Computed {} facets for {}: {} matching rows", facets.size(), resource.getEndpoint(), total);
+        return new FacetResponse(resource.getEndpoint(), total, facets);
+    }
+
+
+    private static List<CategoryColumn> requestedColumns(ColumnTable table, String fields) {
+        List<String> names = fields == null || fields.trim().isEmpty()
+                ? ColumnTable.categoryFields(table.getResource())
+                : CategoryColumn.split(fields);
+
+        List<CategoryColumn> columns = new ArrayList<>();
+        for (String name : names) {
+            columns.add(table.category(name).orElseThrow(() -> new BadRequestException("Unsupported facet field: "
+                    + name + ". Supported fields: " + String.join(", ", ColumnTable.categoryFields(table.getResource())))));
+        }
+        return columns;
+    }
+
+
+    /** Union de los bitmaps de los valores pedidos (gender=male,female). */
+    private static long[] selection(CategoryColumn column, String values) {
+        long[] union = new long[(column.size() + 63) >>> 6];
+        for (String value : CategoryColumn.split(values)) {
+            int index = column.indexOf(value);
+            if (index >= 0) {
+                long[] bitmap = column.bitmap(index);
+                for (int i = 0; i < union.length; i++) {
+                    union[i] |= bitmap[i];
+                }
+            }
+        }
+        return union;
+    }
+
+
+    private static long[] combine(long[] ranges, Map<String, long[]> selections, String excluded) {
+        long[] result = ranges.clone();
+        for (Map.Entry<String, long[]> selection : selections.entrySet()) {
+            if (selection.getKey().equals(excluded)) {
+                continue;
+            }
+            long[] bitmap = selection.getValue();
+            for (int i = 0; i < result.length; i++) {
+                result[i] &= bitmap[i];
+            }
+        }
+        return result;
+    }
+
+
+    private static long[] toBitmap(int[] rows, int size) {
+        long[] bitmap = new long[(size + 63) >>> 6];
+        for (int row : rows) {
+            bitmap[row >>> 6] |= 1L << row;
+        }
+        return bitmap;
+    }
+}
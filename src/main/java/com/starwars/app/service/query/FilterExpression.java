@@ -0,0 +1,419 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+/**
+ * Expresion de filtro sobre las columnas de un listado:
+ * {@code height > 180 and gender = "male"}, {@code not (hyperdriveRating <= 1.0 or crew < 5)}.
+ * <p>
+ * Gramatica: {@code expr := and ("or" and)*}, {@code and := unary ("and" unary)*},
+ * {@code unary := "not" unary | "(" expr ")" | field op literal}, con los
+ * operadores = != &lt; &lt;= &gt; &gt;=. Se parsea una sola vez; {@link #compile}
+ * la traduce a predicados especializados por columna y operador, y
+ * {@link #evaluate} la interpreta recorriendo el arbol fila por fila.
+ * Las filas con el campo nulo no cumplen ninguna comparacion. El largo y
+ * el anidamiento estan acotados para que una entrada hostil no agote la pila.
+ */
+public final class FilterExpression {
+
+    static final int MAX_LENGTH = 1000;
+    static final int MAX_DEPTH = 32;
+
+    private final String source;
+    private final Node root;
+
+    private FilterExpression(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+
+    public static FilterExpression parse(String source) {
+        if (source == null || source.trim().isEmpty()) {
+            throw new BadRequestException("Empty filter expression");
+        }
+        if (source.length() > MAX_LENGTH) {
+            throw new BadRequestException("Filter expression longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(source);
+        Node root = parser.expression();
+        if (parser.peek().type != TokenType.END) {
+            throw parser.error("Unexpected '" + parser.peek().text + "'");
+        }
+        return new FilterExpression(source, root);
+    }
+
+
+    public String getSource() {
+        return source;
+    }
+
+
+    /** Traduce la expresion a un predicado sobre las filas de la tabla. */
+    public IntPredicate compile(ColumnTable table) {
+        return root.compile(table);
+    }
+
+
+    /** Evaluacion interpretada: recorre el arbol y busca las columnas por nombre en cada fila. */
+    public boolean evaluate(ColumnTable table, int row) {
+        return root.evaluate(table, row);
+    }
+
+
+    private interface Node {
+
+        IntPredicate compile(ColumnTable table);
+
+        boolean evaluate(ColumnTable table, int row);
+    }
+
+
+    private static final class And implements Node {
+
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public IntPredicate compile(ColumnTable table) {
+            IntPredicate a = left.compile(table);
+            IntPredicate b = right.compile(table);
+            return row -> a.test(row) && b.test(row);
+        }
+
+        @Override
+        public boolean evaluate(ColumnTable table, int row) {
+            return left.evaluate(table, row) && right.evaluate(table, row);
+        }
+    }
+
+
+    private static final class Or implements Node {
+
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public IntPredicate compile(ColumnTable table) {
+            IntPredicate a = left.compile(table);
+            IntPredicate b = right.compile(table);
+            return row -> a.test(row) || b.test(row);
+        }
+
+        @Override
+        public boolean evaluate(ColumnTable table, int row) {
+            return left.evaluate(table, row) || right.evaluate(table, row);
+        }
+    }
+
+
+    private static final class Not implements Node {
+
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public IntPredicate compile(ColumnTable table) {
+            IntPredicate a = operand.compile(table);
+            return row -> !a.test(row);
+        }
+
+        @Override
+        public boolean evaluate(ColumnTable table, int row) {
+            return !operand.evaluate(table, row);
+        }
+    }
+
+
+    private enum Operator {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        boolean test(int compare) {
+            switch (this) {
+                case EQ: return compare == 0;
+                case NE: return compare != 0;
+                case LT: return compare < 0;
+                case LE: return compare <= 0;
+                case GT: return compare > 0;
+                default: return compare >= 0;
+            }
+        }
+    }
+
+
+    private static final class Comparison implements Node {
+
+        private final String field;
+        private final Operator operator;
+        private final String text;
+        private final double number;
+
+        Comparison(String field, Operator operator, String text, double number) {
+            this.field = field;
+            this.operator = operator;
+            this.text = text;
+            this.number = number;
+        }
+
+        @Override
+        public IntPredicate compile(ColumnTable table) {
+            NumericColumn numeric = table.numeric(field).orElse(null);
+            if (numeric != null) {
+                return compileNumeric(numeric);
+            }
+            CategoryColumn category = table.category(field).orElseThrow(() -> unsupported(table));
+            return compileCategory(category);
+        }
+
+        private IntPredicate compileNumeric(NumericColumn column) {
+            if (Double.isNaN(number)) {
+                throw new BadRequestException("Field " + field + " is numeric, got '" + text + "'");
+            }
+            double[] values = column.values();
+            long[] nulls = column.nulls();
+            double bound = number;
+            switch (operator) {
+                case EQ: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] == bound;
+                case NE: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] != bound;
+                case LT: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] < bound;
+                case LE: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] <= bound;
+                case GT: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] > bound;
+                default: return row -> (nulls[row >>> 6] & (1L << row)) == 0 && values[row] >= bound;
+            }
+        }
+
+        private IntPredicate compileCategory(CategoryColumn column) {
+            if (operator != Operator.EQ && operator != Operator.NE) {
+                throw new BadRequestException("Field " + field + " only supports = and !=");
+            }
+            long[] present = new long[(column.size() + 63) >>> 6];
+            for (int i = 0; i < column.values().size(); i++) {
+                long[] bitmap = column.bitmap(i);
+                for (int w = 0; w < present.length; w++) {
+                    present[w] |= bitmap[w];
+                }
+            }
+            int index = column.indexOf(text);
+            long[] matching = index >= 0 ? column.bitmap(index) : new long[present.length];
+            if (operator == Operator.EQ) {
+                return row -> (matching[row >>> 6] & (1L << row)) != 0;
+            }
+            return row -> (present[row >>> 6] & (1L << row)) != 0 && (matching[row >>> 6] & (1L << row)) == 0;
+        }
+
+        @Override
+        public boolean evaluate(ColumnTable table, int row) {
+            Optional<NumericColumn> numeric = table.numeric(field);
+            if (numeric.isPresent()) {
+                return !numeric.get().isNull(row) && operator.test(Double.compare(numeric.get().get(row), number));
+            }
+            CategoryColumn category = table.category(field).orElseThrow(() -> unsupported(table));
+            if (operator != Operator.EQ && operator != Operator.NE) {
+                throw new BadRequestException("Field " + field + " only supports = and !=");
+            }
+            boolean present = false;
+            boolean matches = false;
+            for (int i = 0; i < category.values().size(); i++) {
+                if ((category.bitmap(i)[row >>> 6] & (1L << row)) != 0) {
+                    present = true;
+                    matches |= category.values().get(i).equalsIgnoreCase(text.trim());
+                }
+            }
+            return operator == Operator.EQ ? matches : present && !matches;
+        }
+
+        private BadRequestException unsupported(ColumnTable table) {
+            List<String> fields = new ArrayList<>(ColumnTable.numericFields(table.getResource()));
+            fields.addAll(ColumnTable.categoryFields(table.getResource()));
+            return new BadRequestException("Unsupported field: " + field + ". Supported fields: " + String.join(", ", fields));
+        }
+    }
+
+
+    private enum TokenType { IDENTIFIER, NUMBER, STRING, OPERATOR, OPEN, CLOSE, END }
+
+
+    private static final class Token {
+
+        final TokenType type;
+        final String text;
+        final int position;
+
+        Token(TokenType type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+
+        boolean isKeyword(String keyword) {
+            return type == TokenType.IDENTIFIER && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+
+    /** Parser descendente recursivo; "and" tiene mas precedencia que "or". */
+    private static final class Parser {
+
+        private final String source;
+        private final List<Token> tokens;
+        private int index;
+        private int depth;
+
+        Parser(String source) {
+            this.source = source;
+            this.tokens = tokenize(source);
+        }
+
+        Node expression() {
+            Node node = conjunction();
+            while (peek().isKeyword("or")) {
+                index++;
+                node = new Or(node, conjunction());
+            }
+            return node;
+        }
+
+        private Node conjunction() {
+            Node node = unary();
+            while (peek().isKeyword("and")) {
+                index++;
+                node = new And(node, unary());
+            }
+            return node;
+        }
+
+        private Node unary() {
+            Token token = next();
+            if (token.isKeyword("not") || token.type == TokenType.OPEN) {
+                if (++depth > MAX_DEPTH) {
+                    throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+                }
+                Node node = token.type == TokenType.OPEN ? expression() : new Not(unary());
+                if (token.type == TokenType.OPEN && next().type != TokenType.CLOSE) {
+                    throw error("Expected ')'");
+                }
+                depth--;
+                return node;
+            }
+            if (token.type != TokenType.IDENTIFIER) {
+                throw error("Expected a field name");
+            }
+
+            Token operator = next();
+            if (operator.type != TokenType.OPERATOR) {
+                throw error("Expected a comparison operator after " + token.text);
+            }
+            Token literal = next();
+            if (literal.type == TokenType.NUMBER) {
+                return new Comparison(token.text, Operator.of(operator.text), literal.text, Double.parseDouble(literal.text));
+            }
+            if (literal.type == TokenType.STRING || literal.type == TokenType.IDENTIFIER) {
+                return new Comparison(token.text, Operator.of(operator.text), literal.text, Double.NaN);
+            }
+            throw error("Expected a value after " + token.text + " " + operator.text);
+        }
+
+        Token peek() {
+            return tokens.get(index);
+        }
+
+        private Token next() {
+            Token token = tokens.get(index);
+            if (token.type != TokenType.END) {
+                index++;
+            }
+            return token;
+        }
+
+        BadRequestException error(String message) {
+            int position = tokens.get(Math.max(0, index - 1)).position;
+            return new BadRequestException("Invalid filter expression at position " + position + ": " + message
+                    + " in '" + source + "'");
+        }
+
+        private static List<Token> tokenize(String source) {
+            List<Token> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(new Token(c == '(' ? TokenType.OPEN : TokenType.CLOSE, String.valueOf(c), start));
+                    i++;
+                } else if (c == '"' || c == '\'') {
+                    int end = source.indexOf(c, i + 1);
+                    if (end < 0) {
+                        throw new BadRequestException("Invalid filter expression at position " + start
+                                + ": Unterminated string in '" + source + "'");
+                    }
+                    tokens.add(new Token(TokenType.STRING, source.substring(i + 1, end), start));
+                    i = end + 1;
+                } else if ("=!<>".indexOf(c) >= 0) {
+                    i += i + 1 < source.length() && source.charAt(i + 1) == '=' ? 2 : 1;
+                    String symbol = source.substring(start, i);
+                    if (Operator.of(symbol) == null) {
+                        throw new BadRequestException("Invalid filter expression at position " + start
+                                + ": Unknown operator '" + symbol + "' in '" + source + "'");
+                    }
+                    tokens.add(new Token(TokenType.OPERATOR, symbol, start));
+                } else if (Character.isDigit(c) || c == '-' || c == '.') {
+                    i++;
+                    while (i < source.length() && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                        i++;
+                    }
+                    String number = source.substring(start, i);
+                    if (!number.matches("-?(\\d+\\.?\\d*|\\.\\d+)")) {
+                        throw new BadRequestException("Invalid filter expression at position " + start
+                                + ": Invalid number '" + number + "' in '" + source + "'");
+                    }
+                    tokens.add(new Token(TokenType.NUMBER, number, start));
+                } else if (Character.isLetter(c) || c == '_') {
+                    while (i < source.length() && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+                        i++;
+                    }
+                    tokens.add(new Token(TokenType.IDENTIFIER, source.substring(start, i), start));
+                } else {
+                    throw new BadRequestException("Invalid filter expression at position " + start
+                            + ": Unexpected character '" + c + "' in '" + source + "'");
+                }
+            }
+            tokens.add(new Token(TokenType.END, "end of expression", source.length()));
+            return tokens;
+        }
+    }
+}
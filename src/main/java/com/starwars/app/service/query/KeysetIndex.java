@@ -0,0 +1,78 @@
+package com.starwars.app.service.query;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Indice ordenado por uid para paginacion por clave. Los uids numericos se
+ * comparan por longitud y luego lexicograficamente, que equivale al orden
+ * numerico sin necesidad de parsearlos; cada pagina es una busqueda binaria.
+ */
+public final class KeysetIndex {
+
+    static final Comparator<String> UID_ORDER = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final String[] keys;
+    private final int[] rows;
+
+    private KeysetIndex(String[] keys, int[] rows) {
+        this.keys = keys;
+        this.rows = rows;
+    }
+
+
+    public static KeysetIndex of(List<String> uids) {
+        Integer[] order = new Integer[uids.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(row -> key(uids.get(row)), UID_ORDER));
+
+        String[] keys = new String[order.length];
+        int[] rows = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rows[i] = order[i];
+            keys[i] = key(uids.get(order[i]));
+        }
+        return new KeysetIndex(keys, rows);
+    }
+
+
+    /** Posicion del primer uid estrictamente mayor que el dado; 0 si es null. */
+    public int after(String uid) {
+        if (uid == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UID_ORDER.compare(keys[mid], uid) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    public int row(int position) {
+        return rows[position];
+    }
+
+    public String uid(int position) {
+        return keys[position];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+
+    private static String key(String uid) {
+        return uid != null ? uid : "";
+    }
+}
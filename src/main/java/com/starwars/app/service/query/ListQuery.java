@@ -0,0 +1,108 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.exception.BadRequestException;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Orden y filtros pedidos sobre un listado:
+ * sort=costInCredits:desc, minCrew=10, maxLength=150 y la expresion
+ * q=height > 180 and gender = "male" (ver {@link FilterExpression}).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ListQuery {
+
+    private static final ListQuery NONE = new ListQuery(null, false, Collections.emptyList(), null, Collections.emptyMap());
+
+    private final String sortField;
+    private final boolean descending;
+    private final List<Range> ranges;
+    private final String expression;
+    /** Parametros de orden y filtro tal como llegaron, para armar los links de pagina. */
+    private final Map<String, String> params;
+
+
+    public static ListQuery parse(Map<String, String> params) {
+        if (params == null) {
+            return NONE;
+        }
+
+        Map<String, String> used = new LinkedHashMap<>();
+        String sortField = null;
+        boolean descending = false;
+        String sort = params.get("sort");
+        if (sort != null && !sort.trim().isEmpty()) {
+            used.put("sort", sort);
+            String[] parts = sort.trim().split(":", 2);
+            sortField = parts[0].trim();
+            if (parts.length > 1) {
+                String direction = parts[1].trim().toLowerCase(Locale.ROOT);
+                if (!direction.equals("asc") && !direction.equals("desc")) {
+                    throw new BadRequestException("Invalid sort direction: " + parts[1] + ". Use asc or desc");
+                }
+                descending = direction.equals("desc");
+            }
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String key = param.getKey();
+            boolean min = isBound(key, "min");
+            if (!min && !isBound(key, "max")) {
+                continue;
+            }
+            String field = Character.toLowerCase(key.charAt(3)) + key.substring(4);
+            double value = parseBound(key, param.getValue());
+            used.put(key, param.getValue());
+            ranges.add(min ? new Range(field, value, Double.POSITIVE_INFINITY)
+                    : new Range(field, Double.NEGATIVE_INFINITY, value));
+        }
+
+        String expression = params.get("q");
+        expression = expression != null && !expression.trim().isEmpty() ? expression.trim() : null;
+        if (expression != null) {
+            used.put("q", expression);
+        }
+
+        if (sortField == null && ranges.isEmpty() && expression == null) {
+            return NONE;
+        }
+        return new ListQuery(sortField, descending, ranges, expression, used);
+    }
+
+
+    public boolean isEmpty() {
+        return sortField == null && ranges.isEmpty() && expression == null;
+    }
+
+
+    private static boolean isBound(String key, String prefix) {
+        return key.length() > 3 && key.startsWith(prefix) && Character.isUpperCase(key.charAt(3));
+    }
+
+
+    private static double parseBound(String key, String value) {
+        try {
+            return Double.parseDouble(value.trim().replace(",", ""));
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new BadRequestException("Invalid numeric value for " + key + ": " + value);
+        }
+    }
+
+
+    @Getter
+    @AllArgsConstructor
+    public static class Range {
+
+        private final String field;
+        private final double min;
+        private final double max;
+    }
+}
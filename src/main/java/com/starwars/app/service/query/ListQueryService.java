@@ -0,0 +1,288 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+
+@Service
+@RequiredArgsConstructor
+public class ListQueryService {
+
+    private final ColumnStore columnStore;
+    private final SwapiClientService swapiClient;
+    private static final Logger logger = LoggerFactory.getLogger(ListQueryService.class);
+
+    @Value("${swapi.query.plan-cache-size:256}")
+    private int planCacheSize;
+
+    private final Map<String, Plan> plans = Collections.synchronizedMap(new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+            return size() > planCacheSize;
+        }
+    });
+
+
+    /**
+     * Filtra y ordena el listado local del recurso y devuelve la pagina pedida.
+     * Solo se seleccionan (top-k parcial) las filas hasta el final de la pagina.
+     * Los links next/previous repiten el orden y los filtros de la consulta.
+     */
+    public <T> SwapiResponse<T> query(SwapiResource resource, ListQuery query, int page, int limit,
+                                      BiFunction<String, String, T> mapper) {
+        if (page < 1 || limit < 1) {
+            throw new BadRequestException("page and limit must be greater than 0");
+        }
+        ColumnTable table = columnStore.table(resource);
+        NumericColumn sortColumn = query.getSortField() != null ? column(table, query.getSortField()) : null;
+
+        IntPredicate predicate = query.getExpression() != null ? plan(resource, table, query.getExpression()) : null;
+        int[] rows = filter(table, query.getRanges(), predicate);
+        long offset = (long) (page - 1) * limit;
+        int end = (int) Math.min(rows.length, offset + limit);
+
+        int[] ordered = sortColumn != null
+                ? topK(rows, end, sortColumn, query.isDescending())
+                : Arrays.copyOf(rows, end);
+
+        List<T> results = new ArrayList<>();
+        for (int i = (int) Math.min(offset, end); i < end; i++) {
+            results.add(mapper.apply(table.uid(ordered[i]), table.name(ordered[i])));
+        }
+
+        logger.info("Queried {}: {} matching, returning {} (sort: {})",
+                resource.getEndpoint(), rows.length, results.size(), query.getSortField());
+
+        int totalPages = (rows.length + limit - 1) / limit;
+        SwapiResponse<T> response = new SwapiResponse<>();
+        response.setMessage("ok");
+        response.setTotal_records(rows.length);
+        response.setTotal_pages(totalPages);
+        response.setPrevious(page > 1 && page - 1 <= totalPages ? pageUrl(resource, query, page - 1, limit) : null);
+        response.setNext(page < totalPages ? pageUrl(resource, query, page + 1, limit) : null);
+        response.setResults(results);
+        return response;
+    }
+
+
+    /**
+     * Devuelve la pagina que sigue al cursor con una busqueda binaria sobre el
+     * indice de uids. El cursor guarda el ultimo uid entregado y no un offset,
+     * asi que si la version cambia a mitad del recorrido no se repiten ni se
+     * saltean los elementos que siguen presentes.
+     */
+    public <T> CursorPage<T> seek(SwapiResource resource, String cursor, int limit,
+                                  BiFunction<String, String, T> mapper) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        Cursor after = Cursor.decode(cursor);
+        ColumnTable table = columnStore.table(resource);
+        if (after != null && after.getVersion() != table.getVersion()) {
+            logger.debug("Resuming {} cursor from version {} on version {}",
+                    resource.getEndpoint(), after.getVersion(), table.getVersion());
+        }
+
+        KeysetIndex index = table.keyset();
+        int from = index.after(after != null ? after.getUid() : null);
+        int to = (int) Math.min(index.size(), (long) from + limit);
+
+        List<T> results = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            int row = index.row(position);
+            results.add(mapper.apply(table.uid(row), table.name(row)));
+        }
+
+        String next = to < index.size() ? new Cursor(table.getVersion(), index.uid(to - 1)).encode() : null;
+        return new CursorPage<>(table.getVersion(), limit, next, results);
+    }
+
+
+    /**
+     * Devuelve el predicado compilado de la expresion. El plan se cachea por
+     * recurso y texto de la expresion: el parseo ocurre una sola vez y solo se
+     * recompila cuando cambia la version de la tabla.
+     */
+    IntPredicate plan(SwapiResource resource, ColumnTable table, String expression) {
+        String key = resource.getEndpoint() + ":" + expression;
+        Plan plan = plans.get(key);
+        if (plan != null && plan.version == table.getVersion()) {
+            return plan.predicate;
+        }
+
+        FilterExpression parsed = plan != null ? plan.expression : FilterExpression.parse(expression);
+        plan = new Plan(parsed, table.getVersion(), parsed.compile(table));
+        plans.put(key, plan);
+        logger.debug("Compiled filter plan for {} (version {}): {}", resource.getEndpoint(), table.getVersion(), expression);
+        return plan.predicate;
+    }
+
+
+    private String pageUrl(SwapiResource resource, ListQuery query, int page, int limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(
+                swapiClient.pageUrl(resource.getEndpoint(), page, limit));
+        for (Map.Entry<String, String> param : query.getParams().entrySet()) {
+            builder.queryParam(param.getKey(), param.getValue());
+        }
+        return builder.toUriString();
+    }
+
+
+    static int[] filter(ColumnTable table, List<ListQuery.Range> ranges) {
+        return filter(table, ranges, null);
+    }
+
+
+    static int[] filter(ColumnTable table, List<ListQuery.Range> ranges, IntPredicate predicate) {
+        NumericColumn[] columns = new NumericColumn[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            columns[i] = column(table, ranges.get(i).getField());
+        }
+
+        int[] rows = new int[table.size()];
+        int count = 0;
+        for (int row = 0; row < table.size(); row++) {
+            boolean keep = true;
+            for (int i = 0; i < columns.length && keep; i++) {
+                double value = columns[i].get(row);
+                keep = !columns[i].isNull(row)
+                        && value >= ranges.get(i).getMin()
+                        && value <= ranges.get(i).getMax();
+            }
+            if (keep && predicate != null) {
+                keep = predicate.test(row);
+            }
+            if (keep) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+
+    /**
+     * Devuelve las primeras k filas ordenadas por la columna usando un heap
+     * acotado de k elementos (O(n log k)); los nulos quedan siempre al final
+     * y los empates se resuelven por orden de fila (uid).
+     */
+    static int[] topK(int[] rows, int k, NumericColumn column, boolean descending) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        double[] values = column.values();
+        long[] nulls = column.nulls();
+
+        int[] heap = new int[k];
+        int size = 0;
+        for (int row : rows) {
+            if (size < k) {
+                heap[size] = row;
+                siftUp(heap, size++, values, nulls, descending);
+            } else if (before(row, heap[0], values, nulls, descending)) {
+                heap[0] = row;
+                siftDown(heap, size, values, nulls, descending);
+            }
+        }
+
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, values, nulls, descending);
+        }
+        return sorted;
+    }
+
+
+    private static NumericColumn column(ColumnTable table, String field) {
+        return table.numeric(field).orElseThrow(() -> new BadRequestException("Unsupported field: " + field
+                + ". Supported fields: " + String.join(", ", ColumnTable.numericFields(table.getResource()))));
+    }
+
+
+    /** true si la fila a va antes que b en el orden pedido. */
+    private static boolean before(int a, int b, double[] values, long[] nulls, boolean descending) {
+        boolean nullA = (nulls[a >>> 6] & (1L << a)) != 0;
+        boolean nullB = (nulls[b >>> 6] & (1L << b)) != 0;
+        if (nullA != nullB) {
+            return nullB;
+        }
+        if (!nullA) {
+            int compare = Double.compare(values[a], values[b]);
+            if (compare != 0) {
+                return descending ? compare > 0 : compare < 0;
+            }
+        }
+        return a < b;
+    }
+
+
+    // Max-heap por orden pedido: la raiz es la peor fila de las k retenidas.
+    private static void siftUp(int[] heap, int index, double[] values, long[] nulls, boolean descending) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(heap[parent], row, values, nulls, descending)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+
+    private static void siftDown(int[] heap, int size, double[] values, long[] nulls, boolean descending) {
+        int index = 0;
+        if (size == 0) {
+            return;
+        }
+        int row = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child], heap[child + 1], values, nulls, descending)) {
+                child++;
+            }
+            if (!before(row, heap[child], values, nulls, descending)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+
+    private static final class Plan {
+
+        final FilterExpression expression;
+        final long version;
+        final IntPredicate predicate;
+
+        Plan(FilterExpression expression, long version, IntPredicate predicate) {
+            this.expression = expression;
+            this.version = version;
+            this.predicate = predicate;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.starwars.app.service.query;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Columna numerica parseada: valores en un double[] y nulos en un bitmap long[].
+ */
+public final class NumericColumn {
+
+    private final String name;
+    private final double[] values;
+    private final long[] nulls;
+    private final int nullCount;
+
+    NumericColumn(String name, double[] values, long[] nulls, int nullCount) {
+        this.name = name;
+        this.values = values;
+        this.nulls = nulls;
+        this.nullCount = nullCount;
+    }
+
+
+    public static <T> NumericColumn of(String name, List<T> rows, Function<T, String> extractor) {
+        double[] values = new double[rows.size()];
+        long[] nulls = new long[(rows.size() + 63) >>> 6];
+        int nullCount = 0;
+
+        for (int row = 0; row < rows.size(); row++) {
+            T item = rows.get(row);
+            double value = item != null ? NumericParser.parse(extractor.apply(item)) : Double.NaN;
+            if (Double.isNaN(value)) {
+                nulls[row >>> 6] |= 1L << row;
+                nullCount++;
+            } else {
+                values[row] = value;
+            }
+        }
+        return new NumericColumn(name, values, nulls, nullCount);
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isNull(int row) {
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** Valor de la fila; 0 si es nulo (consultar isNull antes). */
+    public double get(int row) {
+        return values[row];
+    }
+
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    long[] nulls() {
+        return nulls;
+    }
+}
@@ -0,0 +1,40 @@
+package com.starwars.app.service.query;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte los atributos numericos que SWAPI devuelve como texto.
+ * "1,000" -> 1000, "30-165" -> 97.5 (punto medio del rango),
+ * "unknown", "n/a", "none" y valores no numericos -> NaN.
+ */
+public final class NumericParser {
+
+    private static final Pattern RANGE = Pattern.compile("^(\\d*\\.?\\d+)\\s*-\\s*(\\d*\\.?\\d+)");
+    private static final Pattern NUMBER = Pattern.compile("^(\\d*\\.?\\d+)");
+
+    private NumericParser() {
+    }
+
+
+    public static double parse(String raw) {
+        if (raw == null) {
+            return Double.NaN;
+        }
+        String text = raw.trim().toLowerCase(Locale.ROOT).replace(",", "");
+        if (text.isEmpty()) {
+            return Double.NaN;
+        }
+
+        Matcher range = RANGE.matcher(text);
+        if (range.find()) {
+            return (Double.parseDouble(range.group(1)) + Double.parseDouble(range.group(2))) / 2;
+        }
+        Matcher number = NUMBER.matcher(text);
+        if (number.find()) {
+            return Double.parseDouble(number.group(1));
+        }
+        return Double.NaN;
+    }
+}
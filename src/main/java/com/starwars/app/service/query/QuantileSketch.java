@@ -0,0 +1,153 @@
+package com.starwars.app.service.query;
+
+import java.util.Arrays;
+
+/**
+ * Sketch de cuantiles con error relativo acotado y combinable: cada valor
+ * cae en un bucket logaritmico de razon gamma = (1 + a) / (1 - a), de modo
+ * que cualquier cuantil se devuelve con error relativo menor o igual a a.
+ * Dos sketches con la misma precision se combinan sumando sus buckets, lo
+ * que permite calcularlos por partes en paralelo.
+ */
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final Store positives = new Store();
+    private final Store negatives = new Store();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+
+    public void add(double value) {
+        if (value > 0) {
+            positives.add(index(value), 1);
+        } else if (value < 0) {
+            negatives.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        positives.merge(other.positives);
+        negatives.merge(other.negatives);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+
+    /** Cuantil q en [0, 1]; NaN si el sketch esta vacio. */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        long rank = (long) Math.floor(q * (count - 1));
+        double value;
+        if (rank < negatives.total) {
+            value = -value(negatives.indexAtRank(negatives.total - 1 - rank));
+        } else if (rank < negatives.total + zeroCount) {
+            value = 0;
+        } else {
+            value = value(positives.indexAtRank(rank - negatives.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+
+    /** Punto del bucket con error relativo minimo respecto de sus extremos. */
+    private double value(int index) {
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+
+    /** Contadores densos por indice de bucket, con offset y crecimiento en ambos sentidos. */
+    private static final class Store {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index, long increment) {
+            ensure(index);
+            counts[index - offset] += increment;
+            total += increment;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        int indexAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        private void ensure(int index) {
+            if (counts.length == 0) {
+                counts = new long[8];
+                offset = index;
+                return;
+            }
+            if (index < offset) {
+                int grow = Math.max(offset - index, counts.length / 2);
+                long[] grown = new long[counts.length + grow];
+                System.arraycopy(counts, 0, grown, grow, counts.length);
+                counts = grown;
+                offset -= grow;
+            } else if (index - offset >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length * 3 / 2));
+            }
+        }
+    }
+}
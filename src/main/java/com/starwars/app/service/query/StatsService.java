@@ -0,0 +1,218 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.StatsGroup;
+import com.starwars.app.dto.StatsResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+@Service
+@RequiredArgsConstructor
+public class StatsService {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+    private final ColumnStore columnStore;
+    private static final Logger logger = LoggerFactory.getLogger(StatsService.class);
+
+    private final Map<String, StatsResponse> cache = new ConcurrentHashMap<>();
+
+    @Value("${swapi.stats.parallel-threshold:1024}")
+    private int parallelThreshold;
+
+    @Value("${swapi.stats.sketch-accuracy:0.01}")
+    private double sketchAccuracy;
+
+
+    /**
+     * Estadisticas de un campo numerico, opcionalmente agrupadas por un campo
+     * categorico. Se calculan con una reduccion fork-join sobre las columnas y
+     * se cachean hasta que cambia la version del dataset.
+     */
+    public StatsResponse stats(SwapiResource resource, String field, String groupBy) {
+        ColumnTable table = columnStore.table(resource);
+        NumericColumn column = table.numeric(field).orElseThrow(() -> new BadRequestException("Unsupported field: "
+                + field + ". Supported fields: " + String.join(", ", ColumnTable.numericFields(resource))));
+        CategoryColumn groups = groupBy == null || groupBy.trim().isEmpty() ? null
+                : table.category(groupBy).orElseThrow(() -> new BadRequestException("Unsupported groupBy: " + groupBy
+                + ". Supported fields: " + String.join(", ", ColumnTable.categoryFields(resource))));
+
+        String key = resource.getEndpoint() + ":" + column.getName() + ":" + (groups != null ? groups.getName() : "");
+        StatsResponse cached = cache.get(key);
+        if (cached != null && cached.getVersion() == table.getVersion()) {
+            return cached;
+        }
+
+        StatsResponse response = compute(table, column, groups);
+        cache.put(key, response);
+        logger.info("Computed {} stats for {} (version {}, {} groups)",
+                column.getName(), resource.getEndpoint(), table.getVersion(), response.getGroups().size());
+        return response;
+    }
+
+
+    private StatsResponse compute(ColumnTable table, NumericColumn column, CategoryColumn groups) {
+        int groupCount = groups != null ? groups.values().size() : 1;
+        int[][] membership = groups != null ? membership(groups) : null;
+
+        Reduction reduction = new Reduction(column, membership, groupCount, 0, table.size(),
+                Math.max(1, parallelThreshold), sketchAccuracy);
+        Accumulator[] totals = ForkJoinPool.commonPool().invoke(reduction);
+
+        List<StatsGroup> result = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            if (groups == null || totals[g].sketch.getCount() + totals[g].missing > 0) {
+                result.add(totals[g].toGroup(groups != null ? groups.values().get(g) : null));
+            }
+        }
+        result.sort(Comparator.comparingLong(StatsGroup::getCount).reversed()
+                .thenComparing(StatsGroup::getGroup, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        return new StatsResponse(table.getResource().getEndpoint(), column.getName(),
+                groups != null ? groups.getName() : null, table.getVersion(), result);
+    }
+
+
+    /** Grupos de cada fila en formato CSR: {inicio por fila, ids de grupo}. */
+    private static int[][] membership(CategoryColumn groups) {
+        int rows = groups.size();
+        int[] start = new int[rows + 1];
+        for (int g = 0; g < groups.values().size(); g++) {
+            long[] bitmap = groups.bitmap(g);
+            for (int row = 0; row < rows; row++) {
+                if ((bitmap[row >>> 6] & (1L << row)) != 0) {
+                    start[row + 1]++;
+                }
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            start[row + 1] += start[row];
+        }
+
+        int[] ids = new int[start[rows]];
+        int[] cursor = start.clone();
+        for (int g = 0; g < groups.values().size(); g++) {
+            long[] bitmap = groups.bitmap(g);
+            for (int row = 0; row < rows; row++) {
+                if ((bitmap[row >>> 6] & (1L << row)) != 0) {
+                    ids[cursor[row]++] = g;
+                }
+            }
+        }
+        return new int[][]{start, ids};
+    }
+
+
+    /** Divide el rango de filas a la mitad hasta el umbral y combina los acumuladores por grupo. */
+    private static final class Reduction extends RecursiveTask<Accumulator[]> {
+
+        private final NumericColumn column;
+        private final int[][] membership;
+        private final int groupCount;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final double accuracy;
+
+        Reduction(NumericColumn column, int[][] membership, int groupCount, int from, int to,
+                  int threshold, double accuracy) {
+            this.column = column;
+            this.membership = membership;
+            this.groupCount = groupCount;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.accuracy = accuracy;
+        }
+
+        @Override
+        protected Accumulator[] compute() {
+            if (to - from <= threshold) {
+                return leaf();
+            }
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(column, membership, groupCount, from, middle, threshold, accuracy);
+            Reduction right = new Reduction(column, membership, groupCount, middle, to, threshold, accuracy);
+            left.fork();
+            Accumulator[] merged = right.compute();
+            Accumulator[] other = left.join();
+            for (int g = 0; g < groupCount; g++) {
+                merged[g].merge(other[g]);
+            }
+            return merged;
+        }
+
+        private Accumulator[] leaf() {
+            Accumulator[] accumulators = new Accumulator[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                accumulators[g] = new Accumulator(accuracy);
+            }
+            double[] values = column.values();
+            long[] nulls = column.nulls();
+            for (int row = from; row < to; row++) {
+                boolean missing = (nulls[row >>> 6] & (1L << row)) != 0;
+                if (membership == null) {
+                    accumulators[0].add(values[row], missing);
+                    continue;
+                }
+                for (int i = membership[0][row]; i < membership[0][row + 1]; i++) {
+                    accumulators[membership[1][i]].add(values[row], missing);
+                }
+            }
+            return accumulators;
+        }
+    }
+
+
+    private static final class Accumulator {
+
+        private final QuantileSketch sketch;
+        private long missing;
+        private double sum;
+
+        Accumulator(double accuracy) {
+            this.sketch = new QuantileSketch(accuracy);
+        }
+
+        void add(double value, boolean isMissing) {
+            if (isMissing) {
+                missing++;
+                return;
+            }
+            sketch.add(value);
+            sum += value;
+        }
+
+        void merge(Accumulator other) {
+            sketch.merge(other.sketch);
+            missing += other.missing;
+            sum += other.sum;
+        }
+
+        StatsGroup toGroup(String group) {
+            long count = sketch.getCount();
+            if (count == 0) {
+                return new StatsGroup(group, 0, missing, null, null, null, null, null, new LinkedHashMap<>());
+            }
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double p : PERCENTILES) {
+                percentiles.put("p" + Math.round(p * 100), sketch.quantile(p));
+            }
+            return new StatsGroup(group, count, missing, sketch.quantile(0), sketch.quantile(1), sum, sum / count,
+                    sketch.quantile(0.5), percentiles);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.starwars.app.service.search;
+
+import com.starwars.app.dto.SearchHit;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiEntityRefreshedEvent;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class FullTextSearchService {
+
+    private final SwapiDatasetService datasetService;
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchService.class);
+
+    private final Map<SwapiResource, InvertedIndex> indexes = new EnumMap<>(SwapiResource.class);
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    @Value("${swapi.search.max-results:50}")
+    private int maxResults;
+
+    {
+        for (SwapiResource resource : SwapiResource.values()) {
+            indexes.put(resource, new InvertedIndex());
+        }
+    }
+
+
+    @EventListener
+    public void onEntityRefreshed(SwapiEntityRefreshedEvent event) {
+        Object properties = event.getProperties();
+        String name = SwapiResource.nameOf(properties);
+        names.put(event.getUrl(), name != null ? name : "");
+        indexes.get(event.getResource()).put(event.getUrl(), SwapiResource.searchableFieldsOf(properties));
+        logger.debug("Search index updated for {}", event.getUrl());
+    }
+
+
+    public List<SearchHit> search(String query, SwapiResource type, int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new BadRequestException("limit must be between 1 and " + maxResults);
+        }
+
+        SwapiResource[] resources = type != null ? new SwapiResource[]{type} : SwapiResource.values();
+        datasetService.prepare(resources);
+
+        List<SearchHit> hits = new ArrayList<>();
+        for (SwapiResource resource : resources) {
+            search(resource, query, limit, hits);
+        }
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+
+    public int size(SwapiResource resource) {
+        return indexes.get(resource).size();
+    }
+
+
+    private void search(SwapiResource resource, String query, int limit, List<SearchHit> into) {
+        for (InvertedIndex.Hit hit : indexes.get(resource).search(query, limit)) {
+            into.add(new SearchHit(SwapiResource.idFromUrl(hit.getKey()), names.get(hit.getKey()),
+                    resource.getEndpoint(), hit.getKey(), hit.getScore()));
+        }
+    }
+}
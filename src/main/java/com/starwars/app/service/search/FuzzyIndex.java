@@ -0,0 +1,179 @@
+package com.starwars.app.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indice de trigramas para busqueda tolerante a errores de tipeo.
+ * Los candidatos se filtran por trigramas compartidos (cada edicion rompe como
+ * maximo tres) y por longitud, y luego se verifican con Levenshtein acotado.
+ * Cada entrada se indexa por su nombre completo y por cada palabra.
+ */
+public final class FuzzyIndex {
+
+    private static final int GRAM = 3;
+
+    private final String[] keys;
+    private final int[] keyEntry;
+    private final Map<String, int[]> grams;
+
+    private FuzzyIndex(String[] keys, int[] keyEntry, Map<String, int[]> grams) {
+        this.keys = keys;
+        this.keyEntry = keyEntry;
+        this.grams = grams;
+    }
+
+
+    public static FuzzyIndex build(List<String> names) {
+        List<String> keys = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int id = 0; id < names.size(); id++) {
+            String normalized = TextNormalizer.normalize(names.get(id));
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            keys.add(normalized);
+            owners.add(id);
+            List<String> tokens = TextNormalizer.tokens(normalized);
+            if (tokens.size() > 1) {
+                for (String token : tokens) {
+                    keys.add(token);
+                    owners.add(id);
+                }
+            }
+        }
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int key = 0; key < keys.size(); key++) {
+            for (String gram : trigrams(keys.get(key))) {
+                List<Integer> list = postings.computeIfAbsent(gram, g -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != key) {
+                    list.add(key);
+                }
+            }
+        }
+
+        Map<String, int[]> grams = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : postings.entrySet()) {
+            grams.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new FuzzyIndex(keys.toArray(new String[0]), owners.stream().mapToInt(Integer::intValue).toArray(), grams);
+    }
+
+
+    /**
+     * Devuelve la menor distancia de edicion de cada entrada que quede a
+     * maxEdits o menos de la consulta; -1 para las que no coinciden.
+     */
+    public int[] match(String query, int maxEdits, int entries) {
+        int[] distances = new int[entries];
+        Arrays.fill(distances, -1);
+
+        String normalized = TextNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return distances;
+        }
+
+        List<String> queryGrams = trigrams(normalized);
+        int threshold = queryGrams.size() - GRAM * maxEdits;
+        if (threshold <= 0) {
+            for (int key = 0; key < keys.length; key++) {
+                verify(normalized, key, maxEdits, distances);
+            }
+            return distances;
+        }
+
+        int[] shared = new int[keys.length];
+        for (String gram : queryGrams) {
+            int[] list = grams.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int key : list) {
+                if (++shared[key] == threshold) {
+                    verify(normalized, key, maxEdits, distances);
+                }
+            }
+        }
+        return distances;
+    }
+
+
+    private void verify(String query, int key, int maxEdits, int[] distances) {
+        if (Math.abs(keys[key].length() - query.length()) > maxEdits) {
+            return;
+        }
+        int distance = boundedLevenshtein(query, keys[key], maxEdits);
+        int entry = keyEntry[key];
+        if (distance <= maxEdits && (distances[entry] < 0 || distance < distances[entry])) {
+            distances[entry] = distance;
+        }
+    }
+
+
+    public int keyCount() {
+        return keys.length;
+    }
+
+
+    /**
+     * Levenshtein restringido a la banda |i - j| <= max. Devuelve max + 1
+     * en cuanto ninguna celda de la fila puede quedar dentro del limite.
+     */
+    static int boundedLevenshtein(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+
+        int outside = max + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : outside;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > max) {
+                return outside;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+
+
+    private static List<String> trigrams(String text) {
+        String padded = "$$" + text + "$";
+        List<String> result = new ArrayList<>(padded.length());
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            result.add(padded.substring(i, i + GRAM));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,539 @@
+package com.starwars.app.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertido en memoria con ranking BM25 y consultas por frase.
+ * Las postings de cada termino se guardan comprimidas como varints con
+ * deltas de documento y de posicion. Actualizar un documento lo marca como
+ * borrado y lo agrega al final con un id nuevo, de modo que las postings solo
+ * crecen por el final; cuando los borrados superan a los vivos se compacta.
+ */
+public class InvertedIndex {
+
+    /** Separacion de posiciones entre campos para que una frase no cruce campos. */
+    private static final int FIELD_GAP = 100;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docsByKey = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private int liveDocs;
+
+
+    public void put(String key, List<String> fields) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            add(key, fields);
+            if (deleted.cardinality() > liveDocs && deleted.cardinality() > 64) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Busca los terminos sueltos (OR) y las frases entre comillas (obligatorias)
+     * y devuelve las claves de los mejores documentos con su puntaje BM25.
+     */
+    public List<Hit> search(String query, int limit) {
+        Query parsed = Query.parse(query);
+        if (parsed.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            return searchLocked(parsed, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Recorre las postings comprimidas con un cursor por termino en orden de
+     * documento, sin decodificarlas a mapas. Sin frases se hace la union de
+     * los terminos; con frases, la interseccion de sus terminos (leapfrog), y
+     * las posiciones se decodifican solo para los documentos que llegan hasta
+     * ahi. El tf sale del encabezado de cada posting.
+     */
+    private List<Hit> searchLocked(Query query, int limit) {
+        if (liveDocs == 0) {
+            return new ArrayList<>();
+        }
+        double averageLength = (double) totalLength / liveDocs;
+
+        Set<String> phraseTerms = query.phraseTerms();
+        Map<String, Postings.Cursor> byTerm = new HashMap<>();
+        List<Postings.Cursor> cursors = new ArrayList<>();
+        List<Postings.Cursor> required = new ArrayList<>();
+        for (String term : query.allTerms()) {
+            Postings list = postings.get(term);
+            if (list == null || list.liveDocs == 0) {
+                if (phraseTerms.contains(term)) {
+                    return new ArrayList<>();
+                }
+                continue;
+            }
+            double idf = Math.log(1 + (liveDocs - list.liveDocs + 0.5) / (list.liveDocs + 0.5));
+            Postings.Cursor cursor = list.cursor(deleted, idf);
+            cursor.next();
+            byTerm.put(term, cursor);
+            cursors.add(cursor);
+            if (phraseTerms.contains(term)) {
+                required.add(cursor);
+            }
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.BY_SCORE);
+        if (required.isEmpty()) {
+            for (int doc = minDoc(cursors); doc != Postings.NO_MORE_DOCS; doc = minDoc(cursors)) {
+                collect(top, limit, doc, score(cursors, doc, averageLength));
+                for (Postings.Cursor cursor : cursors) {
+                    if (cursor.doc == doc) {
+                        cursor.next();
+                    }
+                }
+            }
+        } else {
+            for (int doc = align(required, 0); doc != Postings.NO_MORE_DOCS; doc = align(required, doc + 1)) {
+                if (!matchesPhrases(byTerm, query.phrases)) {
+                    continue;
+                }
+                for (Postings.Cursor cursor : cursors) {
+                    cursor.advance(doc);
+                }
+                collect(top, limit, doc, score(cursors, doc, averageLength));
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Hit.BY_SCORE.reversed());
+        return hits;
+    }
+
+
+    private static int minDoc(List<Postings.Cursor> cursors) {
+        int min = Postings.NO_MORE_DOCS;
+        for (Postings.Cursor cursor : cursors) {
+            min = Math.min(min, cursor.doc);
+        }
+        return min;
+    }
+
+
+    /** Avanza los cursores obligatorios hasta el primer documento >= target que tienen todos. */
+    private static int align(List<Postings.Cursor> required, int target) {
+        int doc = target;
+        boolean aligned = false;
+        while (!aligned && doc != Postings.NO_MORE_DOCS) {
+            aligned = true;
+            for (Postings.Cursor cursor : required) {
+                if (cursor.advance(doc) != doc) {
+                    doc = cursor.doc;
+                    aligned = false;
+                    break;
+                }
+            }
+        }
+        return doc;
+    }
+
+
+    private double score(List<Postings.Cursor> cursors, int doc, double averageLength) {
+        double score = 0;
+        int length = docs.get(doc).length;
+        for (Postings.Cursor cursor : cursors) {
+            if (cursor.doc == doc) {
+                double tf = cursor.freq;
+                score += cursor.idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+            }
+        }
+        return score;
+    }
+
+
+    private void collect(PriorityQueue<Hit> top, int limit, int doc, double score) {
+        top.add(new Hit(docs.get(doc).key, score));
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+
+    /** Todos los cursores de las frases estan en el mismo documento; recien aca se leen posiciones. */
+    private static boolean matchesPhrases(Map<String, Postings.Cursor> byTerm, List<String[]> phrases) {
+        for (String[] phrase : phrases) {
+            int[] first = byTerm.get(phrase[0]).positions();
+            int[][] rest = new int[phrase.length - 1][];
+            for (int i = 1; i < phrase.length; i++) {
+                rest[i - 1] = byTerm.get(phrase[i]).positions();
+            }
+            if (!matchesPhrase(first, rest)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean matchesPhrase(int[] first, int[][] rest) {
+        for (int start : first) {
+            boolean match = true;
+            for (int i = 0; i < rest.length && match; i++) {
+                match = Arrays.binarySearch(rest[i], start + i + 1) >= 0;
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private void add(String key, List<String> fields) {
+        int doc = docs.size();
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        int length = 0;
+
+        for (String field : fields) {
+            for (String token : TextNormalizer.tokens(field)) {
+                positions.computeIfAbsent(token, t -> new ArrayList<>()).add(position++);
+                length++;
+            }
+            position += FIELD_GAP;
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new Postings()).append(doc, entry.getValue());
+        }
+
+        docs.add(new Doc(key, length, positions.keySet().toArray(new String[0])));
+        docsByKey.put(key, doc);
+        totalLength += length;
+        liveDocs++;
+    }
+
+
+    private void removeLocked(String key) {
+        Integer doc = docsByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        Doc removed = docs.get(doc);
+        for (String term : removed.terms) {
+            postings.get(term).liveDocs--;
+        }
+        deleted.set(doc);
+        totalLength -= removed.length;
+        liveDocs--;
+    }
+
+
+    private void compact() {
+        List<Doc> live = new ArrayList<>(liveDocs);
+        Map<String, Map<Integer, int[]>> byTerm = new HashMap<>();
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            if (entry.getValue().liveDocs > 0) {
+                byTerm.put(entry.getKey(), entry.getValue().decode(deleted));
+            }
+        }
+
+        int[] remap = new int[docs.size()];
+        for (int doc = 0; doc < docs.size(); doc++) {
+            if (!deleted.get(doc)) {
+                remap[doc] = live.size();
+                live.add(docs.get(doc));
+            }
+        }
+
+        postings.clear();
+        for (Map.Entry<String, Map<Integer, int[]>> entry : byTerm.entrySet()) {
+            Postings list = new Postings();
+            entry.getValue().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(posting -> list.append(remap[posting.getKey()], posting.getValue()));
+            postings.put(entry.getKey(), list);
+        }
+
+        docs.clear();
+        docs.addAll(live);
+        docsByKey.clear();
+        for (int doc = 0; doc < docs.size(); doc++) {
+            docsByKey.put(docs.get(doc).key, doc);
+        }
+        deleted.clear();
+    }
+
+
+    public static final class Hit {
+
+        static final Comparator<Hit> BY_SCORE = Comparator
+                .comparingDouble((Hit hit) -> hit.score)
+                .thenComparing(hit -> hit.key, Comparator.reverseOrder());
+
+        private final String key;
+        private final double score;
+
+        Hit(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+
+    private static final class Doc {
+
+        final String key;
+        final int length;
+        final String[] terms;
+
+        Doc(String key, int length, String[] terms) {
+            this.key = key;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+
+
+    /**
+     * Postings comprimidas: por documento varint(delta doc), varint(tf)
+     * y tf varints con el delta de cada posicion.
+     */
+    static final class Postings {
+
+        static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+        private byte[] bytes = new byte[16];
+        private int size;
+        private int lastDoc = -1;
+        int liveDocs;
+
+        void append(int doc, List<Integer> positions) {
+            append(doc, positions.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        void append(int doc, int[] positions) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(positions.length);
+            int last = 0;
+            for (int position : positions) {
+                writeVarInt(position - last);
+                last = position;
+            }
+            lastDoc = doc;
+            liveDocs++;
+        }
+
+        Map<Integer, int[]> decode(BitSet deleted) {
+            Map<Integer, int[]> decoded = new HashMap<>();
+            int[] cursor = {0};
+            int doc = -1;
+            while (cursor[0] < size) {
+                doc += readVarInt(cursor);
+                int[] positions = new int[readVarInt(cursor)];
+                int last = 0;
+                for (int i = 0; i < positions.length; i++) {
+                    last += readVarInt(cursor);
+                    positions[i] = last;
+                }
+                if (!deleted.get(doc)) {
+                    decoded.put(doc, positions);
+                }
+            }
+            return decoded;
+        }
+
+        Cursor cursor(BitSet deleted, double idf) {
+            return new Cursor(deleted, idf);
+        }
+
+        int byteSize() {
+            return size;
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private int readVarInt(int[] cursor) {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = bytes[cursor[0]++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        /**
+         * Recorre las postings en orden de documento leyendo solo el
+         * encabezado (delta doc y tf) de cada una; las posiciones se saltean
+         * sin decodificar salvo que se pidan con positions().
+         */
+        final class Cursor {
+
+            private final BitSet deleted;
+            final double idf;
+            private final int[] offset = {0};
+            private int positionsAt;
+            int doc = -1;
+            int freq;
+
+            private Cursor(BitSet deleted, double idf) {
+                this.deleted = deleted;
+                this.idf = idf;
+            }
+
+            /** Siguiente documento vivo, o NO_MORE_DOCS al terminar. */
+            int next() {
+                if (doc == NO_MORE_DOCS) {
+                    return doc;
+                }
+                do {
+                    if (doc >= 0) {
+                        skipPositions();
+                    }
+                    if (offset[0] >= size) {
+                        return doc = NO_MORE_DOCS;
+                    }
+                    doc += readVarInt(offset);
+                    freq = readVarInt(offset);
+                    positionsAt = offset[0];
+                } while (deleted.get(doc));
+                return doc;
+            }
+
+            /** Primer documento vivo >= target. */
+            int advance(int target) {
+                while (doc < target) {
+                    next();
+                }
+                return doc;
+            }
+
+            int[] positions() {
+                int[] positions = new int[freq];
+                int[] at = {positionsAt};
+                int last = 0;
+                for (int i = 0; i < freq; i++) {
+                    last += readVarInt(at);
+                    positions[i] = last;
+                }
+                return positions;
+            }
+
+            /** Saltea los tf varints de posiciones contando los bytes finales de cada uno. */
+            private void skipPositions() {
+                offset[0] = positionsAt;
+                for (int remaining = freq; remaining > 0; offset[0]++) {
+                    if ((bytes[offset[0]] & 0x80) == 0) {
+                        remaining--;
+                    }
+                }
+            }
+        }
+    }
+
+
+    static final class Query {
+
+        final List<String> terms = new ArrayList<>();
+        final List<String[]> phrases = new ArrayList<>();
+
+        static Query parse(String text) {
+            Query query = new Query();
+            if (text == null) {
+                return query;
+            }
+            String[] parts = text.split("\"", -1);
+            for (int i = 0; i < parts.length; i++) {
+                List<String> tokens = TextNormalizer.tokens(parts[i]);
+                boolean quoted = i % 2 == 1 && i < parts.length - 1;
+                if (quoted && tokens.size() > 1) {
+                    query.phrases.add(tokens.toArray(new String[0]));
+                } else {
+                    query.terms.addAll(tokens);
+                }
+            }
+            return query;
+        }
+
+        boolean isEmpty() {
+            return terms.isEmpty() && phrases.isEmpty();
+        }
+
+        Set<String> phraseTerms() {
+            Set<String> all = new LinkedHashSet<>();
+            for (String[] phrase : phrases) {
+                all.addAll(Arrays.asList(phrase));
+            }
+            return all;
+        }
+
+        Set<String> allTerms() {
+            Set<String> all = new LinkedHashSet<>(terms);
+            for (String[] phrase : phrases) {
+                all.addAll(Arrays.asList(phrase));
+            }
+            return all;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.starwars.app.service.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Trie inmutable sobre arrays primitivos para autocompletado.
+ * Los hijos de cada nodo quedan contiguos y ordenados por caracter (busqueda binaria)
+ * y cada nodo guarda precalculados sus mejores topK resultados por popularidad,
+ * por lo que una consulta solo recorre el prefijo.
+ */
+public final class PrefixIndex {
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topOffsets;
+    private final int[] topIds;
+    private final int topK;
+
+    private PrefixIndex(char[] labels, int[] firstChild, int[] childCount, int[] topOffsets, int[] topIds, int topK) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topOffsets = topOffsets;
+        this.topIds = topIds;
+        this.topK = topK;
+    }
+
+
+    /**
+     * Construye el indice. Cada entrada se indexa por su nombre completo y por
+     * cada sufijo que empieza en una palabra ("skywalker" encuentra "Luke Skywalker").
+     */
+    public static PrefixIndex build(List<String> names, int[] scores, int topK) {
+        Builder root = new Builder('\0');
+        for (int id = 0; id < names.size(); id++) {
+            List<String> tokens = TextNormalizer.tokens(names.get(id));
+            for (int start = 0; start < tokens.size(); start++) {
+                root.insert(String.join(" ", tokens.subList(start, tokens.size())), id);
+            }
+        }
+
+        Comparator<Integer> ranking = Comparator
+                .comparingInt((Integer id) -> -scores[id])
+                .thenComparing(names::get)
+                .thenComparingInt(id -> id);
+        root.rank(ranking, topK);
+
+        return flatten(root, topK);
+    }
+
+
+    public int[] suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || labels.length == 0) {
+            return new int[0];
+        }
+
+        int node = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            node = child(node, normalized.charAt(i));
+            if (node < 0) {
+                return new int[0];
+            }
+        }
+
+        int count = Math.min(Math.min(limit, topK), topOffsets[node + 1] - topOffsets[node]);
+        return Arrays.copyOfRange(topIds, topOffsets[node], topOffsets[node] + count);
+    }
+
+
+    public int size() {
+        return labels.length;
+    }
+
+
+    public int getTopK() {
+        return topK;
+    }
+
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) {
+                low = mid + 1;
+            } else if (labels[mid] > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+
+    private static PrefixIndex flatten(Builder root, int topK) {
+        List<Builder> order = new ArrayList<>();
+        Deque<Builder> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Builder node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children.values());
+        }
+
+        int size = order.size();
+        char[] labels = new char[size];
+        int[] firstChild = new int[size];
+        int[] childCount = new int[size];
+        int[] topOffsets = new int[size + 1];
+
+        int next = 1;
+        for (int i = 0; i < size; i++) {
+            Builder node = order.get(i);
+            labels[i] = node.label;
+            firstChild[i] = next;
+            childCount[i] = node.children.size();
+            next += node.children.size();
+            topOffsets[i + 1] = topOffsets[i] + node.top.length;
+        }
+
+        int[] topIds = new int[topOffsets[size]];
+        for (int i = 0; i < size; i++) {
+            int[] top = order.get(i).top;
+            System.arraycopy(top, 0, topIds, topOffsets[i], top.length);
+        }
+        return new PrefixIndex(labels, firstChild, childCount, topOffsets, topIds, topK);
+    }
+
+
+    private static final class Builder {
+
+        final char label;
+        final TreeMap<Character, Builder> children = new TreeMap<>();
+        final List<Integer> terminals = new ArrayList<>(1);
+        int[] top = new int[0];
+
+        Builder(char label) {
+            this.label = label;
+        }
+
+        void insert(String key, int id) {
+            Builder node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                node = node.children.computeIfAbsent(c, Builder::new);
+            }
+            node.terminals.add(id);
+        }
+
+        void rank(Comparator<Integer> ranking, int topK) {
+            List<Integer> candidates = new ArrayList<>(terminals);
+            for (Builder child : children.values()) {
+                child.rank(ranking, topK);
+                for (int id : child.top) {
+                    candidates.add(id);
+                }
+            }
+            top = candidates.stream()
+                    .distinct()
+                    .sorted(ranking)
+                    .limit(topK)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.starwars.app.service.search;
+
+import com.starwars.app.dto.FuzzyMatch;
+import com.starwars.app.dto.SearchSuggestion;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiResource;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class SuggestService {
+
+    private final SwapiDatasetService datasetService;
+    private final SwapiClientService swapiClient;
+    private static final Logger logger = LoggerFactory.getLogger(SuggestService.class);
+
+    private final Map<SwapiResource, Suggester> suggesters = Collections.synchronizedMap(new EnumMap<>(SwapiResource.class));
+
+    @Value("${swapi.search.suggest-top-k:20}")
+    private int topK;
+
+    @Value("${swapi.search.fuzzy.max-edits:2}")
+    private int maxEdits;
+
+
+    public List<SearchSuggestion> suggest(String query, SwapiResource type, int limit) {
+        if (limit < 1 || limit > topK) {
+            throw new BadRequestException("limit must be between 1 and " + topK);
+        }
+
+        List<SearchSuggestion> suggestions = new ArrayList<>();
+        if (type != null) {
+            suggesterFor(type).suggest(query, limit, suggestions);
+            return suggestions;
+        }
+
+        for (SwapiResource resource : SwapiResource.values()) {
+            suggesterFor(resource).suggest(query, limit, suggestions);
+        }
+        suggestions.sort(Comparator.comparingInt(SearchSuggestion::getScore).reversed()
+                .thenComparing(SearchSuggestion::getName));
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+
+    public List<FuzzyMatch> fuzzy(String query, SwapiResource type, Integer edits, int limit) {
+        int allowed = edits != null ? edits : maxEdits;
+        if (allowed < 0 || allowed > maxEdits) {
+            throw new BadRequestException("maxEdits must be between 0 and " + maxEdits);
+        }
+        if (limit < 1 || limit > topK) {
+            throw new BadRequestException("limit must be between 1 and " + topK);
+        }
+
+        List<FuzzyMatch> matches = new ArrayList<>();
+        for (SwapiResource resource : SwapiResource.values()) {
+            if (type == null || type == resource) {
+                suggesterFor(resource).fuzzy(query, allowed, matches);
+            }
+        }
+        matches.sort(Comparator.comparingInt(FuzzyMatch::getDistance)
+                .thenComparing(Comparator.comparingInt(FuzzyMatch::getScore).reversed())
+                .thenComparing(FuzzyMatch::getName));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+
+    static int popularityOf(Object properties) {
+        List<String> references = null;
+        if (properties instanceof PersonDetailResponse.PersonProperties) {
+            references = ((PersonDetailResponse.PersonProperties) properties).getFilms();
+        } else if (properties instanceof FilmDetailResponse.FilmProperties) {
+            references = ((FilmDetailResponse.FilmProperties) properties).getCharacters();
+        } else if (properties instanceof StarshipDetailResponse.StarshipProperties) {
+            references = ((StarshipDetailResponse.StarshipProperties) properties).getFilms();
+        } else if (properties instanceof VehicleDetailResponse.VehicleProperties) {
+            references = ((VehicleDetailResponse.VehicleProperties) properties).getFilms();
+        }
+        return references != null ? references.size() : 0;
+    }
+
+
+    private Suggester suggesterFor(SwapiResource resource) {
+        ResourceSnapshot snapshot = datasetService.snapshot(resource);
+        Suggester current = suggesters.get(resource);
+        if (current != null && current.version == snapshot.getVersion()) {
+            return current;
+        }
+
+        synchronized (suggesters) {
+            current = suggesters.get(resource);
+            if (current == null || current.version != snapshot.getVersion()) {
+                current = new Suggester(resource, snapshot, topK);
+                suggesters.put(resource, current);
+                logger.info("Built {} suggest index (version {}, {} nodes)",
+                        resource.getEndpoint(), snapshot.getVersion(), current.index.size());
+            }
+            return current;
+        }
+    }
+
+
+    private final class Suggester {
+
+        final SwapiResource resource;
+        final long version;
+        final List<String> uids;
+        final List<String> names;
+        final int[] scores;
+        final PrefixIndex index;
+        final FuzzyIndex fuzzyIndex;
+
+        Suggester(SwapiResource resource, ResourceSnapshot snapshot, int topK) {
+            this.resource = resource;
+            this.version = snapshot.getVersion();
+            this.uids = snapshot.getUids();
+            this.names = new ArrayList<>(snapshot.size());
+            this.scores = new int[snapshot.size()];
+            for (int i = 0; i < snapshot.size(); i++) {
+                Object properties = snapshot.getEntities().get(i);
+                String name = SwapiResource.nameOf(properties);
+                names.add(name != null ? name : "");
+                scores[i] = popularityOf(properties);
+            }
+            this.index = PrefixIndex.build(names, scores, topK);
+            this.fuzzyIndex = FuzzyIndex.build(names);
+        }
+
+        void suggest(String query, int limit, List<SearchSuggestion> into) {
+            for (int id : index.suggest(query, limit)) {
+                into.add(new SearchSuggestion(uids.get(id), names.get(id), resource.getEndpoint(),
+                        swapiClient.resourceUrl(resource.getEndpoint(), uids.get(id)), scores[id]));
+            }
+        }
+
+        void fuzzy(String query, int edits, List<FuzzyMatch> into) {
+            int[] distances = fuzzyIndex.match(query, edits, names.size());
+            for (int id = 0; id < distances.length; id++) {
+                if (distances[id] >= 0) {
+                    into.add(new FuzzyMatch(uids.get(id), names.get(id), resource.getEndpoint(),
+                            swapiClient.resourceUrl(resource.getEndpoint(), uids.get(id)), distances[id], scores[id]));
+                }
+            }
+        }
+    }
+}
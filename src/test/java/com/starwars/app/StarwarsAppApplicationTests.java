@@ -3,7 +3,7 @@ package com.starwars.app;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "swapi.dataset.warm-on-startup=false")
 class StarwarsAppApplicationTests {
 
 	@Test
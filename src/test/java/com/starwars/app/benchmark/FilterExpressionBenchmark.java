@@ -0,0 +1,76 @@
+package com.starwars.app.benchmark;
+
+import com.starwars.app.service.query.ColumnTable;
+import com.starwars.app.service.query.FilterExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Full scan of the people table with a q= expression: compiled column
+ * predicates against tree-walking evaluation with per-row column lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterExpressionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    @Param({"height > 180 and gender = \"male\"", "not (mass <= 80 or eyeColor = blue) or height < 100"})
+    public String expression;
+
+    private ColumnTable table;
+    private FilterExpression parsed;
+    private IntPredicate compiled;
+
+    @Setup
+    public void setUp() {
+        table = ColumnTable.of(SyntheticDataset.people(scale));
+        parsed = FilterExpression.parse(expression);
+        compiled = parsed.compile(table);
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matches = 0;
+        for (int row = 0; row < table.size(); row++) {
+            matches += compiled.test(row) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compileAndScan() {
+        IntPredicate predicate = FilterExpression.parse(expression).compile(table);
+        int matches = 0;
+        for (int row = 0; row < table.size(); row++) {
+            matches += predicate.test(row) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int interpreted() {
+        int matches = 0;
+        for (int row = 0; row < table.size(); row++) {
+            matches += parsed.evaluate(table, row) ? 1 : 0;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,66 @@
+package com.starwars.app.benchmark;
+
+import com.starwars.app.service.search.FuzzyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misspelled-name lookup latency against index size (number of names).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+    @Param({"163", "1630", "16300"})
+    public int size;
+
+    @Param({"1", "2"})
+    public int maxEdits;
+
+    private FuzzyIndex index;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        List<String> names = SyntheticDataset.names(size);
+        index = FuzzyIndex.build(names);
+
+        Random random = new Random(3);
+        queries = new String[32];
+        for (int i = 0; i < queries.length; i++) {
+            StringBuilder query = new StringBuilder(names.get(random.nextInt(size)));
+            for (int edit = 0; edit < maxEdits && query.length() > 1; edit++) {
+                query.deleteCharAt(random.nextInt(query.length()));
+            }
+            queries[i] = query.toString();
+        }
+    }
+
+    @Benchmark
+    public int lookup() {
+        int matches = 0;
+        for (String query : queries) {
+            for (int distance : index.match(query, maxEdits, size)) {
+                matches += distance >= 0 ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,56 @@
+package com.starwars.app.benchmark;
+
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.PathFinder;
+import com.starwars.app.service.graph.RelationshipGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All-pairs degrees-of-separation over a synthetic dataset shaped like SWAPI
+ * (people, films, starships and vehicles at the upstream sizes, times scale).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathSearchBenchmark {
+
+    @Param({"1", "4"})
+    public int scale;
+
+    private RelationshipGraph.Csr csr;
+    private int[] people;
+
+    @Setup
+    public void setUp() {
+        RelationshipGraph graph = SyntheticDataset.relationshipGraph(scale);
+        csr = graph.snapshot();
+        people = SyntheticDataset.nodesOf(graph, SwapiResource.PEOPLE, SyntheticDataset.PEOPLE * scale);
+    }
+
+    @Benchmark
+    public long allPairs() {
+        long hops = 0;
+        for (int source : people) {
+            for (int target : people) {
+                int[] path = PathFinder.shortestPath(csr, source, target, 6);
+                hops += path != null ? path.length : 0;
+            }
+        }
+        return hops;
+    }
+}
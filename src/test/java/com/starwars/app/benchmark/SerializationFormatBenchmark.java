@@ -0,0 +1,93 @@
+package com.starwars.app.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode of a page of full people records as JSON, CBOR and
+ * Smile with the same Jackson DTO mapping. Payload sizes are printed once
+ * per trial from setUp.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    private static final TypeReference<SwapiResponse<PersonDetailResponse.PersonProperties>> TYPE =
+            new TypeReference<SwapiResponse<PersonDetailResponse.PersonProperties>>() {};
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1", "10"})
+    public int scale;
+
+    private ObjectMapper mapper;
+    private SwapiResponse<PersonDetailResponse.PersonProperties> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = format.equals("cbor") ? new CBORMapper() : format.equals("smile") ? new SmileMapper() : new ObjectMapper();
+
+        ResourceSnapshot snapshot = SyntheticDataset.people(scale);
+        List<PersonDetailResponse.PersonProperties> people = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            PersonDetailResponse.PersonProperties person = snapshot.get(i, PersonDetailResponse.PersonProperties.class);
+            person.setUrl(SyntheticDataset.url(SwapiResource.PEOPLE, i + 1));
+            person.setHomeworld(SyntheticDataset.url(SwapiResource.PEOPLE, 1 + i % 60));
+            person.setCreated("2025-08-17T10:00:00.000Z");
+            person.setEdited("2025-08-17T10:00:00.000Z");
+            person.setFilms(urls(SwapiResource.FILMS, 1 + i % 4, 3));
+            person.setStarships(urls(SwapiResource.STARSHIPS, 1 + i % 30, 2));
+            person.setVehicles(urls(SwapiResource.VEHICLES, 1 + i % 30, 1));
+            people.add(person);
+        }
+        page = new SwapiResponse<>("ok", people.size(), 1, null, null, people);
+        payload = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s payload for %d people: %d bytes%n", format, people.size(), payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public SwapiResponse<PersonDetailResponse.PersonProperties> decode() throws IOException {
+        return mapper.readValue(payload, TYPE);
+    }
+
+    private static List<String> urls(SwapiResource resource, int first, int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int uid = first; uid < first + count; uid++) {
+            urls.add(SyntheticDataset.url(resource, uid));
+        }
+        return urls;
+    }
+}
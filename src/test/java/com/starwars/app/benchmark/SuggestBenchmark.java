@@ -0,0 +1,55 @@
+package com.starwars.app.benchmark;
+
+import com.starwars.app.service.search.PrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix suggestions over every SWAPI name (people, films, starships and vehicles, times scale).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SuggestBenchmark {
+
+    private static final String[] PREFIXES = {"l", "lu", "sky", "dar", "obi", "ba", "fe", "kin w", "x"};
+
+    @Param({"1", "100"})
+    public int scale;
+
+    private PrefixIndex index;
+
+    @Setup
+    public void setUp() {
+        int count = (SyntheticDataset.PEOPLE + SyntheticDataset.FILMS + SyntheticDataset.STARSHIPS
+                + SyntheticDataset.VEHICLES) * scale;
+        List<String> names = SyntheticDataset.names(count);
+        index = PrefixIndex.build(names, SyntheticDataset.scores(count), 20);
+    }
+
+    @Benchmark
+    public int suggest() {
+        int total = 0;
+        for (String prefix : PREFIXES) {
+            total += index.suggest(prefix, 10).length;
+        }
+        return total;
+    }
+}
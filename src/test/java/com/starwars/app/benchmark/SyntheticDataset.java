@@ -0,0 +1,128 @@
+package com.starwars.app.benchmark;
+
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic SWAPI-sized data for benchmarks: 82 people, 6 films,
+ * 36 starships and 39 vehicles per unit of scale.
+ */
+final class SyntheticDataset {
+
+    static final int PEOPLE = 82;
+    static final int FILMS = 6;
+    static final int STARSHIPS = 36;
+    static final int VEHICLES = 39;
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+
+    private SyntheticDataset() {
+    }
+
+    static String url(SwapiResource resource, int uid) {
+        return BASE + resource.getEndpoint() + "/" + uid;
+    }
+
+    static RelationshipGraph relationshipGraph(int scale) {
+        Random random = new Random(42);
+        RelationshipGraph graph = new RelationshipGraph();
+        int people = PEOPLE * scale;
+
+        for (int film = 1; film <= FILMS * scale; film++) {
+            List<String> references = new ArrayList<>();
+            int cast = 15 + random.nextInt(25);
+            for (int i = 0; i < cast; i++) {
+                references.add(url(SwapiResource.PEOPLE, 1 + random.nextInt(people)));
+            }
+            for (int i = 0; i < 8; i++) {
+                references.add(url(SwapiResource.STARSHIPS, 1 + random.nextInt(STARSHIPS * scale)));
+                references.add(url(SwapiResource.VEHICLES, 1 + random.nextInt(VEHICLES * scale)));
+            }
+            graph.update(SwapiResource.FILMS, url(SwapiResource.FILMS, film), references);
+        }
+
+        link(graph, random, SwapiResource.STARSHIPS, STARSHIPS * scale, people);
+        link(graph, random, SwapiResource.VEHICLES, VEHICLES * scale, people);
+
+        for (int person = 1; person <= people; person++) {
+            graph.update(SwapiResource.PEOPLE, url(SwapiResource.PEOPLE, person), new ArrayList<>());
+        }
+        return graph;
+    }
+
+    static List<String> names(int count) {
+        Random random = new Random(7);
+        String[] syllables = {"lu", "ke", "sky", "wal", "ker", "an", "a", "kin", "dar", "th", "va", "der",
+                "ob", "i", "wan", "ke", "no", "bi", "pad", "me", "ya", "do", "ha", "so", "lo", "bo", "ba", "fett"};
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 1 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    name.append(' ');
+                }
+                int parts = 2 + random.nextInt(3);
+                for (int p = 0; p < parts; p++) {
+                    name.append(syllables[random.nextInt(syllables.length)]);
+                }
+            }
+            names.add(name.toString());
+        }
+        return names;
+    }
+
+    static int[] scores(int count) {
+        Random random = new Random(11);
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            scores[i] = random.nextInt(FILMS + 1);
+        }
+        return scores;
+    }
+
+    static ResourceSnapshot people(int scale) {
+        Random random = new Random(23);
+        String[] genders = {"male", "male", "male", "female", "n/a", "hermaphrodite"};
+        String[] eyes = {"blue", "brown", "yellow", "red", "black", "unknown"};
+        List<String> names = names(PEOPLE * scale);
+        List<String> uids = new ArrayList<>(names.size());
+        List<Object> people = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            PersonDetailResponse.PersonProperties person = new PersonDetailResponse.PersonProperties();
+            person.setName(names.get(i));
+            person.setGender(genders[random.nextInt(genders.length)]);
+            person.setEyeColor(eyes[random.nextInt(eyes.length)]);
+            person.setHeight(random.nextInt(10) == 0 ? "unknown" : String.valueOf(90 + random.nextInt(150)));
+            person.setMass(random.nextInt(5) == 0 ? "unknown" : String.valueOf(40 + random.nextInt(100)));
+            uids.add(String.valueOf(i + 1));
+            people.add(person);
+        }
+        return new ResourceSnapshot(SwapiResource.PEOPLE, 1L, uids, people, 0L);
+    }
+
+    static int[] nodesOf(RelationshipGraph graph, SwapiResource resource, int count) {
+        int[] nodes = new int[count];
+        for (int uid = 1; uid <= count; uid++) {
+            nodes[uid - 1] = graph.nodeOf(url(resource, uid));
+        }
+        return nodes;
+    }
+
+    private static void link(RelationshipGraph graph, Random random, SwapiResource resource, int count, int people) {
+        for (int uid = 1; uid <= count; uid++) {
+            List<String> pilots = new ArrayList<>();
+            int crew = random.nextInt(4);
+            for (int i = 0; i < crew; i++) {
+                pilots.add(url(SwapiResource.PEOPLE, 1 + random.nextInt(people)));
+            }
+            graph.update(resource, url(resource, uid), pilots);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.starwars.app.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompressedResponseFilterTest {
+
+    private static final String CRAWL = "{\"opening_crawl\":\"" + repeat("It is a period of civil war. ", 80) + "\"}";
+
+    private PrecompressedResponseFilter filter;
+
+    private int serializations;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PrecompressedResponseFilter();
+        ReflectionTestUtils.setField(filter, "minSize", 1024);
+        ReflectionTestUtils.setField(filter, "cacheSize", 16);
+    }
+
+    @Test
+    void shouldCompressOncePerEtagAndServeCachedVariantWithoutSerializing() throws Exception {
+        MockHttpServletResponse first = perform("gzip, deflate, br", "\"v1\"", CRAWL);
+        MockHttpServletResponse second = perform("gzip", "\"v1\"", CRAWL);
+
+        assertThat(first.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(first.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(first.getHeader("ETag")).isEqualTo("\"v1-gzip\"");
+        assertThat(first.getContentAsByteArray().length).isLessThan(CRAWL.length());
+        assertThat(gunzip(second.getContentAsByteArray())).isEqualTo(CRAWL);
+        assertThat(second.getHeader("ETag")).isEqualTo("\"v1-gzip\"");
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(serializations).isEqualTo(1);
+        assertThat(filter.getCompressionCount()).isEqualTo(1);
+
+        perform("gzip", "\"v2\"", CRAWL);
+        assertThat(filter.getCompressionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotServeCachedVariantWhenGzipNotAccepted() throws Exception {
+        perform("gzip", "\"v1\"", CRAWL);
+        MockHttpServletResponse response = perform("identity", "\"v1\"", CRAWL);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(CRAWL);
+    }
+
+    @Test
+    void shouldRevalidateGzipEtagAgainstIdentityEtag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/films/1");
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("If-None-Match", "\"v1-gzip\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            HttpServletResponse servletResponse = (HttpServletResponse) res;
+            servletResponse.setHeader("ETag", "\"v1\"");
+            if ("\"v1\"".equals(((HttpServletRequest) req).getHeader("If-None-Match"))) {
+                servletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            }
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"v1-gzip\"");
+        assertThat(PrecompressedResponseFilter.gzipEtag("W/\"v1\"")).isEqualTo("W/\"v1-gzip\"");
+    }
+
+    @Test
+    void shouldLeaveSmallResponsesUncompressed() throws Exception {
+        MockHttpServletResponse response = perform("gzip", "\"v1\"", "{\"name\":\"Luke\"}");
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("{\"name\":\"Luke\"}");
+        assertThat(filter.getCompressionCount()).isZero();
+    }
+
+    @Test
+    void shouldPassThroughWhenGzipNotAccepted() throws Exception {
+        MockHttpServletResponse response = perform("identity, gzip;q=0", "\"v1\"", CRAWL);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("ETag")).isEqualTo("\"v1\"");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsString()).isEqualTo(CRAWL);
+    }
+
+    @Test
+    void shouldParseAcceptEncoding() {
+        assertThat(PrecompressedResponseFilter.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("*")).isTrue();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("deflate")).isFalse();
+        assertThat(PrecompressedResponseFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, String etag, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/films/1");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            ((HttpServletResponse) res).setHeader("ETag", etag);
+            if (PrecompressedResponseFilter.serveCached((HttpServletRequest) req, (HttpServletResponse) res, etag)) {
+                return;
+            }
+            serializations++;
+            res.setContentType("application/json");
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read; (read = input.read(buffer)) > 0; ) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.PageCacheStats;
+import com.starwars.app.service.JwtService;
+import com.starwars.app.service.UserService;
+import com.starwars.app.service.external.SwapiPageStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SwapiPageStore pageStore;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnPageCacheStats() throws Exception {
+        when(pageStore.stats()).thenReturn(new PageCacheStats(4, 6, 2, 0.75, 2, 1, 0, 0.5));
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks").value(4))
+                .andExpect(jsonPath("$.hitRatio").value(0.75))
+                .andExpect(jsonPath("$.prefetchIssued").value(2))
+                .andExpect(jsonPath("$.prefetchHitRatio").value(0.5));
+    }
+
+    @Test
+    void shouldRejectUnauthenticatedStatsRequest() throws Exception {
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isForbidden());
+    }
+}
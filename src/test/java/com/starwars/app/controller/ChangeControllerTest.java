@@ -0,0 +1,80 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.ChangeFeed;
+import com.starwars.app.dto.EntityChange;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.JwtService;
+import com.starwars.app.service.UserService;
+import com.starwars.app.service.external.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeController.class)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnChangesSinceToken() throws Exception {
+        EntityChange change = new EntityChange("people", "1", "https://www.swapi.tech/api/people/1",
+                "2024-01-01T00:00:00.000Z", Collections.singletonMap("name", "Luke Skywalker"));
+        DeferredResult<ChangeFeed> result = new DeferredResult<>();
+        result.setResult(new ChangeFeed("next", false, false, Collections.singletonList(change)));
+        when(changeFeedService.poll("abc", 100, 10)).thenReturn(result);
+
+        MvcResult async = mockMvc.perform(get("/api/changes").param("since", "abc").param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("next"))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.changes[0].resource").value("people"))
+                .andExpect(jsonPath("$.changes[0].edited").value("2024-01-01T00:00:00.000Z"))
+                .andExpect(jsonPath("$.changes[0].properties.name").value("Luke Skywalker"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectInvalidToken() throws Exception {
+        when(changeFeedService.poll("bad", 100, 0)).thenThrow(new BadRequestException("Invalid token: bad"));
+
+        mockMvc.perform(get("/api/changes").param("since", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectUnauthenticatedChangesRequest() throws Exception {
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,5 +1,7 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedResponse;
 import com.starwars.app.dto.swapi.FilmDTO;
 import com.starwars.app.dto.swapi.FilmDetailResponse;
 import com.starwars.app.dto.swapi.FilmsListResponse;
@@ -17,8 +19,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -98,6 +102,39 @@ class FilmControllerTest {
                 .andExpect(jsonPath("$.result[1].properties.title").value("The Empire Strikes Back"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetFilmsByCursorFromStart() throws Exception {
+        when(filmService.getFilmsAfter("", 10)).thenReturn(
+                new CursorPage<>(5L, 10, null, filmsListResponse.getResult()));
+
+        mockMvc.perform(get("/api/films").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[1].properties.title").value("The Empire Strikes Back"))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectCursorLimitAboveMaximum() throws Exception {
+        mockMvc.perform(get("/api/films").param("cursor", "").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetFilmsWithExpandedRelations() throws Exception {
+        FilmDTO film = filmsListResponse.getResult().get(0);
+        when(filmService.getFilmsExpanded(1, 10, Collections.singleton("characters")))
+                .thenReturn(Collections.singletonList(new ExpandedResponse<>(film, Collections.emptyMap(), false)));
+
+        mockMvc.perform(get("/api/films").param("expand", "characters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].properties.uid").value("1"))
+                .andExpect(jsonPath("$[0].properties.properties.title").value("A New Hope"))
+                .andExpect(jsonPath("$[0].partial").value(false));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldGetFilmsWithCustomPageAndLimit() throws Exception {
@@ -157,6 +194,28 @@ class FilmControllerTest {
                 .andExpect(jsonPath("$.result.properties.director").value("George Lucas"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldServeCachedGzipVariantOfFilmById() throws Exception {
+        FilmDetailResponse.FilmProperties properties = filmDetailResponse.getResult().getProperties();
+        properties.setOpeningCrawl(String.join("", Collections.nCopies(80, "It is a period of civil war. ")));
+        properties.setUrl("https://www.swapi.tech/api/films/1");
+        properties.setEdited("2014-12-20T19:49:45.256Z");
+        when(filmService.getFilmById("1")).thenReturn(Optional.of(filmDetailResponse));
+
+        byte[] first = mockMvc.perform(get("/api/films/1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        mockMvc.perform(get("/api/films/1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(first));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnNotFoundWhenFilmDoesNotExist() throws Exception {
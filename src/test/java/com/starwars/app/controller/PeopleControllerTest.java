@@ -1,9 +1,27 @@
 package com.starwars.app.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.starwars.app.config.BinaryFormatConfig;
+import com.starwars.app.config.FieldsetConfig;
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.ExpandedReference;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.PathResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
 import com.starwars.app.dto.swapi.PersonDTO;
 import com.starwars.app.dto.swapi.PersonDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
 import com.starwars.app.service.external.PeopleService;
+import com.starwars.app.service.external.ExportService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.StatsService;
 import com.starwars.app.service.JwtService;
 import com.starwars.app.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,21 +29,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PeopleController.class)
+@Import({FieldsetConfig.class, BinaryFormatConfig.class})
 class PeopleControllerTest {
 
     @Autowired
@@ -34,6 +61,18 @@ class PeopleControllerTest {
     @MockBean
     private PeopleService peopleService;
 
+    @MockBean
+    private RelationshipService relationshipService;
+
+    @MockBean
+    private FacetService facetService;
+
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private ExportService exportService;
+
     @MockBean
     private UserService userService;
 
@@ -86,6 +125,19 @@ class PeopleControllerTest {
                 .andExpect(jsonPath("$.results[1].name").value("C-3PO"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetPeopleByCursor() throws Exception {
+        when(peopleService.getPeopleAfter("MTo1", 2)).thenReturn(
+                new CursorPage<>(1L, 2, "MTo3", peopleResponse.getResults()));
+
+        mockMvc.perform(get("/api/people").param("cursor", "MTo1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("MTo3"))
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.results[0].name").value("Luke Skywalker"));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldGetPeopleWithCustomPageAndSize() throws Exception {
@@ -146,6 +198,89 @@ class PeopleControllerTest {
                 .andExpect(jsonPath("$.gender").value("male"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldWriteOnlyRequestedFieldsForPerson() throws Exception {
+        personDetailResponse.getResult().getProperties().setFilms(Collections.singletonList("https://www.swapi.tech/api/films/1"));
+        personDetailResponse.getResult().getProperties().setEyeColor("blue");
+        when(peopleService.getPersonById("1")).thenReturn(Optional.of(personDetailResponse));
+
+        mockMvc.perform(get("/api/people/1").param("fields", "name,height,eyeColor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$.height").value("172"))
+                .andExpect(jsonPath("$.eye_color").value("blue"))
+                .andExpect(jsonPath("$.mass").doesNotExist())
+                .andExpect(jsonPath("$.films").doesNotExist())
+                .andExpect(jsonPath("$.created").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldLeaveListStubsIntactWithFields() throws Exception {
+        when(peopleService.getPeople(1, 10)).thenReturn(peopleResponse);
+
+        mockMvc.perform(get("/api/people").param("fields", "height"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("ok"))
+                .andExpect(jsonPath("$.total_records").value(82))
+                .andExpect(jsonPath("$.results[0].uid").value("1"))
+                .andExpect(jsonPath("$.results[0].name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$.results[0].url").value("https://www.swapi.tech/api/people/1"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldApplyFieldsToMainEntityButNotToExpandedReferences() throws Exception {
+        PersonDetailResponse.PersonProperties properties = personDetailResponse.getResult().getProperties();
+        FilmDetailResponse.FilmProperties film = new FilmDetailResponse.FilmProperties();
+        film.setTitle("A New Hope");
+        film.setDirector("George Lucas");
+        Map<String, List<ExpandedReference>> expanded = new LinkedHashMap<>();
+        expanded.put("films", Collections.singletonList(
+                new ExpandedReference("https://www.swapi.tech/api/films/1", "1", true, film)));
+        when(peopleService.getPersonExpanded("1", Collections.singleton("films")))
+                .thenReturn(Optional.of(new ExpandedResponse<>(properties, expanded, false)));
+
+        mockMvc.perform(get("/api/people/1").param("expand", "films").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.properties.name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$.properties.height").doesNotExist())
+                .andExpect(jsonPath("$.expanded.films[0].properties.title").value("A New Hope"))
+                .andExpect(jsonPath("$.expanded.films[0].properties.director").value("George Lucas"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldNegotiateCborForPerson() throws Exception {
+        when(peopleService.getPersonById("1")).thenReturn(Optional.of(personDetailResponse));
+
+        byte[] body = mockMvc.perform(get("/api/people/1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode person = new CBORMapper().readTree(body);
+        assertThat(person.get("name").asText()).isEqualTo("Luke Skywalker");
+        assertThat(person.get("height").asText()).isEqualTo("172");
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldNegotiateSmileForPeopleListWithFieldset() throws Exception {
+        when(peopleService.getPeople(1, 10)).thenReturn(peopleResponse);
+
+        byte[] body = mockMvc.perform(get("/api/people").param("fields", "name").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new SmileMapper().readTree(body);
+        assertThat(page.get("total_records").asInt()).isEqualTo(82);
+        assertThat(page.get("results").get(1).get("name").asText()).isEqualTo("C-3PO");
+        assertThat(page.get("results").get(1).get("url").asText()).isEqualTo("https://www.swapi.tech/api/people/2");
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnNotFoundWhenPersonDoesNotExist() throws Exception {
@@ -155,6 +290,110 @@ class PeopleControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetPersonByIdWithExpandedRelations() throws Exception {
+        PersonDetailResponse.PersonProperties properties = personDetailResponse.getResult().getProperties();
+        Map<String, List<ExpandedReference>> expanded = new LinkedHashMap<>();
+        expanded.put("films", Collections.singletonList(
+                new ExpandedReference("https://www.swapi.tech/api/films/1", "1", false, null)));
+
+        when(peopleService.getPersonExpanded("1", Collections.singleton("films")))
+                .thenReturn(Optional.of(new ExpandedResponse<>(properties, expanded, true)));
+
+        mockMvc.perform(get("/api/people/1").param("expand", "films"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.properties.name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$.partial").value(true))
+                .andExpect(jsonPath("$.expanded.films[0].uid").value("1"))
+                .andExpect(jsonPath("$.expanded.films[0].resolved").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnNotFoundWhenExpandingMissingPerson() throws Exception {
+        when(peopleService.getPersonExpanded(anyString(), anySet())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/people/999").param("expand", "films"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnBadRequestForUnsupportedExpandField() throws Exception {
+        when(peopleService.getPersonExpanded(anyString(), anySet()))
+                .thenThrow(new BadRequestException("Unsupported expand field: planets"));
+
+        mockMvc.perform(get("/api/people/1").param("expand", "planets"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported expand field: planets"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetPeopleBatch() throws Exception {
+        PersonDetailResponse.PersonProperties properties = personDetailResponse.getResult().getProperties();
+        when(peopleService.getPeopleBatch(new LinkedHashSet<>(Arrays.asList("1", "999"))))
+                .thenReturn(new BatchResponse<>(Collections.singletonList(properties), Collections.singletonList("999"), true));
+
+        mockMvc.perform(get("/api/people/batch").param("ids", "1,999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$.missing[0]").value("999"))
+                .andExpect(jsonPath("$.partial").value(true));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldApplyFieldsToBatchResults() throws Exception {
+        PersonDetailResponse.PersonProperties properties = personDetailResponse.getResult().getProperties();
+        when(peopleService.getPeopleBatch(new LinkedHashSet<>(Arrays.asList("1"))))
+                .thenReturn(new BatchResponse<>(Collections.singletonList(properties), Collections.emptyList(), false));
+
+        mockMvc.perform(get("/api/people/batch").param("ids", "1").param("fields", "mass"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].mass").value("77"))
+                .andExpect(jsonPath("$.results[0].name").doesNotExist())
+                .andExpect(jsonPath("$.partial").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetPersonCoStars() throws Exception {
+        when(relationshipService.coStars("1")).thenReturn(Optional.of(Collections.singletonList(
+                new RelatedEntity("5", "Leia Organa", "https://www.swapi.tech/api/people/5"))));
+
+        mockMvc.perform(get("/api/people/1/co-stars"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].uid").value("5"))
+                .andExpect(jsonPath("$[0].name").value("Leia Organa"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnNotFoundForFilmsOfUnknownPerson() throws Exception {
+        when(relationshipService.related(SwapiResource.PEOPLE, "999", SwapiResource.FILMS)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/people/999/films"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetPathBetweenPeople() throws Exception {
+        PathResponse path = new PathResponse(true, 1, Arrays.asList(
+                new RelatedEntity("1", "Luke Skywalker", "https://www.swapi.tech/api/people/1"),
+                new RelatedEntity("1", "A New Hope", "https://www.swapi.tech/api/films/1"),
+                new RelatedEntity("5", "Leia Organa", "https://www.swapi.tech/api/people/5")));
+        when(relationshipService.path("1", "5", 3)).thenReturn(Optional.of(path));
+
+        mockMvc.perform(get("/api/people/1/path/5").param("maxDepth", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.connected").value(true))
+                .andExpect(jsonPath("$.degrees").value(1))
+                .andExpect(jsonPath("$.path[1].name").value("A New Hope"));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnHealthCheckSuccessfully() throws Exception {
@@ -181,6 +420,18 @@ class PeopleControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectOutOfRangePageAndLimit() throws Exception {
+        mockMvc.perform(get("/api/people").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"));
+        mockMvc.perform(get("/api/people").param("page", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/people").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldHandleInvalidSizeParameter() throws Exception {
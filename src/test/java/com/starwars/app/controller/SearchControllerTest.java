@@ -0,0 +1,104 @@
+package com.starwars.app.controller;
+
+import com.starwars.app.dto.FuzzyMatch;
+import com.starwars.app.dto.SearchHit;
+import com.starwars.app.dto.SearchSuggestion;
+import com.starwars.app.service.JwtService;
+import com.starwars.app.service.UserService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.search.FullTextSearchService;
+import com.starwars.app.service.search.SuggestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SuggestService suggestService;
+
+    @MockBean
+    private FullTextSearchService fullTextSearchService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnSuggestionsForType() throws Exception {
+        when(suggestService.suggest("lu", SwapiResource.PEOPLE, 5)).thenReturn(Collections.singletonList(
+                new SearchSuggestion("1", "Luke Skywalker", "people", "https://www.swapi.tech/api/people/1", 4)));
+
+        mockMvc.perform(get("/api/search/suggest").param("q", "lu").param("type", "people").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Luke Skywalker"))
+                .andExpect(jsonPath("$[0].score").value(4));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldSearchAllTypesWhenTypeMissing() throws Exception {
+        when(suggestService.suggest("x", null, 10)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/search/suggest").param("q", "x"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectUnknownType() throws Exception {
+        mockMvc.perform(get("/api/search/suggest").param("q", "lu").param("type", "planets"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnFullTextHits() throws Exception {
+        when(fullTextSearchService.search("\"death star\"", SwapiResource.FILMS, 10)).thenReturn(Collections.singletonList(
+                new SearchHit("1", "A New Hope", "films", "https://www.swapi.tech/api/films/1", 2.5)));
+
+        mockMvc.perform(get("/api/search").param("q", "\"death star\"").param("type", "films"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("A New Hope"))
+                .andExpect(jsonPath("$[0].score").value(2.5));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnFuzzyMatches() throws Exception {
+        when(suggestService.fuzzy("chewbaca", SwapiResource.PEOPLE, 1, 10)).thenReturn(Collections.singletonList(
+                new FuzzyMatch("13", "Chewbacca", "people", "https://www.swapi.tech/api/people/13", 1, 4)));
+
+        mockMvc.perform(get("/api/search/fuzzy").param("q", "chewbaca").param("type", "people").param("maxEdits", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Chewbacca"))
+                .andExpect(jsonPath("$[0].distance").value(1));
+    }
+
+    @Test
+    void shouldRequireAuthenticationForSuggest() throws Exception {
+        mockMvc.perform(get("/api/search/suggest").param("q", "lu"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,9 +1,18 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.FacetCount;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.dto.RelatedEntity;
 import com.starwars.app.dto.swapi.StarshipDTO;
 import com.starwars.app.dto.swapi.StarshipDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
 import com.starwars.app.service.external.StarshipService;
+import com.starwars.app.service.external.ExportService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.StatsService;
 import com.starwars.app.service.JwtService;
 import com.starwars.app.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,10 +26,19 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +52,18 @@ class StarshipControllerTest {
     @MockBean
     private StarshipService starshipService;
 
+    @MockBean
+    private RelationshipService relationshipService;
+
+    @MockBean
+    private FacetService facetService;
+
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private ExportService exportService;
+
     @MockBean
     private UserService userService;
 
@@ -153,6 +183,44 @@ class StarshipControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldSortAndFilterStarshipsLocally() throws Exception {
+        SwapiResponse<StarshipDTO> sorted = new SwapiResponse<>();
+        sorted.setTotal_records(1);
+        sorted.setResults(Collections.singletonList(new StarshipDTO("9", "Death Star", "https://www.swapi.tech/api/starships/9")));
+        when(starshipService.queryStarships(argThat(query -> "costInCredits".equals(query.getSortField())
+                && query.isDescending() && query.getRanges().size() == 1), eq(1), eq(5))).thenReturn(sorted);
+
+        mockMvc.perform(get("/api/starships")
+                        .param("sort", "costInCredits:desc")
+                        .param("minCrew", "1000")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].name").value("Death Star"));
+
+        verify(starshipService, never()).getStarships(anyInt(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectSortOnUnknownDirection() throws Exception {
+        mockMvc.perform(get("/api/starships").param("sort", "crew:sideways"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetStarshipFilms() throws Exception {
+        when(relationshipService.related(SwapiResource.STARSHIPS, "10", SwapiResource.FILMS)).thenReturn(Optional.of(
+                Collections.singletonList(new RelatedEntity("1", "A New Hope", "https://www.swapi.tech/api/films/1"))));
+
+        mockMvc.perform(get("/api/starships/10/films"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].uid").value("1"))
+                .andExpect(jsonPath("$[0].name").value("A New Hope"));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnHealthCheckSuccessfully() throws Exception {
@@ -207,6 +275,50 @@ class StarshipControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetStarshipFacets() throws Exception {
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("starshipClass", Arrays.asList(new FacetCount("starfighter", 6), new FacetCount("freighter", 2)));
+        when(facetService.facets(eq(SwapiResource.STARSHIPS), argThat(params -> "10".equals(params.get("minCrew")))))
+                .thenReturn(new FacetResponse("starships", 8, facets));
+
+        mockMvc.perform(get("/api/starships/facets")
+                        .param("minCrew", "10")
+                        .param("fields", "starshipClass"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(8))
+                .andExpect(jsonPath("$.facets.starshipClass[0].value").value("starfighter"))
+                .andExpect(jsonPath("$.facets.starshipClass[0].count").value(6));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldNotTreatFacetFieldsAsFieldset() throws Exception {
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("starshipClass", Collections.singletonList(new FacetCount("starfighter", 6)));
+        when(facetService.facets(eq(SwapiResource.STARSHIPS), anyMap()))
+                .thenReturn(new FacetResponse("starships", 6, facets));
+
+        String etag = mockMvc.perform(get("/api/starships/facets").param("fields", "starshipClass"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.starshipClass[0].count").value(6))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/starships/facets").param("fields", "manufacturer").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnBadRequestForUnsupportedFacetField() throws Exception {
+        when(facetService.facets(eq(SwapiResource.STARSHIPS), anyMap()))
+                .thenThrow(new BadRequestException("Unsupported facet field: name"));
+
+        mockMvc.perform(get("/api/starships/facets").param("fields", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldRequireAuthenticationForGetStarships() throws Exception {
         mockMvc.perform(get("/api/starships"))
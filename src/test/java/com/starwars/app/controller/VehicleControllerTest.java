@@ -1,9 +1,19 @@
 package com.starwars.app.controller;
 
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.StatsGroup;
+import com.starwars.app.dto.StatsResponse;
+import com.starwars.app.dto.StreamCompletion;
 import com.starwars.app.dto.swapi.VehicleDTO;
 import com.starwars.app.dto.swapi.VehicleDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
 import com.starwars.app.service.external.VehicleService;
+import com.starwars.app.service.external.ExportService;
+import com.starwars.app.service.external.SwapiResource;
+import com.starwars.app.service.graph.RelationshipService;
+import com.starwars.app.service.query.FacetService;
+import com.starwars.app.service.query.StatsService;
 import com.starwars.app.service.JwtService;
 import com.starwars.app.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,13 +25,26 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +57,18 @@ class VehicleControllerTest {
     @MockBean
     private VehicleService vehicleService;
 
+    @MockBean
+    private RelationshipService relationshipService;
+
+    @MockBean
+    private FacetService facetService;
+
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private ExportService exportService;
+
     @MockBean
     private UserService userService;
 
@@ -145,6 +180,62 @@ class VehicleControllerTest {
                 .andExpect(jsonPath("$.manufacturer").value("Corellia Mining Corporation"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldAnswerNotModifiedWhenVehicleEditedIsUnchanged() throws Exception {
+        vehicleDetailResponse.getResult().getProperties().setUrl("https://www.swapi.tech/api/vehicles/1");
+        vehicleDetailResponse.getResult().getProperties().setEdited("2025-08-17T10:00:00.000Z");
+        when(vehicleService.getVehicleById("1")).thenReturn(Optional.of(vehicleDetailResponse));
+
+        String etag = mockMvc.perform(get("/api/vehicles/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, private"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/vehicles/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "max-age=3600, private"))
+                .andExpect(content().string(""));
+
+        vehicleDetailResponse.getResult().getProperties().setEdited("2025-08-18T10:00:00.000Z");
+        mockMvc.perform(get("/api/vehicles/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Sand Crawler"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldUseContentHashEtagForVehicleList() throws Exception {
+        when(vehicleService.getVehicles(1, 10)).thenReturn(vehiclesResponse);
+
+        String etag = mockMvc.perform(get("/api/vehicles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String fieldsetEtag = mockMvc.perform(get("/api/vehicles").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/vehicles").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertThat(fieldsetEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldChangeListEtagWhenSerializedContentChanges() throws Exception {
+        when(vehicleService.getVehicles(1, 10)).thenReturn(vehiclesResponse);
+        String etag = mockMvc.perform(get("/api/vehicles"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        vehiclesResponse.getResults().get(1).setName("T-16 Skyhopper");
+
+        mockMvc.perform(get("/api/vehicles").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnNotFoundWhenVehicleDoesNotExist() throws Exception {
@@ -154,6 +245,17 @@ class VehicleControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetVehiclePilots() throws Exception {
+        when(relationshipService.related(SwapiResource.VEHICLES, "14", SwapiResource.PEOPLE)).thenReturn(Optional.of(
+                Collections.singletonList(new RelatedEntity("1", "Luke Skywalker", "https://www.swapi.tech/api/people/1"))));
+
+        mockMvc.perform(get("/api/vehicles/14/pilots"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Luke Skywalker"));
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void shouldReturnHealthCheckSuccessfully() throws Exception {
@@ -208,6 +310,91 @@ class VehicleControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldGetVehicleStatsGroupedByClass() throws Exception {
+        StatsGroup wheeled = new StatsGroup("wheeled", 3, 1, 30.0, 120.0, 250.0, 83.3, 100.0, Collections.singletonMap("p90", 120.0));
+        when(statsService.stats(SwapiResource.VEHICLES, "maxAtmospheringSpeed", "vehicleClass"))
+                .thenReturn(new StatsResponse("vehicles", "maxAtmospheringSpeed", "vehicleClass", 4L,
+                        Collections.singletonList(wheeled)));
+
+        mockMvc.perform(get("/api/vehicles/stats")
+                        .param("field", "maxAtmospheringSpeed")
+                        .param("groupBy", "vehicleClass"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].group").value("wheeled"))
+                .andExpect(jsonPath("$.groups[0].median").value(100.0))
+                .andExpect(jsonPath("$.groups[0].percentiles.p90").value(120.0));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturnBadRequestForUnsupportedStatsField() throws Exception {
+        when(statsService.stats(eq(SwapiResource.VEHICLES), eq("name"), isNull()))
+                .thenThrow(new BadRequestException("Unsupported field: name"));
+
+        mockMvc.perform(get("/api/vehicles/stats").param("field", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldStreamBatchResultsAsServerSentEvents() throws Exception {
+        VehicleDetailResponse.VehicleProperties sandCrawler = new VehicleDetailResponse.VehicleProperties();
+        sandCrawler.setName("Sand Crawler");
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().name("result").data(sandCrawler));
+        emitter.send(SseEmitter.event().name("complete").data(new StreamCompletion(1, Collections.singletonList("99"), true)));
+        emitter.complete();
+        when(vehicleService.streamVehiclesBatch(any())).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/vehicles/batch/stream").param("ids", "4,99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:result\n")))
+                .andExpect(content().string(containsString("\"name\":\"Sand Crawler\"")))
+                .andExpect(content().string(containsString("event:complete\ndata:{\"resolved\":1,\"missing\":[\"99\"],\"partial\":true}")));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldReturn404WhenStreamingExpansionOfUnknownVehicle() throws Exception {
+        when(vehicleService.streamVehicleExpanded(eq("999"), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/vehicles/999/stream").param("expand", "films"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldStreamVehiclesAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("{\"uid\":\"4\"}\n{\"uid\":\"6\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(eq(SwapiResource.VEHICLES), eq(ExportService.Format.NDJSON), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/vehicles/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"uid\":\"4\"}\n{\"uid\":\"6\"}\n"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void shouldRejectUnsupportedExportFormat() throws Exception {
+        mockMvc.perform(get("/api/vehicles/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldRequireAuthenticationForGetVehicles() throws Exception {
         mockMvc.perform(get("/api/vehicles"))
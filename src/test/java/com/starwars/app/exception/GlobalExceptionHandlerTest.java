@@ -106,6 +106,24 @@ class GlobalExceptionHandlerTest {
         assertThat(errorResponse.getTimestamp()).isNotNull();
     }
 
+    @Test
+    void shouldHandleBadRequestException() {
+        BadRequestException exception = new BadRequestException("Unsupported expand field: planets");
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleBadRequest(
+                exception, webRequest);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+
+        ErrorResponse errorResponse = response.getBody();
+        assertThat(errorResponse.getStatus()).isEqualTo(400);
+        assertThat(errorResponse.getError()).isEqualTo("Bad Request");
+        assertThat(errorResponse.getMessage()).isEqualTo("Unsupported expand field: planets");
+        assertThat(errorResponse.getPath()).isEqualTo("/api/test");
+        assertThat(errorResponse.getTimestamp()).isNotNull();
+    }
+
     @Test
     void shouldHandleAccessDeniedException() {
         AccessDeniedException exception = new AccessDeniedException("Access denied");
@@ -0,0 +1,124 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.ChangeFeed;
+import com.starwars.app.dto.EntityChange;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.query.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeFeedServiceTest {
+
+    private static final String LUKE_URL = "https://www.swapi.tech/api/people/1";
+    private static final String LEIA_URL = "https://www.swapi.tech/api/people/5";
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService();
+        ReflectionTestUtils.setField(changeFeedService, "maxLimit", 10);
+        ReflectionTestUtils.setField(changeFeedService, "maxWaitSeconds", 30L);
+    }
+
+    @Test
+    void shouldReturnOnlyEntitiesChangedSinceToken() {
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+        refresh(LEIA_URL, "Leia Organa", "2014-12-10");
+        ChangeFeed initial = changeFeedService.changes(null, 10);
+
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-20");
+        ChangeFeed incremental = changeFeedService.changes(initial.getToken(), 10);
+
+        assertThat(initial.getChanges()).extracting(EntityChange::getUid).containsExactly("1", "5");
+        assertThat(incremental.getChanges()).hasSize(1);
+        assertThat(incremental.getChanges().get(0).getEdited()).isEqualTo("2014-12-20");
+        assertThat(changeFeedService.changes(incremental.getToken(), 10).getChanges()).isEmpty();
+        assertThat(changeFeedService.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldPageThroughChangesWithLimit() {
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+        refresh(LEIA_URL, "Leia Organa", "2014-12-10");
+
+        ChangeFeed first = changeFeedService.changes(null, 1);
+        ChangeFeed second = changeFeedService.changes(first.getToken(), 1);
+
+        assertThat(first.isMore()).isTrue();
+        assertThat(second.getChanges()).extracting(EntityChange::getUid).containsExactly("5");
+        assertThat(second.isMore()).isFalse();
+    }
+
+    @Test
+    void shouldAskForResyncWhenTokenIsFromAnotherEpoch() {
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+
+        ChangeFeed feed = changeFeedService.changes(new Cursor(1L, "42").encode(), 10);
+
+        assertThat(feed.isReset()).isTrue();
+        assertThat(feed.getChanges()).hasSize(1);
+    }
+
+    @Test
+    void shouldIgnoreRepublishedEntitiesWithSameEdited() {
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+        ChangeFeed initial = changeFeedService.changes(null, 10);
+
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+        ChangeFeed incremental = changeFeedService.changes(initial.getToken(), 10);
+
+        assertThat(incremental.getChanges()).isEmpty();
+        assertThat(incremental.getToken()).isEqualTo(initial.getToken());
+        assertThat(changeFeedService.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReportFirstSightingsToTokenHolders() {
+        refresh(LUKE_URL, "Luke Skywalker", "2014-12-09");
+        String token = changeFeedService.changes(null, 10).getToken();
+        DeferredResult<ChangeFeed> result = changeFeedService.poll(token, 10, 30);
+
+        refresh(LEIA_URL, "Leia Organa", "2014-12-10");
+        ChangeFeed incremental = changeFeedService.changes(token, 10);
+
+        assertThat(result.hasResult()).isFalse();
+        assertThat(incremental.getChanges()).isEmpty();
+        assertThat(changeFeedService.changes(incremental.getToken(), 10).getChanges()).isEmpty();
+        assertThat(changeFeedService.changes(null, 10).getChanges()).extracting(EntityChange::getUid).containsExactly("1", "5");
+    }
+
+    @Test
+    void shouldCompleteLongPollOnNextChange() {
+        refresh(LEIA_URL, "Leia Organa", "2014-12-10");
+        String token = changeFeedService.changes(null, 10).getToken();
+
+        DeferredResult<ChangeFeed> result = changeFeedService.poll(token, 10, 30);
+        assertThat(result.hasResult()).isFalse();
+
+        refresh(LEIA_URL, "Leia Organa", "2014-12-20");
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ChangeFeed) result.getResult()).getChanges()).extracting(EntityChange::getUid).containsExactly("5");
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> changeFeedService.changes(null, 11)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> changeFeedService.changes("not-a-token!", 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> changeFeedService.poll(null, 10, 31)).isInstanceOf(BadRequestException.class);
+    }
+
+    private void refresh(String url, String name, String edited) {
+        PersonDetailResponse.PersonProperties properties = new PersonDetailResponse.PersonProperties();
+        properties.setName(name);
+        properties.setEdited(edited);
+        changeFeedService.onEntityRefreshed(new SwapiEntityRefreshedEvent(SwapiResource.PEOPLE, url, properties, edited));
+    }
+}
@@ -0,0 +1,174 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.BatchResponse;
+import com.starwars.app.dto.ExpandedResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpansionServiceTest {
+
+    private static final String LUKE_URL = "https://www.swapi.tech/api/people/1";
+    private static final String LEIA_URL = "https://www.swapi.tech/api/people/5";
+
+    @Mock
+    private ReferenceResolver referenceResolver;
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    private ExpansionService expansionService;
+
+    @BeforeEach
+    void setUp() {
+        expansionService = new ExpansionService(new SwapiDataLoader(referenceResolver), swapiClient, referenceResolver);
+        ReflectionTestUtils.setField(expansionService, "maxBatchIds", 3);
+    }
+
+    @Test
+    void shouldParseExpandParameter() {
+        assertThat(ExpansionService.parseExpand("characters, starships,,")).containsExactly("characters", "starships");
+        assertThat(ExpansionService.parseExpand(null)).isEmpty();
+        assertThat(ExpansionService.parseIds("1,2,2")).containsExactly("1", "2");
+    }
+
+    @Test
+    void shouldExpandRequestedRelationsAndFlagUnresolved() {
+        Map<String, List<String>> relations = new LinkedHashMap<>();
+        relations.put("characters", Arrays.asList(LUKE_URL, LEIA_URL));
+        relations.put("starships", Collections.emptyList());
+
+        Map<String, Object> resolved = new HashMap<>();
+        resolved.put(LUKE_URL, "luke");
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(resolved, set(LEIA_URL)));
+
+        ExpandedResponse<String> response = expansionService.expand("film", relations, set("characters"));
+
+        assertThat(response.getProperties()).isEqualTo("film");
+        assertThat(response.isPartial()).isTrue();
+        assertThat(response.getExpanded()).containsOnlyKeys("characters");
+        assertThat(response.getExpanded().get("characters")).hasSize(2);
+        assertThat(response.getExpanded().get("characters").get(0).isResolved()).isTrue();
+        assertThat(response.getExpanded().get("characters").get(0).getUid()).isEqualTo("1");
+        assertThat(response.getExpanded().get("characters").get(1).isResolved()).isFalse();
+        assertThat(response.getExpanded().get("characters").get(1).getProperties()).isNull();
+    }
+
+    @Test
+    void shouldExpandSeveralItemsWithSingleResolutionPass() {
+        Map<String, List<String>> first = Collections.singletonMap("characters", Arrays.asList(LUKE_URL, LEIA_URL));
+        Map<String, List<String>> second = Collections.singletonMap("characters", Collections.singletonList(LUKE_URL));
+
+        Map<String, Object> resolved = new HashMap<>();
+        resolved.put(LUKE_URL, "luke");
+        resolved.put(LEIA_URL, "leia");
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(resolved, Collections.emptySet()));
+
+        List<ExpandedResponse<String>> responses = expansionService.expandAll(
+                Arrays.asList("a-new-hope", "empire"),
+                film -> film.equals("a-new-hope") ? first : second,
+                set("characters"));
+
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(1).getExpanded().get("characters").get(0).getProperties()).isEqualTo("luke");
+        assertThat(responses).noneMatch(ExpandedResponse::isPartial);
+    }
+
+    @Test
+    void shouldRejectUnsupportedExpandFields() {
+        Map<String, List<String>> relations = new LinkedHashMap<>();
+        relations.put("characters", Collections.emptyList());
+
+        assertThatThrownBy(() -> expansionService.expand("film", relations, set("planets")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("planets");
+    }
+
+    @Test
+    void shouldResolveBatchOfIdsAndReportMissing() {
+        PersonDetailResponse.PersonProperties luke = new PersonDetailResponse.PersonProperties();
+        luke.setName("Luke Skywalker");
+        when(swapiClient.resourceUrl("people", "1")).thenReturn(LUKE_URL);
+        when(swapiClient.resourceUrl("people", "5")).thenReturn(LEIA_URL);
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(Collections.singletonMap(LUKE_URL, luke), set(LEIA_URL)));
+
+        BatchResponse<PersonDetailResponse.PersonProperties> response = expansionService.batch(
+                SwapiResource.PEOPLE, set("1", "5"), PersonDetailResponse.PersonProperties.class);
+
+        assertThat(response.getResults()).containsExactly(luke);
+        assertThat(response.getMissing()).containsExactly("5");
+        assertThat(response.isPartial()).isTrue();
+    }
+
+    @Test
+    void shouldRejectBatchesAboveTheConfiguredLimit() {
+        assertThatThrownBy(() -> expansionService.batch(
+                SwapiResource.PEOPLE, set("1", "2", "3", "4"), PersonDetailResponse.PersonProperties.class))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldStreamBatchThroughTheResolverWithoutTheRequestLoader() {
+        when(swapiClient.resourceUrl("people", "1")).thenReturn(LUKE_URL);
+        when(swapiClient.resourceUrl("people", "5")).thenReturn(LEIA_URL);
+        when(referenceResolver.deadlineFromNow()).thenReturn(Long.MAX_VALUE);
+        when(referenceResolver.resolveEach(anyCollection(), anyLong(), any())).thenAnswer(invocation -> {
+            BiConsumer<String, Object> onResolved = invocation.getArgument(2);
+            onResolved.accept(LUKE_URL, "luke");
+            return CompletableFuture.completedFuture(
+                    new ResolutionResult(Collections.singletonMap(LUKE_URL, "luke"), set(LEIA_URL)));
+        });
+
+        SseEmitter emitter = expansionService.streamBatch(SwapiResource.PEOPLE, set("1", "5"));
+
+        assertThat(emitter).isNotNull();
+        verify(referenceResolver).resolveEach(eq(Arrays.asList(LUKE_URL, LEIA_URL)), eq(Long.MAX_VALUE), any());
+        verify(referenceResolver, never()).resolveAll(anyCollection(), anyLong());
+    }
+
+    @Test
+    void shouldValidateStreamRequestsBeforeOpeningTheStream() {
+        Map<String, List<String>> relations = Collections.singletonMap("films", Collections.emptyList());
+
+        assertThatThrownBy(() -> expansionService.streamExpand("luke", relations, set("planets")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> expansionService.streamBatch(SwapiResource.PEOPLE, set()))
+                .isInstanceOf(BadRequestException.class);
+        verify(referenceResolver, never()).resolveEach(anyCollection(), anyLong(), any());
+    }
+
+    private Set<String> set(String... values) {
+        return new LinkedHashSet<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,82 @@
+package com.starwars.app.service.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.starwars.app.dto.swapi.VehicleDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private SwapiDatasetService datasetService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(datasetService, objectMapper);
+        ReflectionTestUtils.setField(exportService, "flushEvery", 1);
+        lenient().when(datasetService.snapshot(SwapiResource.VEHICLES)).thenReturn(new ResourceSnapshot(
+                SwapiResource.VEHICLES, 1L, Arrays.asList("4", "6"),
+                Arrays.asList(vehicle("Sand Crawler", "Corellia Mining Corporation"),
+                        vehicle("T-16 \"skyhopper\"", "Incom, Corporation")),
+                System.currentTimeMillis()));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(SwapiResource.VEHICLES, ExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("uid").asText()).isEqualTo("4");
+        assertThat(first.get("name").asText()).isEqualTo("Sand Crawler");
+        assertThat(objectMapper.readTree(lines[1]).get("manufacturer").asText()).isEqualTo("Incom, Corporation");
+    }
+
+    @Test
+    void shouldWriteCsvWithHeaderAndEscapedValues() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(SwapiResource.VEHICLES, ExportService.Format.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8.name()).split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("uid,").contains("name").contains("manufacturer");
+        assertThat(lines[2]).startsWith("6,").contains("\"T-16 \"\"skyhopper\"\"\"").contains("\"Incom, Corporation\"");
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> ExportService.Format.parse("xml"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported export format");
+    }
+
+    private static VehicleDetailResponse.VehicleProperties vehicle(String name, String manufacturer) {
+        VehicleDetailResponse.VehicleProperties properties = new VehicleDetailResponse.VehicleProperties();
+        properties.setName(name);
+        properties.setManufacturer(manufacturer);
+        return properties;
+    }
+}
@@ -1,20 +1,27 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.CursorPage;
 import com.starwars.app.dto.swapi.FilmDTO;
 import com.starwars.app.dto.swapi.FilmDetailResponse;
 import com.starwars.app.dto.swapi.FilmsListResponse;
+import com.starwars.app.exception.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -24,7 +31,12 @@ class FilmServiceTest {
     @Mock
     private SwapiClientService swapiClient;
 
-    @InjectMocks
+    @Mock
+    private ExpansionService expansionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private FilmService filmService;
 
     private FilmsListResponse mockFilmsListResponse;
@@ -32,6 +44,14 @@ class FilmServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "https://www.swapi.tech/api/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        SwapiEntityStore entityStore = new SwapiEntityStore(swapiClient, new UrlCanonicalizer(), eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+        filmService = new FilmService(swapiClient, expansionService, entityStore);
+        ReflectionTestUtils.setField(filmService, "ttlSeconds", 3600L);
+
         FilmDTO film1 = new FilmDTO();
         film1.setUid("1");
         film1.setProperties(createFilmDTOProperties("A New Hope", 4, "1977-05-25"));
@@ -77,41 +97,87 @@ class FilmServiceTest {
 
     @Test
     void shouldGetFilmsSuccessfully() {
-        int page = 1;
-        int limit = 10;
-        String expectedUrl = "films?page=" + page + "&limit=" + limit;
-
-        when(swapiClient.getById("", expectedUrl, FilmsListResponse.class))
+        when(swapiClient.getCollection("films", FilmsListResponse.class))
                 .thenReturn(Optional.of(mockFilmsListResponse));
 
-        FilmsListResponse result = filmService.getFilms(page, limit);
+        FilmsListResponse result = filmService.getFilms(1, 10);
 
         assertThat(result).isNotNull();
         assertThat(result.getMessage()).isEqualTo("ok");
+        assertThat(result.getApiVersion()).isEqualTo("1.0");
         assertThat(result.getResult()).hasSize(2);
         assertThat(result.getResult().get(0).getProperties().getTitle()).isEqualTo("A New Hope");
         assertThat(result.getResult().get(1).getProperties().getTitle()).isEqualTo("The Empire Strikes Back");
         assertThat(result.getResult().get(0).getUid()).isEqualTo("1");
         assertThat(result.getResult().get(1).getUid()).isEqualTo("2");
+    }
+
+    @Test
+    void shouldPaginateSortedCollectionLocally() {
+        FilmDTO phantomMenace = new FilmDTO();
+        phantomMenace.setUid("4");
+        phantomMenace.setProperties(createFilmDTOProperties("The Phantom Menace", 1, "1999-05-19"));
+        mockFilmsListResponse.setResult(Arrays.asList(mockFilmsListResponse.getResult().get(1),
+                phantomMenace, mockFilmsListResponse.getResult().get(0)));
+        when(swapiClient.getCollection("films", FilmsListResponse.class))
+                .thenReturn(Optional.of(mockFilmsListResponse));
 
-        verify(swapiClient).getById("", expectedUrl, FilmsListResponse.class);
+        FilmsListResponse first = filmService.getFilms(1, 2);
+        FilmsListResponse second = filmService.getFilms(2, 2);
+        FilmsListResponse beyond = filmService.getFilms(3, 2);
+
+        assertThat(first.getResult()).extracting(FilmDTO::getUid).containsExactly("4", "1");
+        assertThat(second.getResult()).extracting(FilmDTO::getUid).containsExactly("2");
+        assertThat(beyond.getResult()).isEmpty();
+        verify(swapiClient, times(1)).getCollection("films", FilmsListResponse.class);
     }
 
     @Test
-    void shouldReturnEmptyFilmsListWhenNotFound() {
-        int page = 99;
-        int limit = 10;
-        String expectedUrl = "films?page=" + page + "&limit=" + limit;
+    void shouldPageFilmsByCursorInUidOrder() {
+        FilmDTO phantomMenace = new FilmDTO();
+        phantomMenace.setUid("4");
+        phantomMenace.setProperties(createFilmDTOProperties("The Phantom Menace", 1, "1999-05-19"));
+        mockFilmsListResponse.setResult(Arrays.asList(phantomMenace,
+                mockFilmsListResponse.getResult().get(1), mockFilmsListResponse.getResult().get(0)));
+        when(swapiClient.getCollection("films", FilmsListResponse.class))
+                .thenReturn(Optional.of(mockFilmsListResponse));
+
+        CursorPage<FilmDTO> first = filmService.getFilmsAfter(null, 2);
+        CursorPage<FilmDTO> second = filmService.getFilmsAfter(first.getNextCursor(), 2);
+
+        assertThat(first.getResults()).extracting(FilmDTO::getUid).containsExactly("1", "2");
+        assertThat(second.getResults()).extracting(FilmDTO::getUid).containsExactly("4");
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+    }
 
-        when(swapiClient.getById("", expectedUrl, FilmsListResponse.class))
+    @Test
+    void shouldReturnEmptyFilmsListWhenCollectionUnavailable() {
+        when(swapiClient.getCollection("films", FilmsListResponse.class))
                 .thenReturn(Optional.empty());
 
-        FilmsListResponse result = filmService.getFilms(page, limit);
+        FilmsListResponse result = filmService.getFilms(1, 10);
 
         assertThat(result).isNotNull();
-        assertThat(result).isInstanceOf(FilmsListResponse.class);
+        assertThat(result.getResult()).isNull();
+    }
 
-        verify(swapiClient).getById("", expectedUrl, FilmsListResponse.class);
+    @Test
+    void shouldRejectPageOrLimitBelowOne() {
+        assertThatThrownBy(() -> filmService.getFilms(0, 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> filmService.getFilms(1, -5)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldServeStaleCollectionWhenRefreshFails() {
+        when(swapiClient.getCollection("films", FilmsListResponse.class))
+                .thenReturn(Optional.of(mockFilmsListResponse), Optional.empty());
+
+        filmService.getFilms(1, 10);
+        ReflectionTestUtils.setField(filmService, "ttlSeconds", -1L);
+
+        assertThat(filmService.getFilms(1, 10).getResult()).hasSize(2);
+        verify(swapiClient, times(2)).getCollection("films", FilmsListResponse.class);
     }
 
     @Test
@@ -146,41 +212,6 @@ class FilmServiceTest {
         verify(swapiClient).getById("films", filmId, FilmDetailResponse.class);
     }
 
-    @Test
-    void shouldConstructCorrectUrlForGetFilms() {
-        int page = 3;
-        int limit = 5;
-        String expectedUrl = "films?page=3&limit=5";
-
-        when(swapiClient.getById("", expectedUrl, FilmsListResponse.class))
-                .thenReturn(Optional.of(mockFilmsListResponse));
-
-        filmService.getFilms(page, limit);
-
-        verify(swapiClient).getById("", expectedUrl, FilmsListResponse.class);
-    }
-
-    @Test
-    void shouldHandleEmptyFilmsListResponse() {
-        int page = 1;
-        int limit = 10;
-        String expectedUrl = "films?page=" + page + "&limit=" + limit;
-
-        FilmsListResponse emptyResponse = new FilmsListResponse();
-        emptyResponse.setMessage("ok");
-        emptyResponse.setResult(Arrays.asList());
-
-        when(swapiClient.getById("", expectedUrl, FilmsListResponse.class))
-                .thenReturn(Optional.of(emptyResponse));
-
-        FilmsListResponse result = filmService.getFilms(page, limit);
-
-        assertThat(result).isNotNull();
-        assertThat(result.getResult()).isEmpty();
-
-        verify(swapiClient).getById("", expectedUrl, FilmsListResponse.class);
-    }
-
     @Test
     void shouldUseCorrectEndpointForGetFilmById() {
         String filmId = "4";
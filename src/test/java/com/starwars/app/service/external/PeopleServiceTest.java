@@ -1,21 +1,27 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.ExpandedResponse;
 import com.starwars.app.dto.swapi.PersonDTO;
 import com.starwars.app.dto.swapi.PersonDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.query.ListQueryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +31,18 @@ class PeopleServiceTest {
     @Mock
     private SwapiClientService swapiClient;
 
-    @InjectMocks
+    @Mock
+    private ExpansionService expansionService;
+
+    @Mock
+    private SwapiPageStore pageStore;
+
+    @Mock
+    private ListQueryService listQueryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private PeopleService peopleService;
 
     private SwapiResponse<PersonDTO> mockPeopleResponse;
@@ -33,6 +50,13 @@ class PeopleServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "https://www.swapi.tech/api/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        SwapiEntityStore entityStore = new SwapiEntityStore(swapiClient, new UrlCanonicalizer(), eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+        peopleService = new PeopleService(swapiClient, expansionService, entityStore, pageStore, listQueryService);
+
         PersonDTO person1 = new PersonDTO("1", "Luke Skywalker", "https://www.swapi.tech/api/people/1");
         PersonDTO person2 = new PersonDTO("2", "C-3PO", "https://www.swapi.tech/api/people/2");
 
@@ -61,7 +85,7 @@ class PeopleServiceTest {
     void shouldGetPeopleSuccessfully() {
         int page = 1;
         int limit = 10;
-        when(swapiClient.getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(mockPeopleResponse);
 
         SwapiResponse<PersonDTO> result = peopleService.getPeople(page, limit);
@@ -72,7 +96,7 @@ class PeopleServiceTest {
         assertThat(result.getResults().get(0).getName()).isEqualTo("Luke Skywalker");
         assertThat(result.getResults().get(1).getName()).isEqualTo("C-3PO");
 
-        verify(swapiClient).getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 
     @Test
@@ -105,6 +129,27 @@ class PeopleServiceTest {
     }
 
 
+    @Test
+    void shouldExpandPersonRelations() {
+        String personId = "1";
+        PersonDetailResponse.PersonProperties properties = mockPersonDetailResponse.getResult().getProperties();
+        properties.setFilms(Arrays.asList("https://www.swapi.tech/api/films/1"));
+        ExpandedResponse<PersonDetailResponse.PersonProperties> expanded =
+                new ExpandedResponse<>(properties, Collections.emptyMap(), false);
+        Set<String> expand = Collections.singleton("films");
+
+        when(swapiClient.getById("people", personId, PersonDetailResponse.class))
+                .thenReturn(Optional.of(mockPersonDetailResponse));
+        when(expansionService.expand(eq(properties), anyMap(), eq(expand))).thenReturn(expanded);
+
+        Optional<ExpandedResponse<PersonDetailResponse.PersonProperties>> result =
+                peopleService.getPersonExpanded(personId, expand);
+
+        assertThat(result).contains(expanded);
+        assertThat(SwapiResource.relationsOf(properties)).containsOnlyKeys("films", "starships", "vehicles");
+    }
+
+
     @Test
     void shouldHandleEmptyPeopleResponse() {
         int page = 99;
@@ -113,7 +158,7 @@ class PeopleServiceTest {
         emptyResponse.setMessage("ok");
         emptyResponse.setResults(Arrays.asList());
 
-        when(swapiClient.getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(emptyResponse);
 
         SwapiResponse<PersonDTO> result = peopleService.getPeople(page, limit);
@@ -121,6 +166,6 @@ class PeopleServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getResults()).isEmpty();
 
-        verify(swapiClient).getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("people"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceResolverTest {
+
+    private static final String LUKE_URL = "https://www.swapi.tech/api/people/1";
+    private static final String FALCON_URL = "https://www.swapi.tech/api/starships/10";
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExecutorService executor;
+    private ReferenceResolver referenceResolver;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        SwapiEntityStore entityStore = new SwapiEntityStore(swapiClient, new UrlCanonicalizer(), eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+        referenceResolver = new ReferenceResolver(entityStore, executor);
+        ReflectionTestUtils.setField(referenceResolver, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(referenceResolver, "deadlineMs", 2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldResolveReferencesOfDifferentResources() {
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class))
+                .thenReturn(Optional.of(person("Luke Skywalker")));
+        when(swapiClient.getById("starships", "10", StarshipDetailResponse.class))
+                .thenReturn(Optional.of(starship("Millennium Falcon")));
+
+        ResolutionResult result = referenceResolver.resolveAll(Arrays.asList(LUKE_URL, FALCON_URL));
+
+        assertThat(result.isPartial()).isFalse();
+        assertThat(((PersonDetailResponse.PersonProperties) result.getResolved().get(LUKE_URL)).getName())
+                .isEqualTo("Luke Skywalker");
+        assertThat(((StarshipDetailResponse.StarshipProperties) result.getResolved().get(FALCON_URL)).getName())
+                .isEqualTo("Millennium Falcon");
+    }
+
+    @Test
+    void shouldDeduplicateAndCacheReferences() {
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class))
+                .thenReturn(Optional.of(person("Luke Skywalker")));
+
+        referenceResolver.resolveAll(Arrays.asList(LUKE_URL, LUKE_URL, LUKE_URL));
+        ResolutionResult second = referenceResolver.resolveAll(Arrays.asList(LUKE_URL));
+
+        assertThat(second.getResolved()).containsKey(LUKE_URL);
+        verify(swapiClient, times(1)).getById("people", "1", PersonDetailResponse.class);
+    }
+
+    @Test
+    void shouldFlagReferencesThatCouldNotBeResolved() {
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class))
+                .thenReturn(Optional.empty());
+
+        ResolutionResult result = referenceResolver.resolveAll(Arrays.asList(LUKE_URL));
+
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUnresolved()).containsExactly(LUKE_URL);
+    }
+
+    @Test
+    void shouldReturnPartialResultWhenDeadlineIsReached() {
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class)).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return Optional.of(person("Luke Skywalker"));
+        });
+
+        ResolutionResult result = referenceResolver.resolveAll(
+                Arrays.asList(LUKE_URL),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getResolved()).isEmpty();
+    }
+
+    @Test
+    void shouldEmitEachReferenceAsSoonAsItResolves() {
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class))
+                .thenReturn(Optional.of(person("Luke Skywalker")));
+        when(swapiClient.getById("starships", "10", StarshipDetailResponse.class)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(starship("Millennium Falcon"));
+        });
+        List<String> emitted = new CopyOnWriteArrayList<>();
+
+        ResolutionResult result = referenceResolver.resolveEach(Arrays.asList(FALCON_URL, LUKE_URL),
+                referenceResolver.deadlineFromNow(), (url, properties) -> emitted.add(url)).join();
+
+        assertThat(emitted).containsExactly(LUKE_URL, FALCON_URL);
+        assertThat(result.isPartial()).isFalse();
+        assertThat(result.getResolved()).containsOnlyKeys(LUKE_URL, FALCON_URL);
+    }
+
+    @Test
+    void shouldIgnoreUrlsOfUnknownResources() {
+        ResolutionResult result = referenceResolver.resolveAll(
+                Arrays.asList("https://www.swapi.tech/api/planets/1"));
+
+        assertThat(result.getUnresolved()).hasSize(1);
+        verify(swapiClient, never()).getById(anyString(), anyString(), any());
+    }
+
+    private PersonDetailResponse person(String name) {
+        PersonDetailResponse.PersonProperties properties = new PersonDetailResponse.PersonProperties();
+        properties.setName(name);
+        PersonDetailResponse.PersonResult result = new PersonDetailResponse.PersonResult();
+        result.setProperties(properties);
+        return new PersonDetailResponse("ok", result);
+    }
+
+    private StarshipDetailResponse starship(String name) {
+        StarshipDetailResponse.StarshipProperties properties = new StarshipDetailResponse.StarshipProperties();
+        properties.setName(name);
+        StarshipDetailResponse.StarshipResult result = new StarshipDetailResponse.StarshipResult();
+        result.setProperties(properties);
+        return new StarshipDetailResponse("ok", result);
+    }
+}
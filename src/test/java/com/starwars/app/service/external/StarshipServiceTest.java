@@ -3,19 +3,22 @@ package com.starwars.app.service.external;
 import com.starwars.app.dto.swapi.StarshipDTO;
 import com.starwars.app.dto.swapi.StarshipDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.query.ListQueryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +28,18 @@ class StarshipServiceTest {
     @Mock
     private SwapiClientService swapiClient;
 
-    @InjectMocks
+    @Mock
+    private ExpansionService expansionService;
+
+    @Mock
+    private SwapiPageStore pageStore;
+
+    @Mock
+    private ListQueryService listQueryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private StarshipService starshipService;
 
     private SwapiResponse<StarshipDTO> mockStarshipsResponse;
@@ -33,6 +47,13 @@ class StarshipServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "https://www.swapi.tech/api/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        SwapiEntityStore entityStore = new SwapiEntityStore(swapiClient, new UrlCanonicalizer(), eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+        starshipService = new StarshipService(swapiClient, expansionService, entityStore, pageStore, listQueryService);
+
         StarshipDTO starship1 = new StarshipDTO("1", "Death Star", "https://www.swapi.tech/api/starships/1");
         StarshipDTO starship2 = new StarshipDTO("2", "Millennium Falcon", "https://www.swapi.tech/api/starships/2");
 
@@ -61,7 +82,7 @@ class StarshipServiceTest {
     void shouldGetStarshipsSuccessfully() {
         int page = 1;
         int limit = 10;
-        when(swapiClient.getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(mockStarshipsResponse);
 
         SwapiResponse<StarshipDTO> result = starshipService.getStarships(page, limit);
@@ -72,7 +93,7 @@ class StarshipServiceTest {
         assertThat(result.getResults().get(0).getName()).isEqualTo("Death Star");
         assertThat(result.getResults().get(1).getName()).isEqualTo("Millennium Falcon");
 
-        verify(swapiClient).getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 
     @Test
@@ -112,7 +133,7 @@ class StarshipServiceTest {
         emptyResponse.setMessage("ok");
         emptyResponse.setResults(Arrays.asList());
 
-        when(swapiClient.getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(emptyResponse);
 
         SwapiResponse<StarshipDTO> result = starshipService.getStarships(page, limit);
@@ -120,6 +141,6 @@ class StarshipServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getResults()).isEmpty();
 
-        verify(swapiClient).getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("starships"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.starwars.app.service.external;
 
+import com.starwars.app.dto.swapi.FilmsListResponse;
 import com.starwars.app.dto.swapi.PersonDTO;
 import com.starwars.app.dto.swapi.PersonDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
@@ -281,4 +282,26 @@ class SwapiClientServiceTest {
 
         verify(restTemplate).getForEntity(expectedUrl, PersonDetailResponse.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetCollectionSuccessfully() {
+        String expectedUrl = baseUrl + "/films";
+        FilmsListResponse mockResponse = new FilmsListResponse();
+        mockResponse.setMessage("ok");
+
+        when(restTemplate.getForEntity(expectedUrl, FilmsListResponse.class))
+                .thenReturn(ResponseEntity.ok(mockResponse));
+
+        Optional<FilmsListResponse> response = swapiClientService.getCollection("films", FilmsListResponse.class);
+
+        assertThat(response).containsSame(mockResponse);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenGetCollectionFails() {
+        when(restTemplate.getForEntity(baseUrl + "/films", FilmsListResponse.class))
+                .thenThrow(new RestClientException("Connection failed"));
+
+        assertThat(swapiClientService.getCollection("films", FilmsListResponse.class)).isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.starwars.app.service.external;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SwapiDataLoaderTest {
+
+    private static final String LUKE_URL = "https://www.swapi.tech/api/people/1";
+    private static final String LEIA_URL = "https://www.swapi.tech/api/people/5";
+    private static final String FALCON_URL = "https://www.swapi.tech/api/starships/10";
+
+    @Mock
+    private ReferenceResolver referenceResolver;
+
+    private SwapiDataLoader dataLoader;
+
+    @BeforeEach
+    void setUp() {
+        dataLoader = new SwapiDataLoader(referenceResolver);
+    }
+
+    @Test
+    void shouldDispatchOneDeduplicatedBatchPerResourceType() {
+        Map<String, Object> people = new HashMap<>();
+        people.put(LUKE_URL, "luke");
+        people.put(LEIA_URL, "leia");
+        when(referenceResolver.deadlineFromNow()).thenReturn(Long.MAX_VALUE);
+        when(referenceResolver.resolveAll(anyCollection(), eq(Long.MAX_VALUE))).thenAnswer(invocation -> {
+            Collection<String> urls = invocation.getArgument(0);
+            return urls.contains(FALCON_URL)
+                    ? new ResolutionResult(Collections.singletonMap(FALCON_URL, "falcon"), Collections.emptySet())
+                    : new ResolutionResult(people, Collections.emptySet());
+        });
+
+        dataLoader.load(Arrays.asList(LUKE_URL, LEIA_URL, FALCON_URL));
+        dataLoader.load(Arrays.asList(LUKE_URL, LEIA_URL));
+        dataLoader.dispatch();
+
+        assertThat(dataLoader.get(LUKE_URL)).contains("luke");
+        assertThat(dataLoader.get(FALCON_URL)).contains("falcon");
+        verify(referenceResolver).resolveAll(argThat((Collection<String> urls) -> urls.size() == 2), anyLong());
+        verify(referenceResolver).resolveAll(argThat((Collection<String> urls) -> urls.size() == 1), anyLong());
+    }
+
+    @Test
+    void shouldMemoizeResultsForTheLifeOfTheLoader() {
+        when(referenceResolver.deadlineFromNow()).thenReturn(Long.MAX_VALUE);
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(Collections.singletonMap(LUKE_URL, "luke"), Collections.emptySet()));
+
+        dataLoader.load(Collections.singletonList(LUKE_URL));
+        dataLoader.dispatch();
+        dataLoader.load(Collections.singletonList(LUKE_URL));
+        dataLoader.dispatch();
+
+        verify(referenceResolver, times(1)).resolveAll(anyCollection(), anyLong());
+    }
+
+    @Test
+    void shouldNotDispatchUnsupportedUrls() {
+        dataLoader.load(Collections.singletonList("https://www.swapi.tech/api/planets/1"));
+        dataLoader.dispatch();
+
+        assertThat(dataLoader.get("https://www.swapi.tech/api/planets/1")).isEmpty();
+        verify(referenceResolver, never()).resolveAll(anyCollection(), anyLong());
+    }
+}
@@ -0,0 +1,195 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.FilmDTO;
+import com.starwars.app.dto.swapi.FilmsListResponse;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SwapiDatasetServiceTest {
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    @Mock
+    private ReferenceResolver referenceResolver;
+
+    @Mock
+    private ExecutorService datasetExecutor;
+
+    private SwapiDatasetService datasetService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> BASE + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(datasetExecutor).execute(any());
+        datasetService = new SwapiDatasetService(swapiClient, referenceResolver, datasetExecutor);
+        ReflectionTestUtils.setField(datasetService, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(datasetService, "deadlineMs", 1000L);
+        ReflectionTestUtils.setField(datasetService, "retrySeconds", 30L);
+        ReflectionTestUtils.setField(datasetService, "coldWaitMs", 1000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPageThroughUpstreamAndSortByUid() {
+        when(swapiClient.getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(page("next", "10", "2"));
+        when(swapiClient.getPage(eq("people"), eq(2), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(page(null, "1"));
+        when(referenceResolver.resolveAll(anyCollection(), anyLong())).thenAnswer(invocation -> {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            for (Object url : (Iterable<?>) invocation.getArgument(0)) {
+                resolved.put((String) url, "props-" + SwapiResource.idFromUrl((String) url));
+            }
+            return new ResolutionResult(resolved, new LinkedHashSet<>());
+        });
+
+        ResourceSnapshot snapshot = datasetService.snapshot(SwapiResource.PEOPLE);
+
+        assertThat(snapshot.getUids()).containsExactly("1", "2", "10");
+        assertThat(snapshot.get(2, String.class)).isEqualTo("props-10");
+        assertThat(snapshot.getVersion()).isEqualTo(1L);
+        assertThat(datasetService.snapshot(SwapiResource.PEOPLE)).isSameAs(snapshot);
+        verify(referenceResolver, times(1)).resolveAll(anyCollection(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldListFilmsFromCollectionEndpoint() {
+        FilmDTO film = new FilmDTO();
+        film.setUid("4");
+        FilmsListResponse films = new FilmsListResponse();
+        films.setResult(Collections.singletonList(film));
+        when(swapiClient.getCollection("films", FilmsListResponse.class)).thenReturn(Optional.of(films));
+        when(referenceResolver.resolveAll(eq(Collections.singletonList(BASE + "films/4")), anyLong()))
+                .thenReturn(new ResolutionResult(Collections.singletonMap(BASE + "films/4", "episode-1"), new LinkedHashSet<>()));
+
+        ResourceSnapshot snapshot = datasetService.snapshot(SwapiResource.FILMS);
+
+        assertThat(snapshot.getUids()).containsExactly("4");
+        verify(swapiClient, never()).getPage(anyString(), anyInt(), anyInt(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepPreviousSnapshotWhenRefreshResolvesNothing() {
+        when(swapiClient.getPage(eq("starships"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(page(null, "9"));
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(Collections.singletonMap(BASE + "starships/9", "star-destroyer"), new LinkedHashSet<>()))
+                .thenReturn(new ResolutionResult(new HashMap<>(), new LinkedHashSet<>(Arrays.asList(BASE + "starships/9"))));
+
+        ResourceSnapshot first = datasetService.refresh(SwapiResource.STARSHIPS);
+        ReflectionTestUtils.setField(datasetService, "ttlSeconds", -1L);
+        ResourceSnapshot second = datasetService.refresh(SwapiResource.STARSHIPS);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotPublishEmptyFirstLoadAndBackOffBeforeRetrying() {
+        when(swapiClient.getPage(eq("vehicles"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(page(null, "4"));
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(new HashMap<>(), new LinkedHashSet<>(Arrays.asList(BASE + "vehicles/4"))));
+
+        ResourceSnapshot first = datasetService.snapshot(SwapiResource.VEHICLES);
+        ResourceSnapshot second = datasetService.snapshot(SwapiResource.VEHICLES);
+
+        assertThat(first.size()).isZero();
+        assertThat(first.getVersion()).isZero();
+        assertThat(second.size()).isZero();
+        verify(referenceResolver, times(1)).resolveAll(anyCollection(), anyLong());
+
+        ReflectionTestUtils.setField(datasetService, "retrySeconds", -1L);
+        datasetService.snapshot(SwapiResource.VEHICLES);
+        verify(referenceResolver, times(2)).resolveAll(anyCollection(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRefreshPartialSnapshotsAfterRetryInterval() {
+        when(swapiClient.getPage(eq("vehicles"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(page(null, "4", "6"));
+        when(referenceResolver.resolveAll(anyCollection(), anyLong()))
+                .thenReturn(new ResolutionResult(Collections.singletonMap(BASE + "vehicles/4", "sand-crawler"),
+                        new LinkedHashSet<>(Arrays.asList(BASE + "vehicles/6"))));
+
+        datasetService.snapshot(SwapiResource.VEHICLES);
+        datasetService.snapshot(SwapiResource.VEHICLES);
+        verify(datasetExecutor, times(1)).execute(any());
+
+        ReflectionTestUtils.setField(datasetService, "retrySeconds", -1L);
+        datasetService.snapshot(SwapiResource.VEHICLES);
+        verify(datasetExecutor, times(2)).execute(any());
+    }
+
+    @Test
+    void shouldServeEmptySnapshotWhileColdLoadIsStillRunning() {
+        doNothing().when(datasetExecutor).execute(any());
+        ReflectionTestUtils.setField(datasetService, "coldWaitMs", 10L);
+
+        ResourceSnapshot first = datasetService.snapshot(SwapiResource.PEOPLE);
+        datasetService.prepare(SwapiResource.PEOPLE);
+
+        assertThat(first.size()).isZero();
+        verify(datasetExecutor, times(1)).execute(any());
+        verify(referenceResolver, never()).resolveAll(anyCollection(), anyLong());
+    }
+
+    @Test
+    void shouldSortNonNumericUidsLast() {
+        assertThat(SwapiDatasetService.numericUid("42")).isEqualTo(42L);
+        assertThat(SwapiDatasetService.numericUid("abc")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    private static SwapiResponse<Map<String, Object>> page(String next, String... uids) {
+        SwapiResponse<Map<String, Object>> response = new SwapiResponse<>();
+        response.setNext(next);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String uid : uids) {
+            results.add(Collections.singletonMap("uid", uid));
+        }
+        response.setResults(results);
+        return response;
+    }
+}
@@ -0,0 +1,122 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SwapiEntityStoreTest {
+
+    private static final String LUKE_URL = "https://www.swapi.tech/api/people/1";
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UrlCanonicalizer urlCanonicalizer;
+    private SwapiEntityStore entityStore;
+
+    @BeforeEach
+    void setUp() {
+        urlCanonicalizer = new UrlCanonicalizer();
+        entityStore = new SwapiEntityStore(swapiClient, urlCanonicalizer, eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+    }
+
+    @Test
+    void shouldShareOneInstanceBetweenIdAndUrlLookups() {
+        when(swapiClient.resourceUrl("people", "1")).thenReturn(LUKE_URL);
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class))
+                .thenReturn(Optional.of(person("2014-12-20T21:17:56.891000Z")));
+
+        Optional<PersonDetailResponse> byId = entityStore.find(SwapiResource.PEOPLE, "1", PersonDetailResponse.class);
+        Optional<Object> byUrl = entityStore.findByUrl(LUKE_URL + "/");
+
+        assertThat(byId).isPresent();
+        assertThat(byUrl).containsSame(byId.get());
+        assertThat(entityStore.size()).isEqualTo(1);
+        verify(swapiClient, times(1)).getById("people", "1", PersonDetailResponse.class);
+    }
+
+    @Test
+    void shouldPublishEventOnlyWhenEntityChanges() {
+        entityStore.put(SwapiResource.PEOPLE, LUKE_URL, person("2014-12-20T21:17:56.891000Z"));
+        entityStore.put(SwapiResource.PEOPLE, LUKE_URL, person("2014-12-20T21:17:56.891000Z"));
+        entityStore.put(SwapiResource.PEOPLE, LUKE_URL, person("2024-01-01T00:00:00.000000Z"));
+
+        ArgumentCaptor<SwapiEntityRefreshedEvent> captor = ArgumentCaptor.forClass(SwapiEntityRefreshedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues().get(1).getEdited()).isEqualTo("2024-01-01T00:00:00.000000Z");
+        assertThat(captor.getAllValues().get(1).getResource()).isEqualTo(SwapiResource.PEOPLE);
+    }
+
+    @Test
+    void shouldRefetchExpiredEntriesAndServeStaleOnFailure() {
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", -1L);
+        entityStore.put(SwapiResource.PEOPLE, LUKE_URL, person("2014-12-20T21:17:56.891000Z"));
+        when(swapiClient.getById("people", "1", PersonDetailResponse.class)).thenReturn(Optional.empty());
+
+        assertThat(entityStore.cached(LUKE_URL)).isEmpty();
+        assertThat(entityStore.findByUrl(LUKE_URL)).isPresent();
+        verify(swapiClient).getById("people", "1", PersonDetailResponse.class);
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownResources() {
+        assertThat(entityStore.findByUrl("https://www.swapi.tech/api/planets/1")).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotInternUrlsOfIdsThatWereNeverStored() {
+        when(swapiClient.getById("people", "999", PersonDetailResponse.class)).thenReturn(Optional.empty());
+
+        assertThat(entityStore.find(SwapiResource.PEOPLE, "999", PersonDetailResponse.class)).isEmpty();
+        assertThat(entityStore.cached("https://www.swapi.tech/api/people/998")).isEmpty();
+        assertThat(urlCanonicalizer.size()).isZero();
+        assertThat(entityStore.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntitiesAboveTheBound() {
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 2);
+        entityStore.put(SwapiResource.PEOPLE, LUKE_URL, person("2014-12-20T21:17:56.891000Z"));
+        entityStore.put(SwapiResource.PEOPLE, "https://www.swapi.tech/api/people/2", person("2014-12-20T21:17:56.891000Z"));
+        entityStore.cached(LUKE_URL);
+        entityStore.put(SwapiResource.PEOPLE, "https://www.swapi.tech/api/people/3", person("2014-12-20T21:17:56.891000Z"));
+
+        assertThat(entityStore.size()).isEqualTo(2);
+        assertThat(entityStore.peek(LUKE_URL)).isPresent();
+        assertThat(entityStore.peek("https://www.swapi.tech/api/people/2")).isEmpty();
+    }
+
+    private PersonDetailResponse person(String edited) {
+        PersonDetailResponse.PersonProperties properties = new PersonDetailResponse.PersonProperties();
+        properties.setName("Luke Skywalker");
+        properties.setEdited(edited);
+        properties.setUrl(LUKE_URL);
+        properties.setFilms(Arrays.asList("https://www.swapi.tech/api/films/1"));
+        PersonDetailResponse.PersonResult result = new PersonDetailResponse.PersonResult();
+        result.setProperties(properties);
+        return new PersonDetailResponse("ok", result);
+    }
+}
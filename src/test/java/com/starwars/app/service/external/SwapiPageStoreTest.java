@@ -0,0 +1,226 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.PageCacheStats;
+import com.starwars.app.dto.swapi.PersonDTO;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SwapiPageStoreTest {
+
+    private static final ParameterizedTypeReference<SwapiResponse<PersonDTO>> TYPE =
+            new ParameterizedTypeReference<SwapiResponse<PersonDTO>>() {};
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+
+    private SwapiPageStore pageStore;
+
+    @BeforeEach
+    void setUp() {
+        pageStore = new SwapiPageStore(swapiClient, executor, prefetchExecutor);
+        ReflectionTestUtils.setField(pageStore, "chunkSize", 100);
+        ReflectionTestUtils.setField(pageStore, "maxLimit", 1000);
+        ReflectionTestUtils.setField(pageStore, "ttlSeconds", 3600L);
+        lenient().when(swapiClient.pageUrl(eq("people"), anyInt(), anyInt())).thenAnswer(invocation ->
+                "people?page=" + invocation.getArgument(1) + "&limit=" + invocation.getArgument(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        prefetchExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldAnswerOverlappingPagesFromTheSameChunk() {
+        stubChunk(1, 230);
+
+        SwapiResponse<PersonDTO> second = pageStore.getPage("people", 2, 10, TYPE);
+        SwapiResponse<PersonDTO> first = pageStore.getPage("people", 1, 20, TYPE);
+
+        assertThat(second.getResults()).extracting(PersonDTO::getUid).startsWith("11").endsWith("20").hasSize(10);
+        assertThat(first.getResults()).extracting(PersonDTO::getUid).startsWith("1").endsWith("20").hasSize(20);
+        assertThat(first.getTotal_records()).isEqualTo(230);
+        assertThat(first.getTotal_pages()).isEqualTo(12);
+        assertThat(first.getNext()).isEqualTo("people?page=2&limit=20");
+        assertThat(first.getPrevious()).isNull();
+        assertThat(pageStore.getHitCount()).isEqualTo(1);
+        assertThat(pageStore.getMissCount()).isEqualTo(1);
+        verify(swapiClient, times(1)).getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void shouldStitchLargePagesFromConcurrentChunks() {
+        stubChunk(2, 230);
+        stubChunk(3, 230);
+
+        SwapiResponse<PersonDTO> response = pageStore.getPage("people", 2, 150, TYPE);
+
+        assertThat(response.getResults()).hasSize(80);
+        assertThat(response.getResults().get(0).getUid()).isEqualTo("151");
+        assertThat(response.getResults().get(79).getUid()).isEqualTo("230");
+        assertThat(response.getTotal_pages()).isEqualTo(2);
+        assertThat(response.getPrevious()).isEqualTo("people?page=1&limit=150");
+        assertThat(response.getNext()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldIgnoreFailedChunksPastTheEnd() {
+        stubChunk(1, 120);
+        stubChunk(2, 120);
+        lenient().when(swapiClient.getPage(eq("people"), eq(3), eq(100), any(ParameterizedTypeReference.class)))
+                .thenThrow(new RuntimeException("Failed to fetch people from Star Wars API"));
+
+        SwapiResponse<PersonDTO> response = pageStore.getPage("people", 1, 300, TYPE);
+
+        assertThat(response.getResults()).extracting(PersonDTO::getUid).hasSize(120).startsWith("1").endsWith("120");
+        assertThat(response.getTotal_pages()).isEqualTo(1);
+        assertThat(pageStore.size()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPropagateUpstreamFailures() {
+        when(swapiClient.getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenThrow(new RuntimeException("Failed to fetch people from Star Wars API"));
+
+        assertThatThrownBy(() -> pageStore.getPage("people", 1, 10, TYPE))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to fetch people");
+    }
+
+    @Test
+    void shouldServeStaleChunkWhenRefreshFails() {
+        stubChunk(1, 50);
+        pageStore.getPage("people", 1, 10, TYPE);
+        ReflectionTestUtils.setField(pageStore, "ttlSeconds", -1L);
+        when(swapiClient.getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenThrow(new RuntimeException("Failed to fetch people from Star Wars API"));
+
+        assertThat(pageStore.getPage("people", 1, 10, TYPE).getResults()).hasSize(10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotCacheNullUpstreamPages() {
+        when(swapiClient.getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(null)
+                .thenReturn(new SwapiResponse<>("ok", 82, 1, null, null, null));
+
+        assertThatThrownBy(() -> pageStore.getPage("people", 1, 10, TYPE))
+                .hasMessageContaining("Failed to fetch people");
+        assertThatThrownBy(() -> pageStore.getPage("people", 1, 10, TYPE))
+                .hasMessageContaining("Failed to fetch people");
+        assertThat(pageStore.size()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldServeStaleChunkWhenRefreshReturnsNoResults() {
+        stubChunk(1, 50);
+        pageStore.getPage("people", 1, 10, TYPE);
+        ReflectionTestUtils.setField(pageStore, "ttlSeconds", -1L);
+        when(swapiClient.getPage(eq("people"), eq(1), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(new SwapiResponse<>("ok", 50, 1, null, null, null));
+
+        assertThat(pageStore.getPage("people", 1, 10, TYPE).getResults()).hasSize(10);
+    }
+
+    @Test
+    void shouldRejectLimitAboveMaximum() {
+        assertThatThrownBy(() -> pageStore.getPage("people", 1, 1001, TYPE))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("limit must be between 1 and 1000");
+    }
+
+    @Test
+    void shouldRejectPageBelowOne() {
+        assertThatThrownBy(() -> pageStore.getPage("people", 0, 10, TYPE))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("page must be greater than 0");
+        assertThatThrownBy(() -> pageStore.getPage("people", -3, 10, TYPE))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldPrefetchNextPageAndCountHit() throws Exception {
+        ReflectionTestUtils.setField(pageStore, "prefetchEnabled", true);
+        ReflectionTestUtils.setField(pageStore, "prefetchBudget", 2);
+        stubChunk(1, 230);
+        stubChunk(2, 230);
+        stubChunk(3, 230);
+
+        pageStore.getPage("people", 1, 100, TYPE);
+        awaitPrefetch();
+        SwapiResponse<PersonDTO> second = pageStore.getPage("people", 2, 100, TYPE);
+        awaitPrefetch();
+
+        assertThat(second.getResults()).extracting(PersonDTO::getUid).startsWith("101").endsWith("200");
+        PageCacheStats stats = pageStore.stats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getPrefetchIssued()).isEqualTo(2);
+        assertThat(stats.getPrefetchHits()).isEqualTo(1);
+        assertThat(stats.getPrefetchHitRatio()).isEqualTo(0.5);
+        assertThat(stats.getChunks()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipPrefetchWhenBudgetIsExhausted() throws Exception {
+        ReflectionTestUtils.setField(pageStore, "prefetchEnabled", true);
+        ReflectionTestUtils.setField(pageStore, "prefetchBudget", 0);
+        stubChunk(1, 230);
+
+        pageStore.getPage("people", 1, 100, TYPE);
+        awaitPrefetch();
+
+        assertThat(pageStore.stats().getPrefetchSkipped()).isEqualTo(1);
+        assertThat(pageStore.stats().getPrefetchIssued()).isZero();
+        verify(swapiClient, never()).getPage(eq("people"), eq(2), eq(100), any(ParameterizedTypeReference.class));
+    }
+
+    private void awaitPrefetch() throws Exception {
+        prefetchExecutor.submit(() -> { }).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubChunk(int page, int totalRecords) {
+        List<PersonDTO> people = new ArrayList<>();
+        for (int uid = (page - 1) * 100 + 1; uid <= Math.min(page * 100, totalRecords); uid++) {
+            people.add(new PersonDTO(String.valueOf(uid), "Person " + uid, "people/" + uid));
+        }
+        String next = page * 100 < totalRecords ? "people?page=" + (page + 1) + "&limit=100" : null;
+        when(swapiClient.getPage(eq("people"), eq(page), eq(100), any(ParameterizedTypeReference.class)))
+                .thenReturn(new SwapiResponse<>("ok", totalRecords, (totalRecords + 99) / 100, null, next, people));
+    }
+}
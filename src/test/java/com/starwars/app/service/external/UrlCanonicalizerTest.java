@@ -0,0 +1,45 @@
+package com.starwars.app.service.external;
+
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer urlCanonicalizer = new UrlCanonicalizer();
+
+    @Test
+    void shouldReturnSameInstanceForEqualUrls() {
+        String first = urlCanonicalizer.canonicalize(new String("https://www.swapi.tech/api/people/1"));
+        String second = urlCanonicalizer.canonicalize(new String("https://www.swapi.tech/api/people/1/"));
+
+        assertThat(first).isEqualTo("https://www.swapi.tech/api/people/1");
+        assertThat(second).isSameAs(first);
+        assertThat(urlCanonicalizer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandleNullValues() {
+        assertThat(urlCanonicalizer.canonicalize(null)).isNull();
+        assertThat(urlCanonicalizer.canonicalizeAll(null)).isNull();
+    }
+
+    @Test
+    void shouldCanonicalizeReferenceListsOfProperties() {
+        String pilot = urlCanonicalizer.canonicalize("https://www.swapi.tech/api/people/13");
+
+        StarshipDetailResponse.StarshipProperties properties = new StarshipDetailResponse.StarshipProperties();
+        properties.setPilots(Arrays.asList(new String("https://www.swapi.tech/api/people/13")));
+        properties.setFilms(Collections.emptyList());
+
+        urlCanonicalizer.canonicalizeProperties(properties);
+
+        List<String> pilots = properties.getPilots();
+        assertThat(pilots.get(0)).isSameAs(pilot);
+    }
+}
@@ -3,19 +3,22 @@ package com.starwars.app.service.external;
 import com.starwars.app.dto.swapi.VehicleDTO;
 import com.starwars.app.dto.swapi.VehicleDetailResponse;
 import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.service.query.ListQueryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +28,18 @@ class VehicleServiceTest {
     @Mock
     private SwapiClientService swapiClient;
 
-    @InjectMocks
+    @Mock
+    private ExpansionService expansionService;
+
+    @Mock
+    private SwapiPageStore pageStore;
+
+    @Mock
+    private ListQueryService listQueryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private VehicleService vehicleService;
 
     private SwapiResponse<VehicleDTO> mockVehiclesResponse;
@@ -33,6 +47,13 @@ class VehicleServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "https://www.swapi.tech/api/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        SwapiEntityStore entityStore = new SwapiEntityStore(swapiClient, new UrlCanonicalizer(), eventPublisher);
+        ReflectionTestUtils.setField(entityStore, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(entityStore, "maxEntries", 100);
+        vehicleService = new VehicleService(swapiClient, expansionService, entityStore, pageStore, listQueryService);
+
         VehicleDTO vehicle1 = new VehicleDTO("1", "Sand Crawler", "https://www.swapi.tech/api/vehicles/1");
         VehicleDTO vehicle2 = new VehicleDTO("2", "T-16 skyhopper", "https://www.swapi.tech/api/vehicles/2");
 
@@ -61,7 +82,7 @@ class VehicleServiceTest {
     void shouldGetVehiclesSuccessfully() {
         int page = 1;
         int limit = 10;
-        when(swapiClient.getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(mockVehiclesResponse);
 
         SwapiResponse<VehicleDTO> result = vehicleService.getVehicles(page, limit);
@@ -72,7 +93,7 @@ class VehicleServiceTest {
         assertThat(result.getResults().get(0).getName()).isEqualTo("Sand Crawler");
         assertThat(result.getResults().get(1).getName()).isEqualTo("T-16 skyhopper");
 
-        verify(swapiClient).getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 
     @Test
@@ -112,7 +133,7 @@ class VehicleServiceTest {
         emptyResponse.setMessage("ok");
         emptyResponse.setResults(Arrays.asList());
 
-        when(swapiClient.getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
+        when(pageStore.getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class)))
                 .thenReturn(emptyResponse);
 
         SwapiResponse<VehicleDTO> result = vehicleService.getVehicles(page, limit);
@@ -120,6 +141,6 @@ class VehicleServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getResults()).isEmpty();
 
-        verify(swapiClient).getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
+        verify(pageStore).getPage(eq("vehicles"), eq(page), eq(limit), any(ParameterizedTypeReference.class));
     }
 }
\ No newline at end of file
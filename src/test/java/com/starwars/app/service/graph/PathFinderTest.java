@@ -0,0 +1,82 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathFinderTest {
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+    private static final String LUKE = BASE + "people/1";
+    private static final String LEIA = BASE + "people/5";
+    private static final String HAN = BASE + "people/14";
+    private static final String LANDO = BASE + "people/25";
+    private static final String YODA = BASE + "people/20";
+    private static final String NEW_HOPE = BASE + "films/1";
+    private static final String FALCON = BASE + "starships/10";
+    private static final String CLOUD_CAR = BASE + "vehicles/20";
+
+    private RelationshipGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new RelationshipGraph();
+        graph.update(SwapiResource.FILMS, NEW_HOPE, Arrays.asList(LUKE, LEIA, HAN, FALCON));
+        graph.update(SwapiResource.STARSHIPS, FALCON, Arrays.asList(HAN, LANDO));
+        graph.update(SwapiResource.VEHICLES, CLOUD_CAR, Collections.singletonList(LANDO));
+        graph.update(SwapiResource.PEOPLE, YODA, Collections.emptyList());
+    }
+
+    @Test
+    void shouldFindShortestPathThroughFilmsAndStarships() {
+        int[] path = PathFinder.shortestPath(graph.snapshot(), graph.nodeOf(LUKE), graph.nodeOf(LANDO), 6);
+
+        assertThat(urls(path)).containsExactly(LUKE, NEW_HOPE, HAN, FALCON, LANDO);
+    }
+
+    @Test
+    void shouldNotShortcutThroughFilmToStarshipEdges() {
+        int[] path = PathFinder.shortestPath(graph.snapshot(), graph.nodeOf(LEIA), graph.nodeOf(LANDO), 6);
+
+        assertThat(path).hasSize(5);
+        assertThat(urls(path)).doesNotContainSequence(NEW_HOPE, FALCON);
+    }
+
+    @Test
+    void shouldRespectMaxDegrees() {
+        RelationshipGraph.Csr csr = graph.snapshot();
+
+        assertThat(PathFinder.shortestPath(csr, graph.nodeOf(LUKE), graph.nodeOf(LANDO), 1)).isNull();
+        assertThat(PathFinder.shortestPath(csr, graph.nodeOf(LUKE), graph.nodeOf(LANDO), 2)).hasSize(5);
+    }
+
+    @Test
+    void shouldReturnNullWhenDisconnectedAndReuseWorkspace() {
+        RelationshipGraph.Csr csr = graph.snapshot();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(PathFinder.shortestPath(csr, graph.nodeOf(LUKE), graph.nodeOf(YODA), 6)).isNull();
+            assertThat(PathFinder.shortestPath(csr, graph.nodeOf(LEIA), graph.nodeOf(HAN), 6)).hasSize(3);
+        }
+    }
+
+    @Test
+    void shouldReturnSingleNodeForSamePerson() {
+        assertThat(PathFinder.shortestPath(graph.snapshot(), graph.nodeOf(LUKE), graph.nodeOf(LUKE), 6))
+                .containsExactly(graph.nodeOf(LUKE));
+    }
+
+    private String[] urls(int[] path) {
+        RelationshipGraph.Csr csr = graph.snapshot();
+        String[] urls = new String[path.length];
+        for (int i = 0; i < path.length; i++) {
+            urls[i] = csr.urls[path[i]];
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,68 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelationshipGraphTest {
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+    private static final String LUKE = BASE + "people/1";
+    private static final String LEIA = BASE + "people/5";
+    private static final String HAN = BASE + "people/14";
+    private static final String NEW_HOPE = BASE + "films/1";
+    private static final String EMPIRE = BASE + "films/2";
+    private static final String FALCON = BASE + "starships/10";
+
+    private RelationshipGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new RelationshipGraph();
+        graph.update(SwapiResource.FILMS, NEW_HOPE, Arrays.asList(LUKE, LEIA, FALCON));
+        graph.update(SwapiResource.FILMS, EMPIRE, Arrays.asList(LUKE, HAN));
+        graph.update(SwapiResource.STARSHIPS, FALCON, Arrays.asList(HAN, NEW_HOPE));
+    }
+
+    @Test
+    void shouldAnswerReverseLookupsFromEitherSide() {
+        assertThat(graph.related(LUKE, SwapiResource.FILMS)).containsExactly(NEW_HOPE, EMPIRE);
+        assertThat(graph.related(FALCON, SwapiResource.PEOPLE)).containsExactly(HAN);
+        assertThat(graph.related(HAN, SwapiResource.STARSHIPS)).containsExactly(FALCON);
+    }
+
+    @Test
+    void shouldDeduplicateEdgesDeclaredByBothEndpoints() {
+        RelationshipGraph.Csr csr = graph.snapshot();
+
+        assertThat(graph.related(NEW_HOPE, SwapiResource.STARSHIPS)).containsExactly(FALCON);
+        assertThat(csr.size()).isEqualTo(6);
+        assertThat(csr.edges()).isEqualTo(12);
+    }
+
+    @Test
+    void shouldFindCoStarsThroughSharedFilms() {
+        assertThat(graph.twoHop(LUKE, SwapiResource.FILMS, SwapiResource.PEOPLE))
+                .containsExactlyInAnyOrder(LEIA, HAN);
+        assertThat(graph.twoHop(LEIA, SwapiResource.FILMS, SwapiResource.PEOPLE)).containsExactly(LUKE);
+    }
+
+    @Test
+    void shouldReplaceDeclaredEdgesOnUpdate() {
+        graph.update(SwapiResource.FILMS, EMPIRE, Collections.singletonList(HAN));
+
+        assertThat(graph.related(LUKE, SwapiResource.FILMS)).containsExactly(NEW_HOPE);
+        assertThat(graph.related(EMPIRE, SwapiResource.PEOPLE)).containsExactly(HAN);
+    }
+
+    @Test
+    void shouldReturnNullForUnknownNodes() {
+        assertThat(graph.related(BASE + "people/999", SwapiResource.FILMS)).isNull();
+        assertThat(graph.nodeOf(BASE + "people/999")).isEqualTo(-1);
+    }
+}
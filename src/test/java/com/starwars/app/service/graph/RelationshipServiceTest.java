@@ -0,0 +1,118 @@
+package com.starwars.app.service.graph;
+
+import com.starwars.app.dto.PathResponse;
+import com.starwars.app.dto.RelatedEntity;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiEntityRefreshedEvent;
+import com.starwars.app.service.external.SwapiEntityStore;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RelationshipServiceTest {
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+
+    @Mock
+    private SwapiDatasetService datasetService;
+
+    @Mock
+    private SwapiEntityStore entityStore;
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    private RelationshipService relationshipService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> BASE + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        lenient().when(entityStore.peek(anyString())).thenReturn(Optional.empty());
+        relationshipService = new RelationshipService(datasetService, entityStore, swapiClient);
+        ReflectionTestUtils.setField(relationshipService, "maxPathDepth", 6);
+
+        FilmDetailResponse.FilmProperties newHope = new FilmDetailResponse.FilmProperties();
+        newHope.setCharacters(Arrays.asList(BASE + "people/1", BASE + "people/5"));
+        relationshipService.onEntityRefreshed(
+                new SwapiEntityRefreshedEvent(SwapiResource.FILMS, BASE + "films/1", newHope, "e1"));
+
+        PersonDetailResponse.PersonProperties luke = new PersonDetailResponse.PersonProperties();
+        luke.setName("Luke Skywalker");
+        luke.setFilms(Collections.singletonList(BASE + "films/1"));
+        relationshipService.onEntityRefreshed(
+                new SwapiEntityRefreshedEvent(SwapiResource.PEOPLE, BASE + "people/1", luke, "e2"));
+    }
+
+    @Test
+    void shouldReturnFilmsForPersonAfterLoadingDatasets() {
+        Optional<List<RelatedEntity>> films = relationshipService.related(SwapiResource.PEOPLE, "1", SwapiResource.FILMS);
+
+        assertThat(films).isPresent();
+        assertThat(films.get()).extracting(RelatedEntity::getUid).containsExactly("1");
+        verify(datasetService).prepare(SwapiResource.PEOPLE, SwapiResource.FILMS);
+    }
+
+    @Test
+    void shouldResolveCoStarNamesFromStore() {
+        PersonDetailResponse leia = new PersonDetailResponse();
+        leia.setResult(new PersonDetailResponse.PersonResult());
+        leia.getResult().setProperties(new PersonDetailResponse.PersonProperties());
+        leia.getResult().getProperties().setName("Leia Organa");
+        lenient().when(entityStore.peek(BASE + "people/5")).thenReturn(Optional.<Object>of(leia));
+
+        Optional<List<RelatedEntity>> coStars = relationshipService.coStars("1");
+
+        assertThat(coStars).isPresent();
+        assertThat(coStars.get()).extracting(RelatedEntity::getName).containsExactly("Leia Organa");
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownEntity() {
+        assertThat(relationshipService.related(SwapiResource.STARSHIPS, "999", SwapiResource.PEOPLE)).isEmpty();
+    }
+
+    @Test
+    void shouldFindPathBetweenPeople() {
+        Optional<PathResponse> path = relationshipService.path("1", "5", 6);
+
+        assertThat(path).isPresent();
+        assertThat(path.get().isConnected()).isTrue();
+        assertThat(path.get().getDegrees()).isEqualTo(1);
+        assertThat(path.get().getPath()).extracting(RelatedEntity::getUrl)
+                .containsExactly(BASE + "people/1", BASE + "films/1", BASE + "people/5");
+        verify(datasetService).prepare(SwapiResource.values());
+    }
+
+    @Test
+    void shouldReturnEmptyPathForUnknownPerson() {
+        assertThat(relationshipService.path("1", "999", 6)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectMaxDepthOutOfRange() {
+        assertThatThrownBy(() -> relationshipService.path("1", "5", 7))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("maxDepth");
+    }
+}
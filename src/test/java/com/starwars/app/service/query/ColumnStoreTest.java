@@ -0,0 +1,91 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnStoreTest {
+
+    @Mock
+    private SwapiDatasetService datasetService;
+
+    private ColumnStore columnStore;
+
+    @BeforeEach
+    void setUp() {
+        columnStore = new ColumnStore(datasetService);
+    }
+
+    @Test
+    void shouldBuildTypedColumnsWithNullBitmap() {
+        when(datasetService.snapshot(SwapiResource.STARSHIPS)).thenReturn(starships(1L));
+
+        ColumnTable table = columnStore.table(SwapiResource.STARSHIPS);
+        NumericColumn cost = table.numeric("costInCredits").get();
+        NumericColumn crew = table.numeric("crew").get();
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.uid(1)).isEqualTo("10");
+        assertThat(table.name(1)).isEqualTo("Millennium Falcon");
+        assertThat(cost.isNull(0)).isTrue();
+        assertThat(cost.get(1)).isEqualTo(100000.0);
+        assertThat(cost.getNullCount()).isEqualTo(1);
+        assertThat(crew.get(0)).isEqualTo(97.5);
+        assertThat(table.numeric("mglt")).isPresent();
+        assertThat(table.numeric("name")).isEmpty();
+    }
+
+    @Test
+    void shouldRebuildOnlyWhenSnapshotVersionChanges() {
+        when(datasetService.snapshot(SwapiResource.STARSHIPS)).thenReturn(starships(1L), starships(1L), starships(2L));
+
+        ColumnTable first = columnStore.table(SwapiResource.STARSHIPS);
+
+        assertThat(columnStore.table(SwapiResource.STARSHIPS)).isSameAs(first);
+        assertThat(columnStore.table(SwapiResource.STARSHIPS).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldExposePersonHeightAndMass() {
+        PersonDetailResponse.PersonProperties luke = new PersonDetailResponse.PersonProperties();
+        luke.setName("Luke Skywalker");
+        luke.setHeight("172");
+        luke.setMass("1,358");
+        when(datasetService.snapshot(SwapiResource.PEOPLE)).thenReturn(new ResourceSnapshot(SwapiResource.PEOPLE, 1L,
+                Collections.singletonList("1"), Collections.singletonList(luke), System.currentTimeMillis()));
+
+        ColumnTable table = columnStore.table(SwapiResource.PEOPLE);
+
+        assertThat(table.numeric("height").get().get(0)).isEqualTo(172.0);
+        assertThat(table.numeric("mass").get().get(0)).isEqualTo(1358.0);
+        assertThat(ColumnTable.numericFields(SwapiResource.PEOPLE)).containsExactly("height", "mass");
+    }
+
+    private static ResourceSnapshot starships(long version) {
+        StarshipDetailResponse.StarshipProperties executor = new StarshipDetailResponse.StarshipProperties();
+        executor.setName("Executor");
+        executor.setCostInCredits("unknown");
+        executor.setCrew("30-165");
+        StarshipDetailResponse.StarshipProperties falcon = new StarshipDetailResponse.StarshipProperties();
+        falcon.setName("Millennium Falcon");
+        falcon.setCostInCredits("100,000");
+        falcon.setCrew("4");
+        falcon.setMglt("75");
+        return new ResourceSnapshot(SwapiResource.STARSHIPS, version, Arrays.asList("15", "10"),
+                Arrays.asList(executor, falcon), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,48 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    @Test
+    void shouldRoundTripVersionAndUid() {
+        String token = new Cursor(42L, "17").encode();
+
+        Cursor decoded = Cursor.decode(token);
+
+        assertThat(token).doesNotContain("17").doesNotContain("=");
+        assertThat(decoded.getVersion()).isEqualTo(42L);
+        assertThat(decoded.getUid()).isEqualTo("17");
+    }
+
+    @Test
+    void shouldTreatBlankCursorAsStart() {
+        assertThat(Cursor.decode(null)).isNull();
+        assertThat(Cursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> Cursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void shouldSeekPastUidInNumericOrder() {
+        KeysetIndex index = KeysetIndex.of(Arrays.asList("10", "2", "9", "100", "1"));
+
+        assertThat(index.after(null)).isZero();
+        assertThat(index.uid(index.after("2"))).isEqualTo("9");
+        assertThat(index.uid(index.after("3"))).isEqualTo("9");
+        assertThat(index.uid(index.after("10"))).isEqualTo("100");
+        assertThat(index.after("100")).isEqualTo(5);
+        assertThat(index.row(index.after("9"))).isEqualTo(0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.FacetCount;
+import com.starwars.app.dto.FacetResponse;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class FacetServiceTest {
+
+    @Mock
+    private ColumnStore columnStore;
+
+    private FacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        facetService = new FacetService(columnStore);
+
+        List<Object> people = Arrays.asList(
+                person("Luke Skywalker", "male", "blue", "blond", "172"),
+                person("Leia Organa", "female", "brown", "brown", "150"),
+                person("Darth Vader", "male", "yellow", "none", "202"),
+                person("Owen Lars", "male", "blue", "brown, grey", "178"),
+                person("R2-D2", "n/a", "red", "n/a", null));
+        List<String> uids = Arrays.asList("1", "2", "4", "6", "3");
+        ResourceSnapshot snapshot = new ResourceSnapshot(SwapiResource.PEOPLE, 1L, uids, people, System.currentTimeMillis());
+        lenient().when(columnStore.table(SwapiResource.PEOPLE)).thenReturn(ColumnTable.of(snapshot));
+    }
+
+    @Test
+    void shouldCountEveryCategoricalFieldWithoutFilters() {
+        FacetResponse response = facetService.facets(SwapiResource.PEOPLE, new HashMap<>());
+
+        assertThat(response.getTotal()).isEqualTo(5);
+        assertThat(response.getFacets().keySet())
+                .containsExactly("gender", "eyeColor", "hairColor", "skinColor", "homeworld");
+        assertThat(response.getFacets().get("gender"))
+                .containsExactly(new FacetCount("male", 3), new FacetCount("female", 1), new FacetCount("n/a", 1));
+    }
+
+    @Test
+    void shouldSplitMultiValuedFields() {
+        FacetResponse response = facetService.facets(SwapiResource.PEOPLE, params("fields", "hair_color"));
+
+        assertThat(response.getFacets().get("hairColor")).containsExactly(
+                new FacetCount("brown", 2), new FacetCount("blond", 1), new FacetCount("grey", 1),
+                new FacetCount("n/a", 1), new FacetCount("none", 1));
+    }
+
+    @Test
+    void shouldIntersectCategoricalAndRangeFilters() {
+        Map<String, String> params = params("fields", "eyeColor,gender");
+        params.put("gender", "male");
+        params.put("minHeight", "175");
+
+        FacetResponse response = facetService.facets(SwapiResource.PEOPLE, params);
+
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(response.getFacets().get("eyeColor"))
+                .containsExactly(new FacetCount("blue", 1), new FacetCount("yellow", 1));
+        assertThat(response.getFacets().get("gender"))
+                .as("a facet is counted without its own selection")
+                .containsExactly(new FacetCount("male", 2));
+    }
+
+    @Test
+    void shouldUnionValuesOfTheSameField() {
+        Map<String, String> params = params("fields", "gender");
+        params.put("eyeColor", "brown,yellow");
+
+        FacetResponse response = facetService.facets(SwapiResource.PEOPLE, params);
+
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(response.getFacets().get("gender"))
+                .containsExactly(new FacetCount("female", 1), new FacetCount("male", 1));
+    }
+
+    @Test
+    void shouldRejectUnsupportedFacetField() {
+        assertThatThrownBy(() -> facetService.facets(SwapiResource.PEOPLE, params("fields", "name")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported facet field: name");
+    }
+
+    private static Map<String, String> params(String key, String value) {
+        Map<String, String> params = new HashMap<>();
+        params.put(key, value);
+        return params;
+    }
+
+    private static PersonDetailResponse.PersonProperties person(String name, String gender, String eyeColor,
+                                                                String hairColor, String height) {
+        PersonDetailResponse.PersonProperties person = new PersonDetailResponse.PersonProperties();
+        person.setName(name);
+        person.setGender(gender);
+        person.setEyeColor(eyeColor);
+        person.setHairColor(hairColor);
+        person.setHeight(height);
+        return person;
+    }
+}
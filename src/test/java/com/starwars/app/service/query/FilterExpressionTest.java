@@ -0,0 +1,152 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FilterExpressionTest {
+
+    private ColumnTable people;
+
+    @BeforeEach
+    void setUp() {
+        List<Object> rows = Arrays.asList(
+                person("Luke Skywalker", "male", "172", "77"),
+                person("Leia Organa", "female", "150", "49"),
+                person("Darth Vader", "male", "202", "136"),
+                person("Chewbacca", "male", "228", "112"),
+                person("R2-D2", "n/a", "96", "unknown"),
+                person("Jabba", "hermaphrodite", "175", "1,358"));
+        people = ColumnTable.of(new ResourceSnapshot(SwapiResource.PEOPLE, 1L,
+                Arrays.asList("1", "5", "4", "13", "3", "16"), rows, 0L));
+    }
+
+    @Test
+    void shouldCompareNumericAndCategoricalFields() {
+        assertThat(matching("height > 180 and gender = \"male\"")).containsExactly("Darth Vader", "Chewbacca");
+        assertThat(matching("mass >= 1358")).containsExactly("Jabba");
+        assertThat(matching("gender != 'male'")).containsExactly("Leia Organa", "R2-D2", "Jabba");
+    }
+
+    @Test
+    void shouldTreatNullsAsNotMatching() {
+        assertThat(matching("mass < 100")).containsExactly("Luke Skywalker", "Leia Organa");
+        assertThat(matching("not mass < 100")).contains("R2-D2");
+    }
+
+    @Test
+    void shouldBindAndTighterThanOr() {
+        assertThat(matching("gender = female or height > 200 and mass < 120"))
+                .containsExactly("Leia Organa", "Chewbacca");
+        assertThat(matching("(gender = female or height > 200) and mass < 120"))
+                .containsExactly("Leia Organa", "Chewbacca");
+        assertThat(matching("not (gender = male or GENDER = 'n/a')")).containsExactly("Leia Organa", "Jabba");
+    }
+
+    @Test
+    void shouldMatchInterpretedEvaluation() {
+        String[] expressions = {
+                "height > 180 and gender = \"male\"",
+                "not (mass <= 77 or gender = male) or height = 96",
+                "eye_color = blue or skinColor != fair",
+                "height != 172 and not height < 150"
+        };
+        for (String source : expressions) {
+            FilterExpression expression = FilterExpression.parse(source);
+            IntPredicate compiled = expression.compile(people);
+            for (int row = 0; row < people.size(); row++) {
+                assertThat(compiled.test(row)).as(source + " @ " + row).isEqualTo(expression.evaluate(people, row));
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedExpressions() {
+        assertThatThrownBy(() -> FilterExpression.parse("height >"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Expected a value");
+        assertThatThrownBy(() -> FilterExpression.parse("(height > 1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Expected ')'");
+        assertThatThrownBy(() -> FilterExpression.parse("height ! 1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown operator");
+        assertThatThrownBy(() -> FilterExpression.parse("name = \"luke"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unterminated string");
+    }
+
+    @Test
+    void shouldRejectDeeplyNestedOrOverlongExpressions() {
+        StringBuilder nested = new StringBuilder();
+        StringBuilder negated = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            nested.append('(');
+            negated.append("not ");
+        }
+
+        assertThatThrownBy(() -> FilterExpression.parse(nested + "height > 1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Nesting deeper than");
+        assertThatThrownBy(() -> FilterExpression.parse(negated + "height > 1"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> FilterExpression.parse(repeat("height > 1 and ", 100) + "mass > 1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("longer than");
+        assertThat(FilterExpression.parse("not (not (height > 180))").evaluate(people, 2)).isTrue();
+    }
+
+    @Test
+    void shouldRejectUnknownFieldsAndTypeMismatches() {
+        assertThatThrownBy(() -> FilterExpression.parse("name = luke").compile(people))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported field: name");
+        assertThatThrownBy(() -> FilterExpression.parse("height = tall").compile(people))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("is numeric");
+        assertThatThrownBy(() -> FilterExpression.parse("gender > male").compile(people))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("only supports = and !=");
+    }
+
+    private List<String> matching(String source) {
+        IntPredicate predicate = FilterExpression.parse(source).compile(people);
+        List<String> names = new ArrayList<>();
+        for (int row = 0; row < people.size(); row++) {
+            if (predicate.test(row)) {
+                names.add(people.name(row));
+            }
+        }
+        return names;
+    }
+
+    private static PersonDetailResponse.PersonProperties person(String name, String gender, String height, String mass) {
+        PersonDetailResponse.PersonProperties person = new PersonDetailResponse.PersonProperties();
+        person.setName(name);
+        person.setGender(gender);
+        person.setHeight(height);
+        person.setMass(mass);
+        person.setEyeColor("blue");
+        person.setSkinColor("fair");
+        return person;
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.CursorPage;
+import com.starwars.app.dto.swapi.StarshipDTO;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.dto.swapi.SwapiResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ListQueryServiceTest {
+
+    @Mock
+    private ColumnStore columnStore;
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    private ListQueryService listQueryService;
+
+    @BeforeEach
+    void setUp() {
+        listQueryService = new ListQueryService(columnStore, swapiClient);
+        lenient().when(swapiClient.pageUrl(anyString(), anyInt(), anyInt())).thenAnswer(invocation ->
+                "https://www.swapi.tech/api/" + invocation.getArgument(0)
+                        + "?page=" + invocation.getArgument(1) + "&limit=" + invocation.getArgument(2));
+        ReflectionTestUtils.setField(listQueryService, "planCacheSize", 16);
+        List<String> uids = Arrays.asList("2", "3", "5", "9", "10", "12");
+        List<Object> ships = Arrays.asList(
+                starship("CR90 corvette", "3500000", "30-165"),
+                starship("Star Destroyer", "150000000", "47,060"),
+                starship("Sentinel-class landing craft", "240000", "5"),
+                starship("Death Star", "1000000000000", "342,953"),
+                starship("Millennium Falcon", "100000", "4"),
+                starship("Y-wing", "unknown", "2"));
+        lenient().when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(ColumnTable.of(
+                new ResourceSnapshot(SwapiResource.STARSHIPS, 1L, uids, ships, System.currentTimeMillis())));
+    }
+
+    @Test
+    void shouldSortDescendingWithNullsLast() {
+        SwapiResponse<StarshipDTO> response = query(params("sort", "costInCredits:desc"), 1, 10);
+
+        assertThat(response.getResults()).extracting(StarshipDTO::getName).containsExactly(
+                "Death Star", "Star Destroyer", "CR90 corvette", "Sentinel-class landing craft", "Millennium Falcon", "Y-wing");
+        assertThat(response.getTotal_records()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldFilterByRangeAndPageTheResult() {
+        Map<String, String> params = params("sort", "crew");
+        params.put("minCrew", "4");
+        params.put("maxCrew", "100000");
+
+        SwapiResponse<StarshipDTO> firstPage = query(params, 1, 2);
+        SwapiResponse<StarshipDTO> secondPage = query(params, 2, 2);
+
+        assertThat(firstPage.getResults()).extracting(StarshipDTO::getUid).containsExactly("10", "5");
+        assertThat(secondPage.getResults()).extracting(StarshipDTO::getUid).containsExactly("2", "3");
+        assertThat(firstPage.getTotal_records()).isEqualTo(4);
+        assertThat(firstPage.getTotal_pages()).isEqualTo(2);
+        assertThat(firstPage.getPrevious()).isNull();
+        assertThat(firstPage.getNext()).startsWith("https://www.swapi.tech/api/starships?page=2&limit=2")
+                .contains("sort=crew").contains("minCrew=4").contains("maxCrew=100000");
+        assertThat(secondPage.getPrevious()).startsWith("https://www.swapi.tech/api/starships?page=1&limit=2")
+                .contains("sort=crew");
+        assertThat(secondPage.getNext()).isNull();
+        assertThat(query(params, 3, 2).getResults()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepUidOrderWhenOnlyFiltering() {
+        SwapiResponse<StarshipDTO> response = query(params("maxCostInCredits", "5000000"), 1, 10);
+
+        assertThat(response.getResults()).extracting(StarshipDTO::getUid).containsExactly("2", "5", "10");
+        assertThat(response.getResults().get(0).getUrl()).isEqualTo("starships/2");
+    }
+
+    @Test
+    void shouldRejectUnknownFields() {
+        assertThatThrownBy(() -> query(params("sort", "name"), 1, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Supported fields: costInCredits");
+    }
+
+    @Test
+    void shouldRejectNonPositivePageOrLimit() {
+        assertThatThrownBy(() -> query(params("sort", "crew"), 1, 0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> query(params("sort", "crew"), 0, 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldFilterWithExpression() throws Exception {
+        Map<String, String> params = params("q", "crew >= 4 and (costInCredits < 1000000 or crew > 100000)");
+        params.put("sort", "crew:desc");
+
+        SwapiResponse<StarshipDTO> response = query(params, 1, 10);
+        String next = query(params, 1, 2).getNext();
+
+        assertThat(response.getResults()).extracting(StarshipDTO::getUid).containsExactly("9", "5", "10");
+        assertThat(next).doesNotContain(" ");
+        assertThat(URLDecoder.decode(next, "UTF-8"))
+                .contains("q=crew >= 4 and (costInCredits < 1000000 or crew > 100000)")
+                .contains("sort=crew:desc");
+    }
+
+    @Test
+    void shouldReuseCompiledPlanUntilTableVersionChanges() {
+        ColumnTable table = columnStore.table(SwapiResource.STARSHIPS);
+        IntPredicate first = listQueryService.plan(SwapiResource.STARSHIPS, table, "crew > 4");
+
+        assertThat(listQueryService.plan(SwapiResource.STARSHIPS, table, "crew > 4")).isSameAs(first);
+
+        ColumnTable newer = ColumnTable.of(new ResourceSnapshot(SwapiResource.STARSHIPS, 2L,
+                Arrays.asList("1"), Arrays.asList(starship("X-wing", "149999", "1")), 0L));
+        assertThat(listQueryService.plan(SwapiResource.STARSHIPS, newer, "crew > 4")).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldRejectInvalidExpression() {
+        assertThatThrownBy(() -> query(params("q", "crew >"), 1, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Expected a value");
+    }
+
+    @Test
+    void shouldMatchFullSortForRandomData() {
+        Random random = new Random(1);
+        List<Object> ships = new ArrayList<>();
+        List<String> uids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            uids.add(String.valueOf(i));
+            ships.add(starship("ship " + i, random.nextInt(10) == 0 ? "unknown" : String.valueOf(random.nextInt(50)), "1"));
+        }
+        ColumnTable table = ColumnTable.of(new ResourceSnapshot(SwapiResource.STARSHIPS, 2L, uids, ships, 0L));
+        NumericColumn cost = table.numeric("costInCredits").get();
+        int[] rows = ListQueryService.filter(table, new ArrayList<>());
+
+        Integer[] expected = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            expected[i] = rows[i];
+        }
+        Arrays.sort(expected, (a, b) -> {
+            if (cost.isNull(a) != cost.isNull(b)) {
+                return cost.isNull(a) ? 1 : -1;
+            }
+            int compare = cost.isNull(a) ? 0 : Double.compare(cost.get(b), cost.get(a));
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+
+        int[] top = ListQueryService.topK(rows, 40, cost, true);
+        for (int i = 0; i < 40; i++) {
+            assertThat(top[i]).isEqualTo(expected[i]);
+        }
+    }
+
+    @Test
+    void shouldPageByCursorInNumericUidOrder() {
+        CursorPage<StarshipDTO> first = seek(null, 4);
+        CursorPage<StarshipDTO> second = seek(first.getNextCursor(), 4);
+
+        assertThat(first.getResults()).extracting(StarshipDTO::getUid).containsExactly("2", "3", "5", "9");
+        assertThat(first.getVersion()).isEqualTo(1L);
+        assertThat(second.getResults()).extracting(StarshipDTO::getUid).containsExactly("10", "12");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldResumeCursorAfterVersionChangeWithoutSkippingOrRepeating() {
+        CursorPage<StarshipDTO> first = seek("", 2);
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(ColumnTable.of(new ResourceSnapshot(
+                SwapiResource.STARSHIPS, 2L, Arrays.asList("1", "3", "4", "5", "9"),
+                Arrays.asList(starship("A", "1", "1"), starship("B", "1", "1"), starship("C", "1", "1"),
+                        starship("D", "1", "1"), starship("E", "1", "1")), 0L)));
+
+        CursorPage<StarshipDTO> second = seek(first.getNextCursor(), 2);
+
+        assertThat(first.getResults()).extracting(StarshipDTO::getUid).containsExactly("2", "3");
+        assertThat(second.getResults()).extracting(StarshipDTO::getUid).containsExactly("4", "5");
+        assertThat(second.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> seek("not a cursor!", 2))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private CursorPage<StarshipDTO> seek(String cursor, int limit) {
+        return listQueryService.seek(SwapiResource.STARSHIPS, cursor, limit,
+                (uid, name) -> new StarshipDTO(uid, name, "starships/" + uid));
+    }
+
+    private SwapiResponse<StarshipDTO> query(Map<String, String> params, int page, int limit) {
+        return listQueryService.query(SwapiResource.STARSHIPS, ListQuery.parse(params), page, limit,
+                (uid, name) -> new StarshipDTO(uid, name, "starships/" + uid));
+    }
+
+    private static Map<String, String> params(String key, String value) {
+        Map<String, String> params = new HashMap<>();
+        params.put(key, value);
+        return params;
+    }
+
+    private static Object starship(String name, String cost, String crew) {
+        StarshipDetailResponse.StarshipProperties properties = new StarshipDetailResponse.StarshipProperties();
+        properties.setName(name);
+        properties.setCostInCredits(cost);
+        properties.setCrew(crew);
+        return properties;
+    }
+}
@@ -0,0 +1,71 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListQueryTest {
+
+    @Test
+    void shouldParseSortAndRangeFilters() {
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "2");
+        params.put("sort", "costInCredits:desc");
+        params.put("minCrew", "10");
+        params.put("maxLength", "1,500");
+
+        ListQuery query = ListQuery.parse(params);
+
+        assertThat(query.isEmpty()).isFalse();
+        assertThat(query.getSortField()).isEqualTo("costInCredits");
+        assertThat(query.isDescending()).isTrue();
+        assertThat(query.getRanges()).extracting(ListQuery.Range::getField).containsExactlyInAnyOrder("crew", "length");
+        assertThat(query.getRanges()).filteredOn(range -> range.getField().equals("length"))
+                .extracting(ListQuery.Range::getMax).containsExactly(1500.0);
+    }
+
+    @Test
+    void shouldBeEmptyWithOnlyPagingParams() {
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("limit", "10");
+        params.put("minimal", "x");
+
+        assertThat(ListQuery.parse(params).isEmpty()).isTrue();
+        assertThat(ListQuery.parse(null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldKeepFilterExpression() {
+        ListQuery query = ListQuery.parse(singleton("q", "  height > 180 "));
+
+        assertThat(query.isEmpty()).isFalse();
+        assertThat(query.getExpression()).isEqualTo("height > 180");
+        assertThat(ListQuery.parse(singleton("q", " ")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldDefaultToAscending() {
+        assertThat(ListQuery.parse(singleton("sort", "height")).isDescending()).isFalse();
+    }
+
+    @Test
+    void shouldRejectInvalidValues() {
+        assertThatThrownBy(() -> ListQuery.parse(singleton("sort", "height:up")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ListQuery.parse(singleton("minHeight", "tall")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("minHeight");
+    }
+
+    private static Map<String, String> singleton(String key, String value) {
+        Map<String, String> params = new HashMap<>();
+        params.put(key, value);
+        return params;
+    }
+}
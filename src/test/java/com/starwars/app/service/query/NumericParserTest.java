@@ -0,0 +1,37 @@
+package com.starwars.app.service.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NumericParserTest {
+
+    @Test
+    void shouldParsePlainAndThousandsSeparatedNumbers() {
+        assertThat(NumericParser.parse("172")).isEqualTo(172.0);
+        assertThat(NumericParser.parse("1,000")).isEqualTo(1000.0);
+        assertThat(NumericParser.parse("1,000,000,000,000")).isEqualTo(1.0E12);
+        assertThat(NumericParser.parse("0.5")).isEqualTo(0.5);
+        assertThat(NumericParser.parse(" 75 ")).isEqualTo(75.0);
+    }
+
+    @Test
+    void shouldNormalizeRangesToMidpoint() {
+        assertThat(NumericParser.parse("30-165")).isEqualTo(97.5);
+        assertThat(NumericParser.parse("1,300 - 1,700")).isEqualTo(1500.0);
+    }
+
+    @Test
+    void shouldKeepLeadingNumberWhenFollowedByText() {
+        assertThat(NumericParser.parse("800km")).isEqualTo(800.0);
+    }
+
+    @Test
+    void shouldReturnNaNForUnknownValues() {
+        assertThat(NumericParser.parse("unknown")).isNaN();
+        assertThat(NumericParser.parse("n/a")).isNaN();
+        assertThat(NumericParser.parse("none")).isNaN();
+        assertThat(NumericParser.parse("")).isNaN();
+        assertThat(NumericParser.parse(null)).isNaN();
+    }
+}
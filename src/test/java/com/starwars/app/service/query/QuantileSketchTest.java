@@ -0,0 +1,59 @@
+package com.starwars.app.service.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    @Test
+    void shouldStayWithinRelativeAccuracy() {
+        Random random = new Random(5);
+        double[] values = new double[10000];
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 4 + 10);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.9, 0.99}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).as("q=" + q).isCloseTo(exact, within(exact * 0.01));
+        }
+        assertThat(sketch.quantile(0)).isEqualTo(values[0]);
+        assertThat(sketch.quantile(1)).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void shouldMergeLikeASingleSketch() {
+        QuantileSketch left = new QuantileSketch(0.02);
+        QuantileSketch right = new QuantileSketch(0.02);
+        QuantileSketch all = new QuantileSketch(0.02);
+        for (int i = -500; i <= 1500; i++) {
+            (i % 2 == 0 ? left : right).add(i);
+            all.add(i);
+        }
+
+        left.merge(right);
+
+        assertThat(left.getCount()).isEqualTo(all.getCount());
+        for (double q : new double[]{0.1, 0.2, 0.26, 0.5, 0.75, 0.99}) {
+            assertThat(left.quantile(q)).isEqualTo(all.quantile(q));
+        }
+        assertThat(left.quantile(0.25)).isCloseTo(0.0, within(1.0));
+    }
+
+    @Test
+    void shouldHandleEmptyAndInvalidSketches() {
+        assertThat(new QuantileSketch(0.01).quantile(0.5)).isNaN();
+        assertThatThrownBy(() -> new QuantileSketch(1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(0.01).merge(new QuantileSketch(0.02)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.starwars.app.service.query;
+
+import com.starwars.app.dto.StatsGroup;
+import com.starwars.app.dto.StatsResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceTest {
+
+    @Mock
+    private ColumnStore columnStore;
+
+    private StatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new StatsService(columnStore);
+        ReflectionTestUtils.setField(statsService, "parallelThreshold", 2);
+        ReflectionTestUtils.setField(statsService, "sketchAccuracy", 0.01);
+    }
+
+    @Test
+    void shouldComputeOverallStats() {
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(starships(1L));
+
+        StatsResponse response = statsService.stats(SwapiResource.STARSHIPS, "costInCredits", null);
+        StatsGroup all = response.getGroups().get(0);
+
+        assertThat(response.getGroups()).hasSize(1);
+        assertThat(all.getGroup()).isNull();
+        assertThat(all.getCount()).isEqualTo(4);
+        assertThat(all.getMissing()).isEqualTo(1);
+        assertThat(all.getMin()).isEqualTo(100000.0);
+        assertThat(all.getMax()).isEqualTo(150000000.0);
+        assertThat(all.getMean()).isEqualTo(38460000.0);
+        assertThat(all.getMedian()).isCloseTo(240000.0, within(2400.0));
+        assertThat(all.getPercentiles()).containsOnlyKeys("p50", "p90", "p95", "p99");
+    }
+
+    @Test
+    void shouldGroupByCategoricalField() {
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(starships(1L));
+
+        StatsResponse response = statsService.stats(SwapiResource.STARSHIPS, "cost_in_credits", "starship_class");
+
+        assertThat(response.getField()).isEqualTo("costInCredits");
+        assertThat(response.getGroupBy()).isEqualTo("starshipClass");
+        assertThat(response.getGroups()).extracting(StatsGroup::getGroup)
+                .containsExactly("corvette", "light freighter", "star destroyer", "starfighter");
+        StatsGroup corvettes = response.getGroups().get(0);
+        assertThat(corvettes.getCount()).isEqualTo(2);
+        assertThat(corvettes.getMean()).isEqualTo(1870000.0);
+        StatsGroup starfighters = response.getGroups().get(3);
+        assertThat(starfighters.getCount()).isZero();
+        assertThat(starfighters.getMissing()).isEqualTo(1);
+        assertThat(starfighters.getMean()).isNull();
+    }
+
+    @Test
+    void shouldMatchSequentialReduction() {
+        Random random = new Random(9);
+        List<String> uids = new ArrayList<>();
+        List<Object> ships = new ArrayList<>();
+        String[] classes = {"starfighter", "freighter", "corvette"};
+        for (int i = 0; i < 3000; i++) {
+            uids.add(String.valueOf(i));
+            ships.add(starship("ship " + i, String.valueOf(random.nextInt(100000)), classes[random.nextInt(3)]));
+        }
+        ColumnTable table = ColumnTable.of(new ResourceSnapshot(SwapiResource.STARSHIPS, 3L, uids, ships, 0L));
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(table);
+
+        StatsResponse parallel = statsService.stats(SwapiResource.STARSHIPS, "costInCredits", "starshipClass");
+        StatsService sequential = new StatsService(columnStore);
+        ReflectionTestUtils.setField(sequential, "parallelThreshold", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(sequential, "sketchAccuracy", 0.01);
+
+        StatsResponse expected = sequential.stats(SwapiResource.STARSHIPS, "costInCredits", "starshipClass");
+        for (int g = 0; g < expected.getGroups().size(); g++) {
+            StatsGroup a = parallel.getGroups().get(g);
+            StatsGroup b = expected.getGroups().get(g);
+            assertThat(a.getCount()).isEqualTo(b.getCount());
+            assertThat(a.getSum()).isCloseTo(b.getSum(), within(1e-3));
+            assertThat(a.getPercentiles()).isEqualTo(b.getPercentiles());
+        }
+    }
+
+    @Test
+    void shouldCacheUntilDatasetVersionChanges() {
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(starships(1L), starships(1L), starships(2L));
+
+        StatsResponse first = statsService.stats(SwapiResource.STARSHIPS, "crew", null);
+
+        assertThat(statsService.stats(SwapiResource.STARSHIPS, "crew", null)).isSameAs(first);
+        assertThat(statsService.stats(SwapiResource.STARSHIPS, "crew", null).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldRejectUnsupportedFields() {
+        when(columnStore.table(SwapiResource.STARSHIPS)).thenReturn(starships(1L));
+
+        assertThatThrownBy(() -> statsService.stats(SwapiResource.STARSHIPS, "name", null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported field: name");
+        assertThatThrownBy(() -> statsService.stats(SwapiResource.STARSHIPS, "crew", "crew"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported groupBy: crew");
+    }
+
+    private static ColumnTable starships(long version) {
+        List<Object> ships = Arrays.asList(
+                starship("CR90 corvette", "3500000", "corvette"),
+                starship("Star Destroyer", "150000000", "Star Destroyer"),
+                starship("Sentinel-class landing craft", "240000", "corvette"),
+                starship("Millennium Falcon", "100000", "Light freighter"),
+                starship("X-wing", "unknown", "Starfighter"));
+        return ColumnTable.of(new ResourceSnapshot(SwapiResource.STARSHIPS, version,
+                Arrays.asList("2", "3", "5", "10", "12"), ships, 0L));
+    }
+
+    private static Object starship(String name, String cost, String starshipClass) {
+        StarshipDetailResponse.StarshipProperties properties = new StarshipDetailResponse.StarshipProperties();
+        properties.setName(name);
+        properties.setCostInCredits(cost);
+        properties.setCrew("1");
+        properties.setStarshipClass(starshipClass);
+        return properties;
+    }
+}
@@ -0,0 +1,86 @@
+package com.starwars.app.service.search;
+
+import com.starwars.app.dto.SearchHit;
+import com.starwars.app.dto.swapi.FilmDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiEntityRefreshedEvent;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextSearchServiceTest {
+
+    private static final String BASE = "https://www.swapi.tech/api/";
+
+    @Mock
+    private SwapiDatasetService datasetService;
+
+    private FullTextSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new FullTextSearchService(datasetService);
+        ReflectionTestUtils.setField(searchService, "maxResults", 50);
+
+        FilmDetailResponse.FilmProperties film = new FilmDetailResponse.FilmProperties();
+        film.setTitle("A New Hope");
+        film.setDirector("George Lucas");
+        film.setOpeningCrawl("Rebel spies managed to steal secret plans to the Empire's ultimate weapon, the DEATH STAR.");
+        searchService.onEntityRefreshed(new SwapiEntityRefreshedEvent(SwapiResource.FILMS, BASE + "films/1", film, "e1"));
+
+        StarshipDetailResponse.StarshipProperties starship = new StarshipDetailResponse.StarshipProperties();
+        starship.setName("Death Star");
+        starship.setModel("DS-1 Orbital Battle Station");
+        starship.setStarshipClass("Deep Space Mobile Battlestation");
+        searchService.onEntityRefreshed(new SwapiEntityRefreshedEvent(SwapiResource.STARSHIPS, BASE + "starships/9", starship, "e2"));
+    }
+
+    @Test
+    void shouldSearchAcrossTypesAfterPreparingEveryDataset() {
+        List<SearchHit> hits = searchService.search("\"death star\"", null, 10);
+
+        assertThat(hits).extracting(SearchHit::getUrl).containsExactlyInAnyOrder(BASE + "films/1", BASE + "starships/9");
+        assertThat(hits).extracting(SearchHit::getName).contains("A New Hope", "Death Star");
+        verify(datasetService).prepare(SwapiResource.values());
+    }
+
+    @Test
+    void shouldFilterByTypeAndReindexOnRefresh() {
+        FilmDetailResponse.FilmProperties edited = new FilmDetailResponse.FilmProperties();
+        edited.setTitle("A New Hope");
+        edited.setOpeningCrawl("It is a period of civil war.");
+        searchService.onEntityRefreshed(new SwapiEntityRefreshedEvent(SwapiResource.FILMS, BASE + "films/1", edited, "e3"));
+
+        assertThat(searchService.search("death", SwapiResource.FILMS, 10)).isEmpty();
+        assertThat(searchService.search("civil war", SwapiResource.FILMS, 10))
+                .extracting(SearchHit::getUid).containsExactly("1");
+    }
+
+    @Test
+    void shouldLoadDatasetEvenWhenIndexAlreadyHasEntries() {
+        searchService.search("death", SwapiResource.FILMS, 10);
+
+        verify(datasetService).prepare(SwapiResource.FILMS);
+        verify(datasetService, never()).refreshAsync(SwapiResource.FILMS);
+    }
+
+    @Test
+    void shouldRejectLimitOutOfRange() {
+        assertThatThrownBy(() -> searchService.search("death", null, 0))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.starwars.app.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Chewbacca", "Millennium Falcon", "Luke Skywalker", "R2-D2", "Boba Fett");
+
+    private final FuzzyIndex index = FuzzyIndex.build(NAMES);
+
+    @Test
+    void shouldMatchCommonMisspellings() {
+        assertThat(index.match("Chewbaca", 2, NAMES.size())).containsExactly(1, -1, -1, -1, -1);
+        assertThat(index.match("milenium falcon", 2, NAMES.size())).containsExactly(-1, 2, -1, -1, -1);
+        assertThat(index.match("chewie", 2, NAMES.size())[0]).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldMatchIndividualWords() {
+        assertThat(index.match("falcn", 1, NAMES.size())[1]).isEqualTo(1);
+        assertThat(index.match("skywalkr", 1, NAMES.size())[2]).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRespectEditBudget() {
+        assertThat(index.match("Chubaca", 2, NAMES.size())[0]).isEqualTo(-1);
+        assertThat(index.match("Chubaca", 3, NAMES.size())[0]).isEqualTo(3);
+        assertThat(index.match("chewbacca", 0, NAMES.size())[0]).isEqualTo(0);
+    }
+
+    @Test
+    void shouldFallBackToScanningForShortQueries() {
+        assertThat(index.match("r2d", 1, NAMES.size())[3]).isEqualTo(1);
+        assertThat(index.match("", 2, NAMES.size())).containsOnly(-1);
+    }
+
+    @Test
+    void shouldComputeBoundedLevenshtein() {
+        assertThat(FuzzyIndex.boundedLevenshtein("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(FuzzyIndex.boundedLevenshtein("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(FuzzyIndex.boundedLevenshtein("abc", "abc", 0)).isZero();
+        assertThat(FuzzyIndex.boundedLevenshtein("abcdef", "ab", 2)).isEqualTo(3);
+        assertThat(FuzzyIndex.boundedLevenshtein("", "ab", 2)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,119 @@
+package com.starwars.app.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put("films/1", Arrays.asList("A New Hope", "George Lucas",
+                "Rebel spaceships, striking from a hidden base, have won their first victory against the evil Galactic Empire."));
+        index.put("films/2", Arrays.asList("The Empire Strikes Back", "Irvin Kershner",
+                "It is a dark time for the Rebellion. Although the Death Star has been destroyed, Imperial troops have driven the Rebel forces from their hidden base."));
+        index.put("films/3", Arrays.asList("Return of the Jedi", "Richard Marquand",
+                "Luke Skywalker has returned to his home planet of Tatooine in an attempt to rescue his friend Han Solo."));
+    }
+
+    @Test
+    void shouldRankTermMatchesWithBm25() {
+        List<InvertedIndex.Hit> hits = index.search("empire", 10);
+
+        assertThat(hits).extracting(InvertedIndex.Hit::getKey).containsExactly("films/1", "films/2");
+        assertThat(hits.get(0).getScore()).isGreaterThan(0);
+        assertThat(index.search("lucas", 10)).extracting(InvertedIndex.Hit::getKey).containsExactly("films/1");
+    }
+
+    @Test
+    void shouldRequirePhrasesToMatchConsecutively() {
+        assertThat(index.search("\"hidden base\"", 10)).extracting(InvertedIndex.Hit::getKey)
+                .containsExactlyInAnyOrder("films/1", "films/2");
+        assertThat(index.search("\"rebel spaceships\"", 10)).extracting(InvertedIndex.Hit::getKey)
+                .containsExactly("films/1");
+        assertThat(index.search("\"base hidden\"", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldNotMatchPhrasesAcrossFields() {
+        assertThat(index.search("\"hope george\"", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceDocumentsOnUpdate() {
+        index.put("films/3", Collections.singletonList("Return of the Jedi Special Edition"));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("tatooine", 10)).isEmpty();
+        assertThat(index.search("special", 10)).extracting(InvertedIndex.Hit::getKey).containsExactly("films/3");
+    }
+
+    @Test
+    void shouldCompactAfterManyUpdates() {
+        for (int i = 0; i < 200; i++) {
+            index.put("films/3", Collections.singletonList("Return of the Jedi revision " + i));
+        }
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("revision 199", 10)).extracting(InvertedIndex.Hit::getKey).containsExactly("films/3");
+        assertThat(index.search("\"evil galactic empire\"", 10)).extracting(InvertedIndex.Hit::getKey).containsExactly("films/1");
+    }
+
+    @Test
+    void shouldRoundTripCompressedPostings() {
+        InvertedIndex.Postings postings = new InvertedIndex.Postings();
+        postings.append(3, new int[]{0, 200, 70000});
+        postings.append(1000, new int[]{5});
+
+        assertThat(postings.decode(new BitSet()).get(3)).containsExactly(0, 200, 70000);
+        assertThat(postings.decode(new BitSet()).get(1000)).containsExactly(5);
+        assertThat(postings.byteSize()).isEqualTo(12);
+    }
+
+    @Test
+    void shouldStreamPostingsSkippingDeletedDocsAndUnreadPositions() {
+        InvertedIndex.Postings postings = new InvertedIndex.Postings();
+        postings.append(3, new int[]{0, 200, 70000});
+        postings.append(7, new int[]{1});
+        postings.append(1000, new int[]{5, 300});
+        BitSet deleted = new BitSet();
+        deleted.set(7);
+
+        InvertedIndex.Postings.Cursor cursor = postings.cursor(deleted, 1.0);
+
+        assertThat(cursor.next()).isEqualTo(3);
+        assertThat(cursor.freq).isEqualTo(3);
+        assertThat(cursor.advance(4)).isEqualTo(1000);
+        assertThat(cursor.positions()).containsExactly(5, 300);
+        assertThat(cursor.next()).isEqualTo(InvertedIndex.Postings.NO_MORE_DOCS);
+    }
+
+    @Test
+    void shouldScoreLooseTermsOnPhraseMatches() {
+        List<InvertedIndex.Hit> hits = index.search("\"hidden base\" lucas", 10);
+
+        assertThat(hits).extracting(InvertedIndex.Hit::getKey).containsExactly("films/1", "films/2");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+        assertThat(index.search("\"hidden base\" tatooine", 10)).extracting(InvertedIndex.Hit::getKey)
+                .containsExactlyInAnyOrder("films/1", "films/2");
+        assertThat(index.search("\"death star\" \"hidden base\"", 10)).extracting(InvertedIndex.Hit::getKey)
+                .containsExactly("films/2");
+    }
+
+    @Test
+    void shouldRemoveDocuments() {
+        index.remove("films/1");
+
+        assertThat(index.search("empire", 10)).extracting(InvertedIndex.Hit::getKey).containsExactly("films/2");
+        assertThat(index.search("", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.starwars.app.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Luke Skywalker", "Luminara Unduli", "Anakin Skywalker", "Lobot", "Padmé Amidala", "Shmi Skywalker");
+    private static final int[] SCORES = {4, 1, 3, 1, 3, 2};
+
+    private final PrefixIndex index = PrefixIndex.build(NAMES, SCORES, 3);
+
+    @Test
+    void shouldRankPrefixMatchesByPopularity() {
+        assertThat(index.suggest("lu", 10)).containsExactly(0, 1);
+        assertThat(index.suggest("l", 10)).containsExactly(0, 3, 1);
+    }
+
+    @Test
+    void shouldMatchWordsInsideNames() {
+        assertThat(index.suggest("sky", 10)).containsExactly(0, 2, 5);
+        assertThat(index.suggest("luke sky", 10)).containsExactly(0);
+    }
+
+    @Test
+    void shouldNormalizeCaseAndAccents() {
+        assertThat(index.suggest("PADME", 10)).containsExactly(4);
+        assertThat(index.suggest("  amidalá ", 10)).containsExactly(4);
+    }
+
+    @Test
+    void shouldCapResultsAtLimitAndTopK() {
+        assertThat(index.suggest("sky", 1)).containsExactly(0);
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest("yoda", 10)).isEmpty();
+        assertThat(PrefixIndex.build(Arrays.asList("A", "B"), new int[]{1, 1}, 3).suggest("c", 5)).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package com.starwars.app.service.search;
+
+import com.starwars.app.dto.FuzzyMatch;
+import com.starwars.app.dto.SearchSuggestion;
+import com.starwars.app.dto.swapi.PersonDetailResponse;
+import com.starwars.app.dto.swapi.StarshipDetailResponse;
+import com.starwars.app.exception.BadRequestException;
+import com.starwars.app.service.external.ResourceSnapshot;
+import com.starwars.app.service.external.SwapiClientService;
+import com.starwars.app.service.external.SwapiDatasetService;
+import com.starwars.app.service.external.SwapiResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestServiceTest {
+
+    @Mock
+    private SwapiDatasetService datasetService;
+
+    @Mock
+    private SwapiClientService swapiClient;
+
+    private SuggestService suggestService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(swapiClient.resourceUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "https://www.swapi.tech/api/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        suggestService = new SuggestService(datasetService, swapiClient);
+        ReflectionTestUtils.setField(suggestService, "topK", 20);
+        ReflectionTestUtils.setField(suggestService, "maxEdits", 2);
+    }
+
+    @Test
+    void shouldSuggestPeopleRankedByFilmCount() {
+        when(datasetService.snapshot(SwapiResource.PEOPLE)).thenReturn(people(1L));
+
+        List<SearchSuggestion> suggestions = suggestService.suggest("lu", SwapiResource.PEOPLE, 10);
+
+        assertThat(suggestions).extracting(SearchSuggestion::getName).containsExactly("Luke Skywalker", "Luminara Unduli");
+        assertThat(suggestions.get(0).getScore()).isEqualTo(4);
+        assertThat(suggestions.get(0).getUrl()).isEqualTo("https://www.swapi.tech/api/people/1");
+        assertThat(suggestions.get(0).getType()).isEqualTo("people");
+    }
+
+    @Test
+    void shouldMergeAllTypesWhenNoTypeGiven() {
+        when(datasetService.snapshot(SwapiResource.PEOPLE)).thenReturn(people(1L));
+        when(datasetService.snapshot(SwapiResource.STARSHIPS)).thenReturn(new ResourceSnapshot(SwapiResource.STARSHIPS, 2L,
+                Collections.singletonList("99"), Collections.singletonList(starship("Lucrehulk", 5)), System.currentTimeMillis()));
+        when(datasetService.snapshot(SwapiResource.FILMS)).thenReturn(ResourceSnapshot.empty(SwapiResource.FILMS));
+        when(datasetService.snapshot(SwapiResource.VEHICLES)).thenReturn(ResourceSnapshot.empty(SwapiResource.VEHICLES));
+
+        List<SearchSuggestion> suggestions = suggestService.suggest("lu", null, 2);
+
+        assertThat(suggestions).extracting(SearchSuggestion::getName).containsExactly("Lucrehulk", "Luke Skywalker");
+    }
+
+    @Test
+    void shouldReuseIndexUntilSnapshotVersionChanges() {
+        when(datasetService.snapshot(SwapiResource.PEOPLE)).thenReturn(people(1L), people(1L), people(2L));
+
+        suggestService.suggest("lu", SwapiResource.PEOPLE, 5);
+        Object first = suggesterOf();
+        suggestService.suggest("lu", SwapiResource.PEOPLE, 5);
+        assertThat(suggesterOf()).isSameAs(first);
+        suggestService.suggest("lu", SwapiResource.PEOPLE, 5);
+        assertThat(suggesterOf()).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldRejectLimitAboveTopK() {
+        assertThatThrownBy(() -> suggestService.suggest("lu", SwapiResource.PEOPLE, 21))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldReturnFuzzyMatchesOrderedByDistance() {
+        when(datasetService.snapshot(SwapiResource.PEOPLE)).thenReturn(people(1L));
+
+        List<FuzzyMatch> matches = suggestService.fuzzy("luk skywalkr", SwapiResource.PEOPLE, null, 10);
+
+        assertThat(matches).extracting(FuzzyMatch::getName).containsExactly("Luke Skywalker");
+        assertThat(matches.get(0).getDistance()).isEqualTo(2);
+        assertThat(suggestService.fuzzy("luk skywalkr", SwapiResource.PEOPLE, 1, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectEditsAboveConfiguredMaximum() {
+        assertThatThrownBy(() -> suggestService.fuzzy("luke", SwapiResource.PEOPLE, 3, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("maxEdits");
+    }
+
+    private Object suggesterOf() {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(suggestService, "suggesters")).get(SwapiResource.PEOPLE);
+    }
+
+    private static ResourceSnapshot people(long version) {
+        return new ResourceSnapshot(SwapiResource.PEOPLE, version, Arrays.asList("1", "2"),
+                Arrays.asList(person("Luke Skywalker", 4), person("Luminara Unduli", 1)), System.currentTimeMillis());
+    }
+
+    private static Object person(String name, int films) {
+        PersonDetailResponse.PersonProperties properties = new PersonDetailResponse.PersonProperties();
+        properties.setName(name);
+        properties.setFilms(Collections.nCopies(films, "https://www.swapi.tech/api/films/1"));
+        return properties;
+    }
+
+    private static Object starship(String name, int films) {
+        StarshipDetailResponse.StarshipProperties properties = new StarshipDetailResponse.StarshipProperties();
+        properties.setName(name);
+        properties.setFilms(Collections.nCopies(films, "https://www.swapi.tech/api/films/1"));
+        return properties;
+    }
+}